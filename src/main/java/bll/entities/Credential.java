@@ -6,17 +6,22 @@ import bll.exceptions.AccessKeyDoesNotExistException;
 import bll.exceptions.AccessKeysCannotBeEmptyException;
 import bll.exceptions.AccessKeyAlreadyExistsException;
 import bll.exceptions.NullArgumentException;
+import bll.valueObjects.IPasswordHashParameters;
+import bll.valueObjects.PasswordHashParameters;
+import dal.infra.Identifiers;
 
 import javax.persistence.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
-import static bll.entities.ICredential.createHashedPassword;
 import static bll.entities.ICredential.getSaltRandom;
 
 @Entity
 final public class Credential implements ICredential {
     @Id
     private UUID ID;
+    @Version
+    private long version;
     @ElementCollection(fetch = FetchType.EAGER)
     @Column(nullable = false)
     private Set<String> accessKeys;
@@ -24,6 +29,8 @@ final public class Credential implements ICredential {
     private byte[] salt;
     @Column(nullable = false)
     private String hashedPassword;
+    @Embedded
+    private PasswordHashParameters hashParameters;
 
 
     public Credential(String accessKey, String password) {
@@ -33,9 +40,10 @@ final public class Credential implements ICredential {
             throw new InvalidAccessKeySizeException();
         if (INCORRECT_PASSWORD_SIZE.test(password.trim()))
             throw new InvalidPasswordSizeException();
-        this.ID = UUID.randomUUID();
+        this.ID = Identifiers.next();
         this.salt = getSaltRandom();
-        this.hashedPassword = createHashedPassword(password.trim(), this.salt);
+        this.hashParameters = currentHashParameters();
+        this.hashedPassword = PasswordHashing.hash(password.trim(), this.salt, this.hashParameters);
         this.accessKeys = new HashSet<>();
         this.accessKeys.add(accessKey.trim());
     }
@@ -110,11 +118,50 @@ final public class Credential implements ICredential {
     public boolean isPasswordValid(String passwordInPlainText) {
         if (passwordInPlainText == null)
             throw new NullArgumentException();
-        return this.hashedPassword.equals(createHashedPassword(passwordInPlainText.trim(), this.salt));
+        return this.hashedPassword.equals(
+                PasswordHashing.hash(passwordInPlainText.trim(), this.salt, getHashParameters()));
     }
 
     /**
-     * Updates the credential password.
+     * Checks on the password hashing pool whether the password provided is the same as the credential.
+     *
+     * @param passwordInPlainText password be verified.
+     * @return {@code true} if the password provided is the same as the credential, completed on the hashing pool.
+     * @throws NullArgumentException if the argument is null.
+     */
+    @Override
+    public CompletableFuture<Boolean> isPasswordValidAsync(String passwordInPlainText) {
+        if (passwordInPlainText == null)
+            throw new NullArgumentException();
+        String hashedPassword = this.hashedPassword;
+        return PasswordHashing.hashAsync(passwordInPlainText.trim(), this.salt, getHashParameters())
+                .thenApply(hashedPassword::equals);
+    }
+
+    /**
+     * Returns the parameters the password was hashed with.
+     * Passwords stored before the parameters were kept with the credential have the legacy parameters.
+     *
+     * @return the parameters the password was hashed with.
+     */
+    @Override
+    public IPasswordHashParameters getHashParameters() {
+        return this.hashParameters == null ? PasswordHashing.LEGACY_PARAMETERS : this.hashParameters;
+    }
+
+    /**
+     * Returns {@code true} if the password was hashed with other parameters than the current ones,
+     * so it should be rehashed the next time it is provided.
+     *
+     * @return {@code true} if the password was hashed with other parameters than the current ones.
+     */
+    @Override
+    public boolean needsRehash() {
+        return !getHashParameters().equals(PasswordHashing.getParameters());
+    }
+
+    /**
+     * Updates the credential password, hashed with the current parameters.
      *
      * @param newPasswordInPlainText new password for the credential.
      * @throws NullArgumentException        if the argument is null.
@@ -127,7 +174,8 @@ final public class Credential implements ICredential {
         if (INCORRECT_PASSWORD_SIZE.test(newPasswordInPlainText.trim()))
             throw new InvalidPasswordSizeException();
 
-        this.hashedPassword = createHashedPassword(newPasswordInPlainText.trim(), this.salt);
+        this.hashParameters = currentHashParameters();
+        this.hashedPassword = PasswordHashing.hash(newPasswordInPlainText.trim(), this.salt, this.hashParameters);
     }
 
     @Override
@@ -161,6 +209,11 @@ final public class Credential implements ICredential {
     protected Credential() {
     }
 
+    private static PasswordHashParameters currentHashParameters() {
+        IPasswordHashParameters current = PasswordHashing.getParameters();
+        return new PasswordHashParameters(current.getAlgorithm(), current.getIterationCount(), current.getKeyLength());
+    }
+
     @SuppressWarnings("unused")
     private void setID(UUID ID) {
         this.ID = ID;
@@ -3,17 +3,38 @@ package bll.entities;
 import bll.exceptions.DifferentObjectException;
 import bll.exceptions.InvalidNameSizeException;
 import bll.exceptions.NullArgumentException;
+import dal.infra.DirtyTracking;
+import dal.infra.Identifiers;
+import dal.infra.SoftDeletes;
+import org.hibernate.annotations.Filter;
 
-import javax.persistence.Entity;
-import javax.persistence.Id;
+import javax.persistence.*;
 import java.util.Objects;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = @Index(name = "index_form_of_payment_name", columnList = "normalizedName"),
+        uniqueConstraints = @UniqueConstraint(name = FormOfPayment.UNIQUE_NAME, columnNames = {"normalizedName", "nameScope"}))
+@Filter(name = SoftDeletes.FILTER, condition = SoftDeletes.CONDITION)
 public class FormOfPayment implements IFormOfPayment {
+    /**
+     * Unique key of the names of the forms of payment within their scope.
+     */
+    public static final String UNIQUE_NAME = "unique_form_of_payment_name";
+    /**
+     * Scope shared by the forms of payment of the catalogue, whose names are unique. Every other form of
+     * payment, such as the forms of the wallets, is the only one of its scope.
+     */
+    public static final UUID CATALOGUE_SCOPE = new UUID(0, 0);
     @Id
     private UUID id;
+    @Version
+    private long version;
     private String name;
+    @Column(nullable = false, length = MAXIMUM_NAME_SIZE)
+    private String normalizedName;
+    @Column(nullable = false, updatable = false)
+    private UUID nameScope;
     private boolean active;
 
     public FormOfPayment(String name, boolean active) {
@@ -22,8 +43,10 @@ public class FormOfPayment implements IFormOfPayment {
         if (INCORRECT_NAME_SIZE.test(name.trim()))
             throw new InvalidNameSizeException();
         this.name = name.trim();
+        this.normalizedName = NORMALIZED_NAME.apply(name);
         this.active = active;
-        this.id = UUID.randomUUID();
+        this.id = Identifiers.next();
+        this.nameScope = this.id;
     }
 
     public FormOfPayment(String name) {
@@ -34,8 +57,27 @@ public class FormOfPayment implements IFormOfPayment {
         if (formOfPayment == null)
             throw new NullArgumentException();
         this.name = formOfPayment.getName();
+        this.normalizedName = NORMALIZED_NAME.apply(this.name);
         this.active = formOfPayment.isActive();
         this.id = formOfPayment.getID();
+        this.nameScope = this.id;
+        if (formOfPayment instanceof FormOfPayment) {
+            this.version = ((FormOfPayment) formOfPayment).version;
+            this.nameScope = ((FormOfPayment) formOfPayment).nameScope;
+        }
+    }
+
+    /**
+     * Returns a copy of the form of payment to be added to the catalogue, where its name must be unique.
+     *
+     * @param formOfPayment to be added to the catalogue.
+     * @return a copy of the form of payment in the scope of the catalogue.
+     * @throws NullArgumentException if the argument is null.
+     */
+    public static IFormOfPayment inCatalogue(IFormOfPayment formOfPayment) {
+        FormOfPayment copy = new FormOfPayment(formOfPayment);
+        copy.nameScope = CATALOGUE_SCOPE;
+        return copy;
     }
 
     @Override
@@ -46,7 +88,10 @@ public class FormOfPayment implements IFormOfPayment {
             throw new DifferentObjectException();
 
         this.name = externalCopy.getName();
+        this.normalizedName = NORMALIZED_NAME.apply(this.name);
         this.active = externalCopy.isActive();
+        if (externalCopy instanceof FormOfPayment)
+            this.version = Math.max(this.version, ((FormOfPayment) externalCopy).version);
     }
 
     /**
@@ -85,6 +130,7 @@ public class FormOfPayment implements IFormOfPayment {
         if (INCORRECT_NAME_SIZE.test(newName.trim()))
             throw new InvalidNameSizeException();
         this.name = newName.trim();
+        this.normalizedName = NORMALIZED_NAME.apply(newName);
     }
 
     /**
@@ -159,7 +205,7 @@ public class FormOfPayment implements IFormOfPayment {
      */
     @Override
     public IFormOfPayment clone() {
-        return new FormOfPayment(this);
+        return DirtyTracking.copyOf(this, new FormOfPayment(this));
     }
 
 
@@ -0,0 +1,177 @@
+package bll.entities;
+
+import bll.exceptions.NullArgumentException;
+
+import java.math.BigDecimal;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.function.ToIntFunction;
+
+/**
+ * Balances and cash flows of a set of movements, of credits with a positive amount and debits with a negative one.
+ * Flows filtered by their date of accomplish only count accomplished movements, and flows filtered by their due date
+ * count every movement.
+ */
+public interface ICashFlow {
+    ToIntFunction<YearMonth> MONTH_KEY = (m) -> m.getYear() * 100 + m.getMonthValue();
+
+    /**
+     * Returns the current balance.
+     *
+     * @return the current balance.
+     */
+    BigDecimal getBalance();
+
+    /**
+     * Returns the reference balance (month / year).
+     *
+     * @param reference month / year.
+     * @return the reference balance (month / year).
+     * @throws NullArgumentException if the argument is null.
+     */
+    BigDecimal getBalance(YearMonth reference);
+
+    /**
+     * Returns the total amount of credit transactions, filtered by their date of accomplish, in the current month.
+     *
+     * @return the total amount of credit transactions in the current month.
+     */
+    BigDecimal getCashInflow();
+
+    /**
+     * Returns the total value of credit transactions, filtered by their date of accomplish, in the month / year.
+     *
+     * @param reference month / year.
+     * @return the total value of credit transactions in the month / year.
+     * @throws NullArgumentException if the argument is null.
+     */
+    BigDecimal getCashInflow(YearMonth reference);
+
+    /**
+     * Returns the total amount of credit transactions, filtered by their date of accomplish, in the current year.
+     *
+     * @return the total amount of credit transactions, filtered by their date of accomplish, in the current year.
+     */
+    BigDecimal getCashInflowInYear();
+
+    /**
+     * Returns the total value of credit transactions, filtered by their date of accomplish, in the year.
+     *
+     * @param year year for calculation.
+     * @return the total value of credit transactions, filtered by their date of accomplish, in the year.
+     * @throws NullArgumentException if the argument is null.
+     */
+    BigDecimal getCashInflowInYear(Year year);
+
+    /**
+     * Returns the total amount of debit transactions, filtered by their date of accomplish, in the current month.
+     *
+     * @return the total amount of debit transactions, filtered by their date of accomplish, in the current month.
+     */
+    BigDecimal getCashOutflow();
+
+    /**
+     * Returns the total value of debit transactions, filtered by their date of accomplish, in the month / year.
+     *
+     * @param reference month / year.
+     * @return the total value of debit transactions, filtered by their date of accomplish, in the month / year.
+     * @throws NullArgumentException if the argument is null.
+     */
+    BigDecimal getCashOutflow(YearMonth reference);
+
+    /**
+     * Returns the total amount of debit transactions, filtered by their date of accomplish, in the current year.
+     *
+     * @return the total amount of debit transactions, filtered by their date of accomplish, in the current year.
+     */
+    BigDecimal getCashOutflowInYear();
+
+    /**
+     * Returns the total value of debit transactions, filtered by their date of accomplish, in the year.
+     *
+     * @param year year for calculation.
+     * @return the total value of debit transactions, filtered by their date of accomplish, in the year.
+     * @throws NullArgumentException if the argument is null.
+     */
+    BigDecimal getCashOutflowInYear(Year year);
+
+    /**
+     * Returns the current balance expected only movement, filtered by their due date.
+     *
+     * @return the current balance expected only movement, filtered by their due date.
+     */
+    BigDecimal getBalanceExpected();
+
+    /**
+     * Returns the reference balance expected only movement, filtered by their due date.
+     *
+     * @param reference month / year.
+     * @return the reference balance expected only movement, filtered by their due date.
+     * @throws NullArgumentException if the argument is null.
+     */
+    BigDecimal getBalanceExpected(YearMonth reference);
+
+    /**
+     * Returns the total amount of credit movement, filtered by their due date, in the current month.
+     *
+     * @return the total amount of credit transactions and movement in the current month.
+     */
+    BigDecimal getCashInflowExpected();
+
+    /**
+     * Returns the total value of credit movement, filtered by their due date,  in the month / year.
+     *
+     * @param reference month / year.
+     * @return the total value of credit transactions and movement in the month / year.
+     * @throws NullArgumentException if the argument is null.
+     */
+    BigDecimal getCashInflowExpected(YearMonth reference);
+
+    /**
+     * Returns the total amount of credit movement, filtered by their due date, in the current year.
+     *
+     * @return the total amount of credit movement, filtered by their due date, in the current year.
+     */
+    BigDecimal getCashInflowInYearExpected();
+
+    /**
+     * Returns the total value of credit movement, filtered by their due date, in the year.
+     *
+     * @param year year for calculation.
+     * @return the total value of credit transactions and movement in the year.
+     * @throws NullArgumentException if the argument is null.
+     */
+    BigDecimal getCashInflowInYearExpected(Year year);
+
+    /**
+     * Returns the total amount of debit movement, filtered by their due date, in the current month.
+     *
+     * @return the total amount of debit movement, filtered by their due date, in the current month.
+     */
+    BigDecimal getCashOutflowExpected();
+
+    /**
+     * Returns the total value of debit movement, filtered by their due date, the month / year.
+     *
+     * @param reference month / year.
+     * @return the total value of debit movement, filtered by their due date, in the month / year.
+     * @throws NullArgumentException if the argument is null.
+     */
+    BigDecimal getCashOutflowExpected(YearMonth reference);
+
+    /**
+     * Returns the total amount of debit movement, filtered by their due date, in the current year.
+     *
+     * @return the total amount of debit movement, filtered by their due date, in the current year.
+     */
+    BigDecimal getCashOutflowInYearExpected();
+
+    /**
+     * Returns the total value of debit movement, filtered by their due date, in the year.
+     *
+     * @param year year for calculation.
+     * @return the total value of debit movement, filtered by their due date, in the year.
+     * @throws NullArgumentException if the argument is null.
+     */
+    BigDecimal getCashOutflowInYearExpected(Year year);
+}
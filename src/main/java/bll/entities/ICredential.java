@@ -6,16 +6,13 @@ import bll.exceptions.AccessKeyDoesNotExistException;
 import bll.exceptions.InvalidAccessKeySizeException;
 import bll.exceptions.InvalidPasswordSizeException;
 import bll.exceptions.AccessKeyAlreadyExistsException;
+import bll.valueObjects.IPasswordHashParameters;
 
-import javax.crypto.SecretKeyFactory;
-import javax.crypto.spec.PBEKeySpec;
 import java.io.Serializable;
-import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.security.spec.InvalidKeySpecException;
-import java.security.spec.KeySpec;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 
 public interface ICredential extends Serializable {
@@ -25,7 +22,6 @@ public interface ICredential extends Serializable {
     int SALT_SIZE = 16;
     int KEY_LENGTH = 128;
     int ITERATION_COUNT = 65536;
-    String FORMAT_HEXADECIMAL_FOR_HASH = "%02X";
     String HASH_ALGORITHM = "PBKDF2WithHmacSHA1";
     Predicate<String> INCORRECT_ACCESS_KEY_SIZE = (s) -> s.length() > MAXIMUM_ACCESS_KEY_SIZE;
     Predicate<String> INCORRECT_PASSWORD_SIZE = (s) -> s.length() < MINIMUM_PASSWORD_SIZE;
@@ -75,7 +71,32 @@ public interface ICredential extends Serializable {
     boolean isPasswordValid(String passwordInPlainText);
 
     /**
-     * Updates the credential password.
+     * Checks on the password hashing pool whether the password provided is the same as the credential.
+     *
+     * @param passwordInPlainText password be verified.
+     * @return {@code true} if the password provided is the same as the credential, completed on the hashing pool.
+     * @throws NullArgumentException if the argument is null.
+     */
+    CompletableFuture<Boolean> isPasswordValidAsync(String passwordInPlainText);
+
+    /**
+     * Returns the parameters the password was hashed with.
+     *
+     * @return the parameters the password was hashed with.
+     */
+    IPasswordHashParameters getHashParameters();
+
+    /**
+     * Returns {@code true} if the password was hashed with other parameters than the current ones,
+     * so it should be rehashed the next time it is provided.
+     *
+     * @return {@code true} if the password was hashed with other parameters than the current ones.
+     * @see PasswordHashing#getParameters()
+     */
+    boolean needsRehash();
+
+    /**
+     * Updates the credential password, hashed with the current parameters.
      *
      * @param newPasswordInPlainText new password for the credential.
      * @throws NullArgumentException        if the argument is null.
@@ -104,28 +125,26 @@ public interface ICredential extends Serializable {
     }
 
     /**
-     * Returns a hash of the given password, in a 32-character string.
+     * Returns a hash of the given password with the legacy parameters, in a 32-character string.
      *
      * @param passwordInPlainText to be hashed.
      * @param salt                a random salt.
      * @return a hash of the given password, in a 32-character string.
+     * @see PasswordHashing#hash(String, byte[])
      */
     static String createHashedPassword(String passwordInPlainText, byte[] salt) {
-        StringBuilder hexHashedPassword = new StringBuilder();
-        KeySpec spec = new PBEKeySpec(passwordInPlainText.toCharArray(), salt, ITERATION_COUNT, KEY_LENGTH);
-        SecretKeyFactory factory;
-
-        try {
-            factory = SecretKeyFactory.getInstance(HASH_ALGORITHM);
-            byte[] byteHashPassword = factory.generateSecret(spec).getEncoded();
-            for (byte b : byteHashPassword) {
-                hexHashedPassword.append(String.format(FORMAT_HEXADECIMAL_FOR_HASH, 0xFF & b));
-            }
-        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
-            e.printStackTrace();
-        }
-        return hexHashedPassword.toString();
+        return PasswordHashing.hash(passwordInPlainText, salt);
     }
 
-
+    /**
+     * Returns a hash of the given password with the legacy parameters, derived on the password hashing pool.
+     *
+     * @param passwordInPlainText to be hashed.
+     * @param salt                a random salt.
+     * @return a hash of the given password, in a 32-character string.
+     * @see PasswordHashing#hashAsync(String, byte[])
+     */
+    static CompletableFuture<String> createHashedPasswordAsync(String passwordInPlainText, byte[] salt) {
+        return PasswordHashing.hashAsync(passwordInPlainText, salt);
+    }
 }
@@ -5,13 +5,16 @@ import bll.exceptions.InvalidNameSizeException;
 import bll.exceptions.NullArgumentException;
 
 import java.io.Serializable;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 public interface IFormOfPayment extends Serializable, Comparable<IFormOfPayment> {
     int MINIMUM_NAME_SIZE = 3;
     int MAXIMUM_NAME_SIZE = 30;
     Predicate<String> INCORRECT_NAME_SIZE = (s) -> (s.length() < MINIMUM_NAME_SIZE || s.length() > MAXIMUM_NAME_SIZE);
+    Function<String, String> NORMALIZED_NAME = (s) -> s.trim().toLowerCase(Locale.ROOT);
 
     /**
      * Updates all its attributes from an external copy.
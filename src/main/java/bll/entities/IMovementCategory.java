@@ -6,7 +6,9 @@ import bll.exceptions.NullArgumentException;
 
 import java.io.Serializable;
 import java.net.URI;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 public interface IMovementCategory extends Serializable, Comparable<IMovementCategory> {
@@ -14,6 +16,7 @@ public interface IMovementCategory extends Serializable, Comparable<IMovementCat
     int MINIMUM_NAME_SIZE = 3;
     int MAXIMUM_NAME_SIZE = 30;
     Predicate<String> INCORRECT_NAME_SIZE = (s) -> (s.length() < MINIMUM_NAME_SIZE || s.length() > MAXIMUM_NAME_SIZE);
+    Function<String, String> NORMALIZED_NAME = (s) -> s.trim().toLowerCase(Locale.ROOT);
 
 
     /**
@@ -9,13 +9,14 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.Year;
 import java.time.YearMonth;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.Currency;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Predicate;
 
-public interface IWallet extends Serializable, Comparable<IWallet>, Cloneable {
+public interface IWallet extends ICashFlow, Serializable, Comparable<IWallet>, Cloneable {
     int MINIMUM_NAME_SIZE = 3;
     int MAXIMUM_NAME_SIZE = 30;
     int MINIMUM_DESCRIPTION_SIZE = 3;
@@ -91,6 +92,21 @@ public interface IWallet extends Serializable, Comparable<IWallet>, Cloneable {
      */
     void addMovement(IMovement movement);
 
+    /**
+     * Checks that a movement can be added to the portfolio and returns the copy the wallet would hold, without
+     * adding it.
+     *
+     * @param movement a new movement to the portfolio.
+     * @return the copy of the movement assigned to the wallet.
+     * @throws NullArgumentException              if the argument is null.
+     * @throws ExistingMovementException          if the movement already exists.
+     * @throws IllegalFormOfPaymentException      if the form of payment does not exist in the wallet.
+     * @throws InstallmentForbiddenException      if you try to add an installment.
+     * @throws MovementAlreadyAccomplishException If the movement is already accomplished.
+     * @throws InactiveMovementException          if you try to use an inactive movement as a parameter.
+     */
+    IMovement admitMovement(IMovement movement);
+
     /**
      * Creates all the installment movements.
      *
@@ -236,19 +252,47 @@ public interface IWallet extends Serializable, Comparable<IWallet>, Cloneable {
     void updateInstallment(IMovement installment, EHandlingMode handlingMode);
 
     /**
-     * Returns a collection with all the movements of the wallet.
+     * Returns a collection with all the loaded movements of the wallet.
      *
-     * @return a collection with all the movements of the wallet.
+     * @return a collection with all the loaded movements of the wallet.
      */
     Set<IMovement> getMovements();
 
     /**
-     * Returns a collection of all transactions in the wallet.
+     * Returns a collection of all loaded transactions in the wallet.
      *
-     * @return a collection of all transactions in the wallet.
+     * @return a collection of all loaded transactions in the wallet.
      */
     Set<IMovement> getTransactions();
 
+    /**
+     * Tells whether the movements of the reference and the following months are loaded.
+     *
+     * @param reference month / year.
+     * @return true if queries from the reference on can be answered by the wallet.
+     * @throws NullArgumentException if the argument is null.
+     */
+    boolean isHistoryLoaded(YearMonth reference);
+
+    /**
+     * Adds the settled movements of the previous years, from the year on, and moves the opening balance back to
+     * the start of the year.
+     *
+     * @param year    first year to be loaded.
+     * @param settled movements accomplished and due between the year and the loaded history.
+     * @throws NullArgumentException if the argument is null.
+     */
+    void loadHistory(Year year, Collection<? extends IMovement> settled);
+
+    /**
+     * Reads the settled movements of the previous years, from the year on, archived ones included, unless they
+     * are already loaded. Queries reaching before the loaded history read it the same way.
+     *
+     * @param year first year to be loaded.
+     * @throws NullArgumentException if the argument is null.
+     */
+    void loadHistory(Year year);
+
     /**
      * Returns a collection of Operation for the current month/year.
      *
@@ -261,7 +305,7 @@ public interface IWallet extends Serializable, Comparable<IWallet>, Cloneable {
      *
      * @param reference month / year.
      * @return a collection of Operation from the reference.
-     * @throws NullArgumentException if the argument is null.
+     * @throws NullArgumentException     if the argument is null.
      */
     Set<IMovement> getMonthOperations(YearMonth reference);
 
@@ -277,7 +321,7 @@ public interface IWallet extends Serializable, Comparable<IWallet>, Cloneable {
      *
      * @param year for reference
      * @return a collection of Operation for a year.
-     * @throws NullArgumentException if the argument is null.
+     * @throws NullArgumentException     if the argument is null.
      */
     Set<IMovement> getYearOperations(Year year);
 
@@ -287,171 +331,10 @@ public interface IWallet extends Serializable, Comparable<IWallet>, Cloneable {
      * @param start initial date
      * @param end   final date
      * @return a collection of operations that occurred in the requested range.
-     * @throws NullArgumentException if the argument is null.
+     * @throws NullArgumentException     if the argument is null.
      */
     Set<IMovement> getOperationsBetween(YearMonth start, YearMonth end);
 
-
-    /**
-     * Returns the current balance.
-     *
-     * @return the current balance.
-     */
-    BigDecimal getBalance();
-
-    /**
-     * Returns the reference balance (month / year).
-     *
-     * @param reference month / year.
-     * @return the reference balance (month / year).
-     * @throws NullArgumentException if the argument is null.
-     */
-    BigDecimal getBalance(YearMonth reference);
-
-    /**
-     * Returns the total amount of credit transactions, filtered by their date of accomplish, in the current month.
-     *
-     * @return the total amount of credit transactions in the current month.
-     */
-    BigDecimal getCashInflow();
-
-    /**
-     * Returns the total value of credit transactions, filtered by their date of accomplish, in the month / year.
-     *
-     * @param reference month / year.
-     * @return the total value of credit transactions in the month / year.
-     * @throws NullArgumentException if the argument is null.
-     */
-    BigDecimal getCashInflow(YearMonth reference);
-
-    /**
-     * Returns the total amount of credit transactions, filtered by their date of accomplish, in the current year.
-     *
-     * @return the total amount of credit transactions, filtered by their date of accomplish, in the current year.
-     */
-    BigDecimal getCashInflowInYear();
-
-    /**
-     * Returns the total value of credit transactions, filtered by their date of accomplish, in the year.
-     *
-     * @param year year for calculation.
-     * @return the total value of credit transactions, filtered by their date of accomplish, in the year.
-     * @throws NullArgumentException if the argument is null.
-     */
-    BigDecimal getCashInflowInYear(Year year);
-
-    /**
-     * Returns the total amount of debit transactions, filtered by their date of accomplish, in the current month.
-     *
-     * @return the total amount of debit transactions, filtered by their date of accomplish, in the current month.
-     */
-    BigDecimal getCashOutflow();
-
-    /**
-     * Returns the total value of debit transactions, filtered by their date of accomplish, in the month / year.
-     *
-     * @param reference month / year.
-     * @return the total value of debit transactions, filtered by their date of accomplish, in the month / year.
-     * @throws NullArgumentException if the argument is null.
-     */
-    BigDecimal getCashOutflow(YearMonth reference);
-
-    /**
-     * Returns the total amount of debit transactions, filtered by their date of accomplish, in the current year.
-     *
-     * @return the total amount of debit transactions, filtered by their date of accomplish, in the current year.
-     */
-    BigDecimal getCashOutflowInYear();
-
-    /**
-     * Returns the total value of debit transactions, filtered by their date of accomplish, in the year.
-     *
-     * @param year year for calculation.
-     * @return the total value of debit transactions, filtered by their date of accomplish, in the year.
-     * @throws NullArgumentException if the argument is null.
-     */
-    BigDecimal getCashOutflowInYear(Year year);
-
-    /**
-     * Returns the current balance expected only movement, filtered by their due date.
-     *
-     * @return the current balance expected only movement, filtered by their due date.
-     */
-    BigDecimal getBalanceExpected();
-
-    /**
-     * Returns the reference balance expected only movement, filtered by their due date.
-     *
-     * @param reference month / year.
-     * @return the reference balance expected only movement, filtered by their due date.
-     * @throws NullArgumentException if the argument is null.
-     */
-    BigDecimal getBalanceExpected(YearMonth reference);
-
-    /**
-     * Returns the total amount of credit movement, filtered by their due date, in the current month.
-     *
-     * @return the total amount of credit transactions and movement in the current month.
-     */
-    BigDecimal getCashInflowExpected();
-
-    /**
-     * Returns the total value of credit movement, filtered by their due date,  in the month / year.
-     *
-     * @param reference month / year.
-     * @return the total value of credit transactions and movement in the month / year.
-     * @throws NullArgumentException if the argument is null.
-     */
-    BigDecimal getCashInflowExpected(YearMonth reference);
-
-    /**
-     * Returns the total amount of credit movement, filtered by their due date, in the current year.
-     *
-     * @return the total amount of credit movement, filtered by their due date, in the current year.
-     */
-    BigDecimal getCashInflowInYearExpected();
-
-    /**
-     * Returns the total value of credit movement, filtered by their due date, in the year.
-     *
-     * @param year year for calculation.
-     * @return the total value of credit transactions and movement in the year.
-     * @throws NullArgumentException if the argument is null.
-     */
-    BigDecimal getCashInflowInYearExpected(Year year);
-
-    /**
-     * Returns the total amount of debit movement, filtered by their due date, in the current month.
-     *
-     * @return the total amount of debit movement, filtered by their due date, in the current month.
-     */
-    BigDecimal getCashOutflowExpected();
-
-    /**
-     * Returns the total value of debit movement, filtered by their due date, the month / year.
-     *
-     * @param reference month / year.
-     * @return the total value of debit movement, filtered by their due date, in the month / year.
-     * @throws NullArgumentException if the argument is null.
-     */
-    BigDecimal getCashOutflowExpected(YearMonth reference);
-
-    /**
-     * Returns the total amount of debit movement, filtered by their due date, in the current year.
-     *
-     * @return the total amount of debit movement, filtered by their due date, in the current year.
-     */
-    BigDecimal getCashOutflowInYearExpected();
-
-    /**
-     * Returns the total value of debit movement, filtered by their due date, in the year.
-     *
-     * @param year year for calculation.
-     * @return the total value of debit movement, filtered by their due date, in the year.
-     * @throws NullArgumentException if the argument is null.
-     */
-    BigDecimal getCashOutflowInYearExpected(Year year);
-
     IWallet clone();
 
     boolean equals(Object o);
@@ -5,6 +5,13 @@ import bll.enumerators.ERepetitionFrequency;
 import bll.exceptions.*;
 import bll.valueObjects.IAttachment;
 import dal.converters.ERepetitionFrequencyConverter;
+import dal.infra.DirtyTracking;
+import dal.infra.Identifiers;
+import dal.infra.SoftDeletes;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
@@ -16,10 +23,20 @@ import static bll.enumerators.EOperationType.*;
 import static bll.enumerators.ERepetitionFrequency.NONE;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "index_movement_wallet_active", columnList = "wallet, active"),
+        @Index(name = "index_movement_wallet_due", columnList = "wallet, dueMonth"),
+        @Index(name = "index_movement_wallet_accomplish", columnList = "wallet, accomplishMonth")})
+@FilterDef(name = SoftDeletes.FILTER)
+@Filter(name = SoftDeletes.FILTER, condition = SoftDeletes.CONDITION)
 public class Movement implements IMovement {
 
     @Id
     private UUID ID;
+    @Version
+    private long version;
+    @Column(name = "wallet", nullable = false, updatable = false)
+    private UUID walletID;
     @Column(nullable = false, length = MAXIMUM_NAME_SIZE)
     private String name;
     @Column(nullable = false, length = MAXIMUM_DESCRIPTION_SIZE)
@@ -28,16 +45,19 @@ public class Movement implements IMovement {
     private BigDecimal amount;
     @Column(nullable = false)
     private LocalDate dueDate;
+    @Column(nullable = false)
+    private int dueMonth;
     @JoinColumn(nullable = false)
-    @OneToOne(targetEntity = FormOfPayment.class, cascade = {CascadeType.PERSIST})
+    @ManyToOne(targetEntity = FormOfPayment.class)
     private IFormOfPayment formOfPayment;
     @JoinColumn(nullable = false)
-    @OneToOne(targetEntity = Payee.class, cascade = {CascadeType.PERSIST})
+    @ManyToOne(targetEntity = Payee.class)
     private IPayee payee;
     @JoinColumn(nullable = false)
-    @OneToOne(targetEntity = MovementCategory.class, cascade = {CascadeType.PERSIST})
+    @ManyToOne(targetEntity = MovementCategory.class)
     private IMovementCategory category;
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     private Set<IAttachment> attachments;
     @Column(nullable = false)
     private EOperationType movementType;
@@ -47,9 +67,11 @@ public class Movement implements IMovement {
     private UUID groupID;
     private boolean accomplished;
     private LocalDate accomplishDate;
+    private Integer accomplishMonth;
     @Column(nullable = false)
     private LocalDate registrationDate;
     private boolean active;
+    private LocalDate inactivationDate;
 
     public Movement(String name, String description, BigDecimal amount, LocalDate dueDate,
                     IFormOfPayment formOfPayment, IPayee payee, IMovementCategory category,
@@ -68,7 +90,7 @@ public class Movement implements IMovement {
         if (AMOUNT_IS_ZERO.test(amount))
             throw new AmountEqualZeroException();
 
-        this.ID = UUID.randomUUID();
+        this.ID = Identifiers.next();
 
         if (frequency == NONE)
             this.groupID = Objects.requireNonNullElseGet(groupID, () -> this.ID);
@@ -79,6 +101,7 @@ public class Movement implements IMovement {
         this.description = description;
         this.amount = amount;
         this.dueDate = dueDate;
+        this.dueMonth = monthOf(dueDate);
         this.formOfPayment = formOfPayment.clone();
         this.payee = payee.clone();
         this.category = category.clone();
@@ -116,6 +139,7 @@ public class Movement implements IMovement {
         this.description = movement.getDescription();
         this.amount = movement.getAmount();
         this.dueDate = movement.getDueDate();
+        this.dueMonth = monthOf(this.dueDate);
         this.formOfPayment = movement.getFormOfPayment();
         this.payee = movement.getPayee();
         this.category = movement.getCategory();
@@ -128,7 +152,70 @@ public class Movement implements IMovement {
         this.accomplished = movement.isAccomplished();
         this.registrationDate = movement.getRegistrationDate();
         this.accomplishDate = movement.getAccomplishDate();
+        this.accomplishMonth = monthOf(this.accomplishDate);
         this.active = movement.isActive();
+        if (movement instanceof Movement) {
+            this.walletID = ((Movement) movement).walletID;
+            this.version = ((Movement) movement).version;
+            this.inactivationDate = ((Movement) movement).inactivationDate;
+        }
+    }
+
+    /**
+     * Restores a settled movement kept outside the movement table, such as in an archive, with the identifier,
+     * dates and state it was written with. The values are trusted and not validated again, so movements
+     * written under earlier rules are restored as they were.
+     *
+     * @return the restored movement, active and accomplished.
+     * @throws NullArgumentException if any of the parameters are null.
+     */
+    public static IMovement restore(UUID id, UUID walletID, String name, String description, BigDecimal amount,
+                                    LocalDate dueDate, IFormOfPayment formOfPayment, IPayee payee,
+                                    IMovementCategory category, Set<IAttachment> attachments,
+                                    EOperationType movementType, ERepetitionFrequency frequency, UUID groupID,
+                                    LocalDate registrationDate, LocalDate accomplishDate) {
+        if (id == null || walletID == null || name == null || description == null || amount == null ||
+                dueDate == null || formOfPayment == null || payee == null || category == null ||
+                attachments == null || movementType == null || frequency == null || groupID == null ||
+                registrationDate == null || accomplishDate == null)
+            throw new NullArgumentException();
+        Movement movement = new Movement();
+        movement.ID = id;
+        movement.walletID = walletID;
+        movement.name = name;
+        movement.description = description;
+        movement.amount = amount;
+        movement.dueDate = dueDate;
+        movement.dueMonth = monthOf(dueDate);
+        movement.formOfPayment = formOfPayment.clone();
+        movement.payee = payee.clone();
+        movement.category = category.clone();
+        movement.attachments = new HashSet<>(attachments);
+        movement.movementType = movementType;
+        movement.frequency = frequency;
+        movement.groupID = groupID;
+        movement.registrationDate = registrationDate;
+        movement.accomplished = true;
+        movement.accomplishDate = accomplishDate;
+        movement.accomplishMonth = monthOf(accomplishDate);
+        movement.active = true;
+        return movement;
+    }
+
+    /**
+     * Records the wallet that holds this movement.
+     *
+     * @param walletID identifier of the wallet.
+     */
+    void assignToWallet(UUID walletID) {
+        this.walletID = walletID;
+    }
+
+    /**
+     * Returns the key of the month of a date, by which the database groups the cash flows.
+     */
+    private static Integer monthOf(LocalDate date) {
+        return date == null ? null : ICashFlow.MONTH_KEY.applyAsInt(YearMonth.from(date));
     }
 
 
@@ -150,6 +237,7 @@ public class Movement implements IMovement {
         this.description = externalCopy.getDescription();
         this.amount = externalCopy.getAmount();
         this.dueDate = externalCopy.getDueDate();
+        this.dueMonth = monthOf(this.dueDate);
         this.formOfPayment.autoUpdate(externalCopy.getFormOfPayment());
         this.payee.autoUpdate(externalCopy.getPayee());
         this.category.autoUpdate(externalCopy.getCategory());
@@ -158,9 +246,12 @@ public class Movement implements IMovement {
         this.frequency = externalCopy.getRepetitionFrequency();
         this.accomplished = externalCopy.isAccomplished();
         this.accomplishDate = externalCopy.getAccomplishDate();
+        this.accomplishMonth = monthOf(this.accomplishDate);
         this.active = externalCopy.isActive();
         this.attachments.addAll(externalCopy.getAttachments());
         this.attachments.retainAll(externalCopy.getAttachments());
+        if (externalCopy instanceof Movement)
+            this.version = Math.max(this.version, ((Movement) externalCopy).version);
     }
 
     /**
@@ -316,9 +407,12 @@ public class Movement implements IMovement {
 
     /**
      * Inactivates a movement, it is the equivalent of deleting a movement.
+     * The date of the inactivation starts the retention of the movement before it is compacted.
      */
     @Override
     public void inactivate() {
+        if (this.active)
+            this.inactivationDate = LocalDate.now();
         this.active = false;
     }
 
@@ -400,6 +494,7 @@ public class Movement implements IMovement {
             throw new NullArgumentException();
         this.accomplished = true;
         this.accomplishDate = accomplishDate;
+        this.accomplishMonth = monthOf(accomplishDate);
     }
 
     /**
@@ -443,6 +538,7 @@ public class Movement implements IMovement {
         if (newDueDate == null)
             throw new NullArgumentException();
         this.dueDate = newDueDate;
+        this.dueMonth = monthOf(newDueDate);
     }
 
     /**
@@ -657,7 +753,7 @@ public class Movement implements IMovement {
      */
     @Override
     public IMovement clone() {
-        return new Movement(this);
+        return DirtyTracking.copyOf(this, new Movement(this));
     }
 
     /**
@@ -701,7 +797,8 @@ public class Movement implements IMovement {
      */
     @Override
     public int compareTo(IMovement o) {
-        return this.getDueDate().compareTo(o.getDueDate());
+        int comparison = this.getDueDate().compareTo(o.getDueDate());
+        return comparison != 0 ? comparison : this.getID().compareTo(o.getID());
     }
 
     protected Movement() {
@@ -3,20 +3,40 @@ package bll.entities;
 import bll.exceptions.DifferentObjectException;
 import bll.exceptions.InvalidNameSizeException;
 import bll.exceptions.NullArgumentException;
+import dal.infra.DirtyTracking;
+import dal.infra.Identifiers;
+import dal.infra.SoftDeletes;
+import org.hibernate.annotations.Filter;
 
-import javax.persistence.Column;
-import javax.persistence.Entity;
-import javax.persistence.Id;
+import javax.persistence.*;
 import java.net.URI;
 import java.util.Objects;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = @Index(name = "index_category_name", columnList = "normalizedName, publicCategory, active"),
+        uniqueConstraints = @UniqueConstraint(name = MovementCategory.UNIQUE_NAME, columnNames = {"normalizedName", "nameScope"}))
+@Filter(name = SoftDeletes.FILTER, condition = SoftDeletes.CONDITION)
 public class MovementCategory implements IMovementCategory {
+    /**
+     * Unique key of the names of the categories within their scope.
+     */
+    public static final String UNIQUE_NAME = "unique_category_name";
+    /**
+     * Scope shared by the active public categories, whose names are unique. Every private or inactive
+     * category is the only one of its scope.
+     */
+    public static final UUID PUBLIC_SCOPE = new UUID(0, 0);
     @Id
     private UUID id;
+    @Version
+    private long version;
     @Column(nullable = false)
     private String name;
+    @Column(nullable = false, length = MAXIMUM_NAME_SIZE)
+    private String normalizedName;
+    @Column(nullable = false)
+    private UUID nameScope;
     private URI image;
     private boolean active;
     private boolean publicCategory;
@@ -27,10 +47,12 @@ public class MovementCategory implements IMovementCategory {
         if (INCORRECT_NAME_SIZE.test(name.trim()))
             throw new InvalidNameSizeException();
         this.name = name.trim();
+        this.normalizedName = NORMALIZED_NAME.apply(name);
         this.image = image;
         this.active = active;
-        this.id = UUID.randomUUID();
+        this.id = Identifiers.next();
         this.publicCategory = publicCategory;
+        updateNameScope();
     }
 
     public MovementCategory(String name, URI image) {
@@ -49,10 +71,14 @@ public class MovementCategory implements IMovementCategory {
         if (transactionCategory == null)
             throw new NullArgumentException();
         this.name = transactionCategory.getName();
+        this.normalizedName = NORMALIZED_NAME.apply(this.name);
         this.active = transactionCategory.isActive();
         this.id = transactionCategory.getID();
         this.image = transactionCategory.getImage();
         this.publicCategory = transactionCategory.isPublic();
+        updateNameScope();
+        if (transactionCategory instanceof MovementCategory)
+            this.version = ((MovementCategory) transactionCategory).version;
     }
 
     /**
@@ -70,9 +96,13 @@ public class MovementCategory implements IMovementCategory {
             throw new DifferentObjectException();
 
         this.name = externalCopy.getName();
+        this.normalizedName = NORMALIZED_NAME.apply(this.name);
         this.active = externalCopy.isActive();
         this.image = externalCopy.getImage();
         this.publicCategory = externalCopy.isPublic();
+        updateNameScope();
+        if (externalCopy instanceof MovementCategory)
+            this.version = Math.max(this.version, ((MovementCategory) externalCopy).version);
     }
 
     /**
@@ -111,6 +141,7 @@ public class MovementCategory implements IMovementCategory {
         if (INCORRECT_NAME_SIZE.test(newName.trim()))
             throw new InvalidNameSizeException();
         this.name = newName.trim();
+        this.normalizedName = NORMALIZED_NAME.apply(newName);
     }
 
     /**
@@ -197,6 +228,7 @@ public class MovementCategory implements IMovementCategory {
     @Override
     public void inactivate() {
         this.active = false;
+        updateNameScope();
     }
 
     /**
@@ -205,6 +237,11 @@ public class MovementCategory implements IMovementCategory {
     @Override
     public void activate() {
         this.active = true;
+        updateNameScope();
+    }
+
+    private void updateNameScope() {
+        this.nameScope = this.publicCategory && this.active ? PUBLIC_SCOPE : this.id;
     }
 
     /**
@@ -214,7 +251,7 @@ public class MovementCategory implements IMovementCategory {
      */
     @Override
     public IMovementCategory clone() {
-        return new MovementCategory(this);
+        return DirtyTracking.copyOf(this, new MovementCategory(this));
     }
 
     @Override
@@ -0,0 +1,255 @@
+package bll.entities;
+
+import bll.exceptions.NullArgumentException;
+import bll.valueObjects.IPasswordHashParameters;
+import bll.valueObjects.PasswordHashParameters;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.InvalidKeySpecException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static bll.entities.ICredential.HASH_ALGORITHM;
+import static bll.entities.ICredential.ITERATION_COUNT;
+import static bll.entities.ICredential.KEY_LENGTH;
+
+/**
+ * Derives the password hashes of the credentials.
+ * <p>
+ * Every credential keeps the parameters its password was hashed with, and new passwords are hashed with the
+ * current parameters, read from the {@value #ALGORITHM_PROPERTY}, {@value #ITERATION_COUNT_PROPERTY} and
+ * {@value #KEY_LENGTH_PROPERTY} system properties. The cost can then be tuned per deployment, with
+ * {@link #calibrate(String, int, Duration)}, while the stored passwords stay valid and are rehashed as their
+ * users log in.
+ * <p>
+ * Key derivation is deliberately slow, so the asynchronous variants run it on a dedicated pool of
+ * {@link #POOL_SIZE} threads, half the processors, with at most {@link #QUEUE_CAPACITY} tasks waiting.
+ * Concurrent logins then use a fixed number of cores and never run on the calling thread; tasks submitted
+ * while the queue is full fail with {@link RejectedExecutionException}. Each thread keeps its own
+ * {@link SecretKeyFactory} per algorithm, which is not thread-safe and costly to look up.
+ */
+public final class PasswordHashing {
+    public static final int POOL_SIZE = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    public static final int QUEUE_CAPACITY = 256;
+    public static final String ALGORITHM_PROPERTY = "pfm.passwordHashing.algorithm";
+    public static final String ITERATION_COUNT_PROPERTY = "pfm.passwordHashing.iterationCount";
+    public static final String KEY_LENGTH_PROPERTY = "pfm.passwordHashing.keyLength";
+    /**
+     * Parameters of the passwords hashed before they were stored with the credentials.
+     */
+    public static final IPasswordHashParameters LEGACY_PARAMETERS =
+            new PasswordHashParameters(HASH_ALGORITHM, ITERATION_COUNT, KEY_LENGTH);
+    private static final int MINIMUM_ITERATION_COUNT = 10_000;
+    private static final String CALIBRATION_PASSWORD = "calibration password";
+    private static final char[] HEXADECIMAL_DIGITS = "0123456789ABCDEF".toCharArray();
+    private static final ThreadLocal<Map<String, SecretKeyFactory>> FACTORIES = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadPoolExecutor EXECUTOR = executor();
+    private static volatile IPasswordHashParameters parameters = new PasswordHashParameters(
+            System.getProperty(ALGORITHM_PROPERTY, HASH_ALGORITHM),
+            Integer.getInteger(ITERATION_COUNT_PROPERTY, ITERATION_COUNT),
+            Integer.getInteger(KEY_LENGTH_PROPERTY, KEY_LENGTH));
+
+    private PasswordHashing() {
+    }
+
+    /**
+     * Returns the parameters new passwords are hashed with.
+     *
+     * @return the parameters new passwords are hashed with.
+     */
+    public static IPasswordHashParameters getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Changes the parameters new passwords are hashed with. Stored passwords keep their parameters until they
+     * are rehashed.
+     *
+     * @param parameters of the new hashes.
+     * @throws NullArgumentException if the parameter is null.
+     */
+    public static void setParameters(IPasswordHashParameters parameters) {
+        if (parameters == null)
+            throw new NullArgumentException();
+        PasswordHashing.parameters = parameters;
+    }
+
+    /**
+     * Returns a hash of the given password with the legacy parameters, in a 32-character string.
+     *
+     * @param passwordInPlainText to be hashed.
+     * @param salt                a random salt.
+     * @return a hash of the given password, in a 32-character string.
+     */
+    public static String hash(String passwordInPlainText, byte[] salt) {
+        return hash(passwordInPlainText, salt, LEGACY_PARAMETERS);
+    }
+
+    /**
+     * Returns a hash of the given password, in a hexadecimal string.
+     *
+     * @param passwordInPlainText to be hashed.
+     * @param salt                a random salt.
+     * @param parameters          of the key derivation.
+     * @return a hash of the given password, in a hexadecimal string.
+     * @throws IllegalStateException if the algorithm is not available.
+     */
+    public static String hash(String passwordInPlainText, byte[] salt, IPasswordHashParameters parameters) {
+        PBEKeySpec spec = new PBEKeySpec(passwordInPlainText.toCharArray(), salt, parameters.getIterationCount(),
+                parameters.getKeyLength());
+        try {
+            return hexadecimal(factory(parameters.getAlgorithm()).generateSecret(spec).getEncoded());
+        } catch (InvalidKeySpecException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    /**
+     * Hashes the given password with the legacy parameters on the hashing pool.
+     *
+     * @param passwordInPlainText to be hashed.
+     * @param salt                a random salt.
+     * @return the hash of the given password, completed on the hashing pool.
+     * @see #hash(String, byte[])
+     */
+    public static CompletableFuture<String> hashAsync(String passwordInPlainText, byte[] salt) {
+        return submit(() -> hash(passwordInPlainText, salt));
+    }
+
+    /**
+     * Hashes the given password on the hashing pool.
+     *
+     * @param passwordInPlainText to be hashed.
+     * @param salt                a random salt.
+     * @param parameters          of the key derivation.
+     * @return the hash of the given password, completed on the hashing pool.
+     * @see #hash(String, byte[], IPasswordHashParameters)
+     */
+    public static CompletableFuture<String> hashAsync(String passwordInPlainText, byte[] salt,
+                                                      IPasswordHashParameters parameters) {
+        return submit(() -> hash(passwordInPlainText, salt, parameters));
+    }
+
+    /**
+     * Returns the parameters whose hash takes about the target duration on this machine, measured on the
+     * calling thread. The iteration count is doubled until a hash takes at least half the target and then
+     * scaled to it, and is never below {@value #MINIMUM_ITERATION_COUNT}.
+     *
+     * @param algorithm of the key derivation.
+     * @param keyLength length of the derived key, in bits.
+     * @param target    duration of a hash.
+     * @return the parameters whose hash takes about the target duration.
+     * @throws NullArgumentException    if any of the parameters are null.
+     * @throws IllegalArgumentException if the key length or the target is not positive.
+     * @throws IllegalStateException    if the algorithm is not available.
+     */
+    public static IPasswordHashParameters calibrate(String algorithm, int keyLength, Duration target) {
+        if (algorithm == null || target == null)
+            throw new NullArgumentException();
+        if (keyLength < 1 || target.isZero() || target.isNegative())
+            throw new IllegalArgumentException();
+        byte[] salt = ICredential.getSaltRandom();
+        int iterationCount = MINIMUM_ITERATION_COUNT;
+        hash(CALIBRATION_PASSWORD, salt, new PasswordHashParameters(algorithm, iterationCount, keyLength));
+        long elapsed;
+        while (true) {
+            long start = System.nanoTime();
+            hash(CALIBRATION_PASSWORD, salt, new PasswordHashParameters(algorithm, iterationCount, keyLength));
+            elapsed = Math.max(1, System.nanoTime() - start);
+            if (elapsed * 2 >= target.toNanos() || iterationCount > Integer.MAX_VALUE / 2)
+                break;
+            iterationCount *= 2;
+        }
+        long scaled = iterationCount * target.toNanos() / elapsed;
+        return new PasswordHashParameters(algorithm,
+                (int) Math.max(MINIMUM_ITERATION_COUNT, Math.min(Integer.MAX_VALUE, scaled)), keyLength);
+    }
+
+    /**
+     * Calibrates the parameters for this machine and prints the system properties that select them.
+     *
+     * @param args optionally, the target duration of a hash in milliseconds, the algorithm and the key length.
+     */
+    public static void main(String[] args) {
+        Duration target = Duration.ofMillis(args.length > 0 ? Long.parseLong(args[0]) : 250);
+        String algorithm = args.length > 1 ? args[1] : parameters.getAlgorithm();
+        int keyLength = args.length > 2 ? Integer.parseInt(args[2]) : parameters.getKeyLength();
+        IPasswordHashParameters calibrated = calibrate(algorithm, keyLength, target);
+        System.out.println("-D" + ALGORITHM_PROPERTY + "=" + calibrated.getAlgorithm() +
+                " -D" + ITERATION_COUNT_PROPERTY + "=" + calibrated.getIterationCount() +
+                " -D" + KEY_LENGTH_PROPERTY + "=" + calibrated.getKeyLength());
+    }
+
+    /**
+     * Runs a task that derives password hashes on the hashing pool.
+     *
+     * @param task to be executed.
+     * @param <T>  type of the result.
+     * @return the result of the task, completed on the hashing pool, or failed with
+     * {@link RejectedExecutionException} if the pool is saturated.
+     */
+    public static <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, EXECUTOR);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Returns the executor of the hashing pool.
+     *
+     * @return the executor of the hashing pool.
+     */
+    public static Executor getExecutor() {
+        return EXECUTOR;
+    }
+
+    private static SecretKeyFactory factory(String algorithm) {
+        Map<String, SecretKeyFactory> factories = FACTORIES.get();
+        SecretKeyFactory factory = factories.get(algorithm);
+        if (factory == null) {
+            try {
+                factory = SecretKeyFactory.getInstance(algorithm);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            factories.put(algorithm, factory);
+        }
+        return factory;
+    }
+
+    private static String hexadecimal(byte[] bytes) {
+        char[] digits = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            digits[i * 2] = HEXADECIMAL_DIGITS[(bytes[i] >> 4) & 0xF];
+            digits[i * 2 + 1] = HEXADECIMAL_DIGITS[bytes[i] & 0xF];
+        }
+        return new String(digits);
+    }
+
+    private static ThreadPoolExecutor executor() {
+        AtomicInteger threads = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
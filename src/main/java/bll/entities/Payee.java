@@ -3,9 +3,13 @@ package bll.entities;
 import bll.exceptions.DifferentObjectException;
 import bll.exceptions.InvalidNameSizeException;
 import bll.exceptions.NullArgumentException;
+import dal.infra.DirtyTracking;
+import dal.infra.Identifiers;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Version;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -13,6 +17,10 @@ import java.util.UUID;
 public class Payee implements IPayee {
     @Id
     private UUID id;
+    @Version
+    private long version;
+    @Column(name = "systemUser", updatable = false)
+    private UUID userID;
     private String name;
     private boolean active;
 
@@ -23,7 +31,7 @@ public class Payee implements IPayee {
             throw new InvalidNameSizeException();
         this.name = name.trim();
         this.active = active;
-        this.id = UUID.randomUUID();
+        this.id = Identifiers.next();
     }
 
     public Payee(String name) {
@@ -36,6 +44,19 @@ public class Payee implements IPayee {
         this.id = payee.getID();
         this.name = payee.getName();
         this.active = payee.isActive();
+        if (payee instanceof Payee) {
+            this.userID = ((Payee) payee).userID;
+            this.version = ((Payee) payee).version;
+        }
+    }
+
+    /**
+     * Records the user that owns this payee.
+     *
+     * @param userID identifier of the user.
+     */
+    void assignToUser(UUID userID) {
+        this.userID = userID;
     }
 
     /**
@@ -54,6 +75,8 @@ public class Payee implements IPayee {
 
         this.name = externalCopy.getName();
         this.active = externalCopy.isActive();
+        if (externalCopy instanceof Payee)
+            this.version = Math.max(this.version, ((Payee) externalCopy).version);
     }
 
     /**
@@ -160,7 +183,7 @@ public class Payee implements IPayee {
     }
 
     public IPayee clone() {
-        return new Payee(this);
+        return DirtyTracking.copyOf(this, new Payee(this));
     }
 
     @Override
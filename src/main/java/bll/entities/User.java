@@ -4,8 +4,11 @@ import bll.enumerators.ERole;
 import bll.enumerators.EUserState;
 import bll.exceptions.*;
 import bll.valueObjects.IEmail;
+import dal.infra.DirtyTracking;
+import dal.infra.Identifiers;
 import org.hibernate.annotations.LazyCollection;
 import org.hibernate.annotations.LazyCollectionOption;
+import org.hibernate.annotations.OptimisticLock;
 
 import javax.persistence.*;
 import java.time.LocalDate;
@@ -16,6 +19,8 @@ import java.util.*;
 public class User implements IUser {
     @Id
     private UUID ID;
+    @Version
+    private long version;
 
     @Column(nullable = false, length = MAXIMUM_NAME_SIZE)
     private String name;
@@ -32,6 +37,7 @@ public class User implements IUser {
     @CollectionTable(name = "systemUserState", joinColumns = @JoinColumn(name = "userState", nullable = false))
     @Column(name = "systemUser", nullable = false)
     @OrderColumn
+    @OptimisticLock(excluded = true)
     private List<EUserState> userStates;
 
     @ElementCollection(targetClass = ERole.class, fetch = FetchType.EAGER)
@@ -45,11 +51,11 @@ public class User implements IUser {
     private IEmail email;
 
     @OneToMany(targetEntity = Wallet.class, cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "systemUser")
+    @JoinColumn(name = "systemUser", insertable = false, updatable = false)
     private Set<IWallet> wallets;
 
     @OneToMany(targetEntity = Payee.class, cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "systemUser")
+    @JoinColumn(name = "systemUser", insertable = false, updatable = false)
     private Set<IPayee> payees;
 
     @OneToMany(targetEntity = MovementCategory.class, cascade = CascadeType.ALL)
@@ -66,7 +72,7 @@ public class User implements IUser {
         if (roles.isEmpty())
             throw new ForbiddenLeaveUserWithoutFunctionsException();
 
-        this.ID = UUID.randomUUID();
+        this.ID = Identifiers.next();
         this.name = name.trim();
         this.registrationDate = LocalDate.now();
         this.credential = credential;
@@ -93,6 +99,8 @@ public class User implements IUser {
         this.wallets = user.getWallets();
         this.payees = user.getPayee();
         this.categories = user.getCategory();
+        if (user instanceof User)
+            this.version = ((User) user).version;
     }
 
     /**
@@ -291,7 +299,7 @@ public class User implements IUser {
             throw new NullArgumentException();
         if (this.wallets.contains(wallet))
             throw new ExistingWalletException();
-        this.wallets.add(wallet.clone());
+        this.wallets.add(own(wallet.clone()));
     }
 
     /**
@@ -355,7 +363,7 @@ public class User implements IUser {
             throw new NullArgumentException();
         if (this.payees.contains(payee))
             throw new ExistingPayeeException();
-        this.payees.add(payee.clone());
+        this.payees.add(own(payee.clone()));
     }
 
     /**
@@ -388,7 +396,7 @@ public class User implements IUser {
         if (!this.payees.contains(payee))
             throw new NonExistingPayeeException();
         this.payees.remove(payee);
-        this.payees.add(payee.clone());
+        this.payees.add(own(payee.clone()));
     }
 
     /**
@@ -463,7 +471,7 @@ public class User implements IUser {
      */
     @Override
     public IUser clone() {
-        return new User(this);
+        return DirtyTracking.copyOf(this, new User(this));
     }
 
     /**
@@ -540,6 +548,18 @@ public class User implements IUser {
         return foundWallet;
     }
 
+    private IWallet own(IWallet wallet) {
+        if (wallet instanceof Wallet)
+            ((Wallet) wallet).assignToUser(this.ID);
+        return wallet;
+    }
+
+    private IPayee own(IPayee payee) {
+        if (payee instanceof Payee)
+            ((Payee) payee).assignToUser(this.ID);
+        return payee;
+    }
+
     /**
      * Compares this object with the specified object for order.  Returns a
      * negative integer, zero, or a positive integer as this object is less
@@ -6,6 +6,15 @@ import bll.enumerators.EOperationType;
 import bll.enumerators.ERepetitionFrequency;
 import bll.exceptions.*;
 import bll.valueObjects.IAttachment;
+import dal.infra.DirtyTracking;
+import dal.infra.Identifiers;
+import dal.infra.MovementHistory;
+import dal.infra.SoftDeletes;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.Formula;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
@@ -16,9 +25,14 @@ import java.util.*;
 import java.util.function.Predicate;
 
 @Entity
+@FilterDef(name = MovementHistory.FILTER)
 public class Wallet implements IWallet {
     @Id
     private UUID ID;
+    @Version
+    private long version;
+    @Column(name = "systemUser", nullable = false, updatable = false)
+    private UUID userID;
     @Column(nullable = false, length = MAXIMUM_NAME_SIZE)
     private String name;
     @Column(nullable = false, length = MAXIMUM_DESCRIPTION_SIZE)
@@ -27,10 +41,18 @@ public class Wallet implements IWallet {
     private Currency currency;
     @Column(nullable = false)
     @ManyToMany(targetEntity = FormOfPayment.class, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @Fetch(FetchMode.SUBSELECT)
     private Set<IFormOfPayment> formOfPayments;
     @OneToMany(targetEntity = Movement.class, cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "wallet")
+    @JoinColumn(name = "wallet", insertable = false, updatable = false)
+    @Fetch(FetchMode.SUBSELECT)
+    @Filter(name = SoftDeletes.FILTER, condition = SoftDeletes.CONDITION)
+    @Filter(name = MovementHistory.FILTER, condition = MovementHistory.CONDITION)
     private Set<IMovement> movements;
+    @Formula(MovementHistory.HORIZON)
+    private Integer historyStart;
+    @Formula(MovementHistory.OPENING_BALANCE)
+    private BigDecimal openingBalance;
     @JoinColumn(nullable = false)
     @OneToOne(targetEntity = Payee.class, cascade = CascadeType.ALL, orphanRemoval = true)
     private IPayee payeeFormat;
@@ -45,7 +67,7 @@ public class Wallet implements IWallet {
             throw new InvalidDescriptionSizeException();
         if (formOfPayments.isEmpty())
             throw new ProhibitedLessFormOfPaymentException();
-        this.ID = UUID.randomUUID();
+        this.ID = Identifiers.next();
         this.name = name;
         this.description = description;
         this.currency = currency;
@@ -72,6 +94,12 @@ public class Wallet implements IWallet {
         this.formOfPayments.addAll(wallet.getFormOfPayment());
         this.movements = copyMovements(wallet.getMovements());
         this.payeeFormat = wallet.getPayeeFormat();
+        if (wallet instanceof Wallet) {
+            this.userID = ((Wallet) wallet).userID;
+            this.version = ((Wallet) wallet).version;
+            this.historyStart = ((Wallet) wallet).historyStart;
+            this.openingBalance = ((Wallet) wallet).openingBalance;
+        }
     }
 
 
@@ -99,7 +127,7 @@ public class Wallet implements IWallet {
             this.formOfPayments.retainAll(externalCopy.getFormOfPayment());
 
             for (IMovement m : externalCopy.getMovements())
-                this.movements.add(m.clone());
+                this.movements.add(hold(m.clone()));
 
             for (IMovement m : this.movements) {
                 for (IMovement mExternal : externalCopy.getMovements()) {
@@ -111,6 +139,11 @@ public class Wallet implements IWallet {
             }
 
             this.movements = copyMovements(externalCopy.getMovements());
+            if (externalCopy instanceof Wallet) {
+                this.version = Math.max(this.version, ((Wallet) externalCopy).version);
+                this.historyStart = ((Wallet) externalCopy).historyStart;
+                this.openingBalance = ((Wallet) externalCopy).openingBalance;
+            }
         }
     }
 
@@ -192,6 +225,24 @@ public class Wallet implements IWallet {
      */
     @Override
     public void addMovement(IMovement movement) {
+        this.movements.add(admitMovement(movement));
+    }
+
+    /**
+     * Checks that a movement can be added to the portfolio and returns the copy the wallet would hold, without
+     * adding it.
+     *
+     * @param movement a new movement to the portfolio.
+     * @return the copy of the movement assigned to the wallet.
+     * @throws NullArgumentException              if the argument is null.
+     * @throws ExistingMovementException          if the movement already exists.
+     * @throws IllegalFormOfPaymentException      if the form of payment does not exist in the wallet.
+     * @throws InstallmentForbiddenException      if you try to add an installment.
+     * @throws MovementAlreadyAccomplishException If the movement is already accomplished.
+     * @throws InactiveMovementException          if you try to use an inactive movement as a parameter.
+     */
+    @Override
+    public IMovement admitMovement(IMovement movement) {
         if (movement == null)
             throw new NullArgumentException();
         if (movement.isInactive())
@@ -207,7 +258,7 @@ public class Wallet implements IWallet {
                 throw new AttemptedToUseExcludedMovementException();
             else
                 throw new ExistingMovementException();
-        this.movements.add(movement.clone());
+        return hold(movement.clone());
     }
 
     /**
@@ -242,13 +293,13 @@ public class Wallet implements IWallet {
         if (numberOfInstallments < 2)
             throw new IllegalInstallmentQuantityException();
 
-        movements.add(movement.clone());
+        movements.add(hold(movement.clone()));
         LocalDate nextDate = updateRecurrenceDate(movement.getDueDate(), frequency);
         for (int i = 0; i < numberOfInstallments - 1; i++) {
-            movements.add(new Movement(movement.getName(), movement.getDescription(), movement.getAmount(),
+            movements.add(hold(new Movement(movement.getName(), movement.getDescription(), movement.getAmount(),
                     nextDate, movement.getFormOfPayment(), movement.getPayee(), movement.getCategory(),
                     movement.getAttachments(), movement.isCredit() ? EOperationType.CREDIT : EOperationType.DEBIT,
-                    ERepetitionFrequency.NONE, movement.getGroupID()));
+                    ERepetitionFrequency.NONE, movement.getGroupID())));
             nextDate = updateRecurrenceDate(nextDate, frequency);
         }
     }
@@ -366,7 +417,7 @@ public class Wallet implements IWallet {
         if (movement.isRecurrent()) {
             LocalDate nextDate = updateRecurrenceDate(originalMovement.getDueDate(), originalMovement.getRepetitionFrequency());
             IMovement recurrentMovement = IMovementFactory.createRecurrentMovement(originalMovement, nextDate);
-            movements.add(recurrentMovement);
+            movements.add(hold(recurrentMovement));
         }
         originalMovement.accomplish();
     }
@@ -517,9 +568,9 @@ public class Wallet implements IWallet {
     }
 
     /**
-     * Returns a collection with all the movements of the wallet.
+     * Returns a collection with all the loaded movements of the wallet.
      *
-     * @return a collection with all the movements of the wallet.
+     * @return a collection with all the loaded movements of the wallet.
      */
     @Override
     public Set<IMovement> getMovements() {
@@ -531,9 +582,9 @@ public class Wallet implements IWallet {
     }
 
     /**
-     * Returns a collection of all transactions in the wallet.
+     * Returns a collection of all loaded transactions in the wallet.
      *
-     * @return a collection of all transactions in the wallet.
+     * @return a collection of all loaded transactions in the wallet.
      */
     @Override
     public Set<IMovement> getTransactions() {
@@ -544,6 +595,60 @@ public class Wallet implements IWallet {
         return transaction;
     }
 
+    /**
+     * Tells whether the movements of the reference and the following months are loaded. Wallets loaded from
+     * the database hold the current year, the movements to be accomplished and the opening balance of the year;
+     * queries before it load the missing years first.
+     *
+     * @param reference month / year.
+     * @return true if queries from the reference on can be answered by the wallet.
+     * @throws NullArgumentException if the argument is null.
+     */
+    @Override
+    public boolean isHistoryLoaded(YearMonth reference) {
+        if (reference == null)
+            throw new NullArgumentException();
+        return this.historyStart == null || reference.getYear() >= this.historyStart;
+    }
+
+    /**
+     * Adds the settled movements of the previous years, from the year on, and moves the opening balance back to
+     * the start of the year.
+     *
+     * @param year    first year to be loaded.
+     * @param settled movements accomplished and due between the year and the loaded history.
+     * @throws NullArgumentException if the argument is null.
+     */
+    @Override
+    public void loadHistory(Year year, Collection<? extends IMovement> settled) {
+        if (year == null || settled == null)
+            throw new NullArgumentException();
+        if (isHistoryLoaded(year.atMonth(1)))
+            return;
+        for (IMovement m : settled) {
+            this.movements.add(hold(m.clone()));
+            this.openingBalance = this.openingBalance.subtract(m.getAmount());
+        }
+        this.historyStart = year.getValue();
+    }
+
+    /**
+     * Reads the settled movements of the previous years, from the year on, archived ones included, unless they
+     * are already loaded. Queries reaching before the loaded history read it the same way.
+     *
+     * @param year first year to be loaded.
+     * @throws NullArgumentException if the argument is null.
+     */
+    @Override
+    public void loadHistory(Year year) {
+        if (year == null)
+            throw new NullArgumentException();
+        if (isHistoryLoaded(year.atMonth(1)))
+            return;
+        loadHistory(year, MovementHistory.selectSettled(this.ID, MONTH_KEY.applyAsInt(year.atMonth(1)),
+                MONTH_KEY.applyAsInt(Year.of(this.historyStart).atMonth(1))));
+    }
+
     /**
      * Returns a collection of Operation for the current month/year.
      *
@@ -560,12 +665,13 @@ public class Wallet implements IWallet {
      *
      * @param reference month / year.
      * @return a collection of Operation from the reference.
-     * @throws NullArgumentException if the argument is null.
+     * @throws NullArgumentException     if the argument is null.
      */
     @Override
     public Set<IMovement> getMonthOperations(YearMonth reference) {
         if (reference == null)
             throw new NullArgumentException();
+        loadHistory(reference);
 
         Set<IMovement> operations = new TreeSet<>();
 
@@ -591,12 +697,13 @@ public class Wallet implements IWallet {
      *
      * @param year for reference
      * @return a collection of Operation for a year.
-     * @throws NullArgumentException if the argument is null.
+     * @throws NullArgumentException     if the argument is null.
      */
     @Override
     public Set<IMovement> getYearOperations(Year year) {
         if (year == null)
             throw new NullArgumentException();
+        loadHistory(year.atMonth(1));
 
         Set<IMovement> operations = new TreeSet<>();
         for (IMovement op : this.movements)
@@ -611,7 +718,7 @@ public class Wallet implements IWallet {
      * @param start initial date
      * @param end   final date
      * @return a collection of operations that occurred in the requested range.
-     * @throws NullArgumentException if the argument is null.
+     * @throws NullArgumentException     if the argument is null.
      */
     @Override
     public Set<IMovement> getOperationsBetween(YearMonth start, YearMonth end) {
@@ -624,6 +731,7 @@ public class Wallet implements IWallet {
             end = start;
             start = yearMonthTemp;
         }
+        loadHistory(start);
 
         Set<IMovement> operations = new TreeSet<>();
         for (IMovement op : this.movements)
@@ -649,16 +757,17 @@ public class Wallet implements IWallet {
      *
      * @param reference month / year.
      * @return the reference balance (month / year).
-     * @throws NullArgumentException if the argument is null.
+     * @throws NullArgumentException     if the argument is null.
      */
     @Override
     public BigDecimal getBalance(YearMonth reference) {
         if (reference == null)
             throw new NullArgumentException();
+        loadHistory(reference);
         Predicate<IMovement> predicate = (t) -> t.isAccomplished() &&
                 (t.isActive() && (YearMonth.from(t.getAccomplishDate()).equals(reference) ||
                         YearMonth.from(t.getAccomplishDate()).isBefore(reference)));
-        return getCashFlow(predicate);
+        return getOpeningBalance().add(getCashFlow(predicate));
     }
 
     /**
@@ -676,12 +785,13 @@ public class Wallet implements IWallet {
      *
      * @param reference month / year.
      * @return the total value of credit transactions in the month / year.
-     * @throws NullArgumentException if the argument is null.
+     * @throws NullArgumentException     if the argument is null.
      */
     @Override
     public BigDecimal getCashInflow(YearMonth reference) {
         if (reference == null)
             throw new NullArgumentException();
+        loadHistory(reference);
 
         Predicate<IMovement> predicate = (t) -> t.isActive() && t.isAccomplished() &&
                 YearMonth.from(t.getAccomplishDate()).equals(reference) &&
@@ -704,12 +814,13 @@ public class Wallet implements IWallet {
      *
      * @param year year for calculation.
      * @return the total value of credit transactions, filtered by their date of accomplish, in the year.
-     * @throws NullArgumentException if the argument is null.
+     * @throws NullArgumentException     if the argument is null.
      */
     @Override
     public BigDecimal getCashInflowInYear(Year year) {
         if (year == null)
             throw new NullArgumentException();
+        loadHistory(year.atMonth(1));
         Predicate<IMovement> predicate = (t) -> t.isActive() && t.isAccomplished() &&
                 Year.from(t.getAccomplishDate()).equals(year) &&
                 t.isCredit();
@@ -731,12 +842,13 @@ public class Wallet implements IWallet {
      *
      * @param reference month / year.
      * @return the total value of debit transactions, filtered by their date of accomplish, in the month / year.
-     * @throws NullArgumentException if the argument is null.
+     * @throws NullArgumentException     if the argument is null.
      */
     @Override
     public BigDecimal getCashOutflow(YearMonth reference) {
         if (reference == null)
             throw new NullArgumentException();
+        loadHistory(reference);
         Predicate<IMovement> predicate = (t) -> t.isActive() && t.isAccomplished() &&
                 YearMonth.from(t.getAccomplishDate()).equals(reference) &&
                 t.isDebit();
@@ -758,12 +870,13 @@ public class Wallet implements IWallet {
      *
      * @param year year for calculation.
      * @return the total value of debit transactions, filtered by their date of accomplish, in the year.
-     * @throws NullArgumentException if the argument is null.
+     * @throws NullArgumentException     if the argument is null.
      */
     @Override
     public BigDecimal getCashOutflowInYear(Year year) {
         if (year == null)
             throw new NullArgumentException();
+        loadHistory(year.atMonth(1));
         Predicate<IMovement> predicate = (t) -> t.isActive() && t.isAccomplished() &&
                 Year.from(t.getAccomplishDate()).equals(year) &&
                 t.isDebit();
@@ -785,16 +898,17 @@ public class Wallet implements IWallet {
      *
      * @param reference month / year.
      * @return the reference balance expected only movement, filtered by their due date.
-     * @throws NullArgumentException if the argument is null.
+     * @throws NullArgumentException     if the argument is null.
      */
     @Override
     public BigDecimal getBalanceExpected(YearMonth reference) {
         if (reference == null)
             throw new NullArgumentException();
+        loadHistory(reference);
         Predicate<IMovement> predicate = (t) -> t.isActive() &&
                 ((YearMonth.from(t.getDueDate()).equals(reference) ||
                         YearMonth.from(t.getDueDate()).isBefore(reference)));
-        return getCashFlow(predicate);
+        return getOpeningBalance().add(getCashFlow(predicate));
     }
 
     /**
@@ -812,12 +926,13 @@ public class Wallet implements IWallet {
      *
      * @param reference month / year.
      * @return the total value of credit transactions and movement in the month / year.
-     * @throws NullArgumentException if the argument is null.
+     * @throws NullArgumentException     if the argument is null.
      */
     @Override
     public BigDecimal getCashInflowExpected(YearMonth reference) {
         if (reference == null)
             throw new NullArgumentException();
+        loadHistory(reference);
         Predicate<IMovement> predicate = (t) -> t.isActive() &&
                 (YearMonth.from(t.getDueDate()).equals(reference) && t.isCredit());
         return getCashFlow(predicate);
@@ -838,12 +953,13 @@ public class Wallet implements IWallet {
      *
      * @param year year for calculation.
      * @return the total value of credit transactions and movement in the year.
-     * @throws NullArgumentException if the argument is null.
+     * @throws NullArgumentException     if the argument is null.
      */
     @Override
     public BigDecimal getCashInflowInYearExpected(Year year) {
         if (year == null)
             throw new NullArgumentException();
+        loadHistory(year.atMonth(1));
         Predicate<IMovement> predicate = (t) -> t.isActive() &&
                 (Year.from(t.getDueDate()).equals(year) && t.isCredit());
         return getCashFlow(predicate);
@@ -864,12 +980,13 @@ public class Wallet implements IWallet {
      *
      * @param reference month / year.
      * @return the total value of debit movement, filtered by their due date, in the month / year.
-     * @throws NullArgumentException if the argument is null.
+     * @throws NullArgumentException     if the argument is null.
      */
     @Override
     public BigDecimal getCashOutflowExpected(YearMonth reference) {
         if (reference == null)
             throw new NullArgumentException();
+        loadHistory(reference);
         Predicate<IMovement> predicate = (t) -> t.isActive() &&
                 (YearMonth.from(t.getDueDate()).equals(reference) && t.isDebit());
         return getCashFlow(predicate);
@@ -890,12 +1007,13 @@ public class Wallet implements IWallet {
      *
      * @param year year for calculation.
      * @return the total value of debit movement, filtered by their due date, in the year.
-     * @throws NullArgumentException if the argument is null.
+     * @throws NullArgumentException     if the argument is null.
      */
     @Override
     public BigDecimal getCashOutflowInYearExpected(Year year) {
         if (year == null)
             throw new NullArgumentException();
+        loadHistory(year.atMonth(1));
         Predicate<IMovement> predicate = (t) -> t.isActive() &&
                 (Year.from(t.getDueDate()).equals(year) && t.isDebit());
         return getCashFlow(predicate);
@@ -903,7 +1021,7 @@ public class Wallet implements IWallet {
 
     @Override
     public IWallet clone() {
-        return new Wallet(this);
+        return DirtyTracking.copyOf(this, new Wallet(this));
     }
 
     @Override
@@ -973,6 +1091,14 @@ public class Wallet implements IWallet {
         return this.getBalance().compareTo(o.getBalance());
     }
 
+    private void loadHistory(YearMonth reference) {
+        loadHistory(Year.from(reference));
+    }
+
+    private BigDecimal getOpeningBalance() {
+        return this.historyStart == null ? BigDecimal.ZERO : this.openingBalance;
+    }
+
     private BigDecimal getCashFlow(Predicate<IMovement> predicate) {
         BigDecimal cashInFlow = BigDecimal.ZERO;
 
@@ -996,7 +1122,8 @@ public class Wallet implements IWallet {
     }
 
     private BigDecimal getBalanceInDate(LocalDate date) {
-        BigDecimal balance = BigDecimal.ZERO;
+        loadHistory(YearMonth.from(date));
+        BigDecimal balance = getOpeningBalance();
         for (IMovement t : this.movements)
             if (t.isActive() && t.isAccomplished() && (t.getDueDate().isEqual(date) || t.getDueDate().isBefore(date)))
                 balance = balance.add(t.getAmount());
@@ -1008,10 +1135,25 @@ public class Wallet implements IWallet {
     private Set<IMovement> copyMovements(Collection<IMovement> source) {
         Set<IMovement> destination = new TreeSet<>();
         for (IMovement m : source)
-            destination.add(m.clone());
+            destination.add(hold(m.clone()));
         return destination;
     }
 
+    private IMovement hold(IMovement movement) {
+        if (movement instanceof Movement)
+            ((Movement) movement).assignToWallet(this.ID);
+        return movement;
+    }
+
+    /**
+     * Records the user that owns this wallet.
+     *
+     * @param userID identifier of the user.
+     */
+    void assignToUser(UUID userID) {
+        this.userID = userID;
+    }
+
     private enum Action {
         UPDATE, REMOVE
     }
@@ -0,0 +1,11 @@
+package bll.exceptions;
+
+public class ConcurrentUpdateException extends IllegalArgumentException{
+    /**
+     * Constructs an {@code IllegalArgumentException} with no
+     * detail message.
+     */
+    public ConcurrentUpdateException() {
+        super();
+    }
+}
@@ -0,0 +1,173 @@
+package bll.projections;
+
+import bll.entities.ICashFlow;
+import bll.exceptions.NullArgumentException;
+
+import java.math.BigDecimal;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+import static bll.entities.ICashFlow.MONTH_KEY;
+
+/**
+ * Balances and cash flows of a wallet computed from its monthly totals instead of its movements.
+ */
+public final class CashFlowTotals implements ICashFlow {
+    private final List<MonthlyTotal> totals;
+
+    public CashFlowTotals(List<MonthlyTotal> totals) {
+        if (totals == null)
+            throw new NullArgumentException();
+        this.totals = List.copyOf(totals);
+    }
+
+    @Override
+    public BigDecimal getBalance() {
+        return getBalance(YearMonth.now());
+    }
+
+    @Override
+    public BigDecimal getBalance(YearMonth reference) {
+        if (reference == null)
+            throw new NullArgumentException();
+        return sumAccomplished(month -> month <= MONTH_KEY.applyAsInt(reference), t -> true);
+    }
+
+    @Override
+    public BigDecimal getCashInflow() {
+        return getCashInflow(YearMonth.now());
+    }
+
+    @Override
+    public BigDecimal getCashInflow(YearMonth reference) {
+        if (reference == null)
+            throw new NullArgumentException();
+        return sumAccomplished(inMonth(reference), MonthlyTotal::isCredit);
+    }
+
+    @Override
+    public BigDecimal getCashInflowInYear() {
+        return getCashInflowInYear(Year.now());
+    }
+
+    @Override
+    public BigDecimal getCashInflowInYear(Year year) {
+        if (year == null)
+            throw new NullArgumentException();
+        return sumAccomplished(inYear(year), MonthlyTotal::isCredit);
+    }
+
+    @Override
+    public BigDecimal getCashOutflow() {
+        return getCashOutflow(YearMonth.now());
+    }
+
+    @Override
+    public BigDecimal getCashOutflow(YearMonth reference) {
+        if (reference == null)
+            throw new NullArgumentException();
+        return sumAccomplished(inMonth(reference), t -> !t.isCredit());
+    }
+
+    @Override
+    public BigDecimal getCashOutflowInYear() {
+        return getCashOutflowInYear(Year.now());
+    }
+
+    @Override
+    public BigDecimal getCashOutflowInYear(Year year) {
+        if (year == null)
+            throw new NullArgumentException();
+        return sumAccomplished(inYear(year), t -> !t.isCredit());
+    }
+
+    @Override
+    public BigDecimal getBalanceExpected() {
+        return getBalanceExpected(YearMonth.now());
+    }
+
+    @Override
+    public BigDecimal getBalanceExpected(YearMonth reference) {
+        if (reference == null)
+            throw new NullArgumentException();
+        return sumDue(month -> month <= MONTH_KEY.applyAsInt(reference), t -> true);
+    }
+
+    @Override
+    public BigDecimal getCashInflowExpected() {
+        return getCashInflowExpected(YearMonth.now());
+    }
+
+    @Override
+    public BigDecimal getCashInflowExpected(YearMonth reference) {
+        if (reference == null)
+            throw new NullArgumentException();
+        return sumDue(inMonth(reference), MonthlyTotal::isCredit);
+    }
+
+    @Override
+    public BigDecimal getCashInflowInYearExpected() {
+        return getCashInflowInYearExpected(Year.now());
+    }
+
+    @Override
+    public BigDecimal getCashInflowInYearExpected(Year year) {
+        if (year == null)
+            throw new NullArgumentException();
+        return sumDue(inYear(year), MonthlyTotal::isCredit);
+    }
+
+    @Override
+    public BigDecimal getCashOutflowExpected() {
+        return getCashOutflowExpected(YearMonth.now());
+    }
+
+    @Override
+    public BigDecimal getCashOutflowExpected(YearMonth reference) {
+        if (reference == null)
+            throw new NullArgumentException();
+        return sumDue(inMonth(reference), t -> !t.isCredit());
+    }
+
+    @Override
+    public BigDecimal getCashOutflowInYearExpected() {
+        return getCashOutflowInYearExpected(Year.now());
+    }
+
+    @Override
+    public BigDecimal getCashOutflowInYearExpected(Year year) {
+        if (year == null)
+            throw new NullArgumentException();
+        return sumDue(inYear(year), t -> !t.isCredit());
+    }
+
+    private BigDecimal sumAccomplished(IntPredicate month, Predicate<MonthlyTotal> predicate) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (MonthlyTotal t : this.totals)
+            if (t.isAccomplished() && month.test(t.getAccomplishMonth()) && predicate.test(t))
+                sum = sum.add(t.getAmount());
+        return sum;
+    }
+
+    private BigDecimal sumDue(IntPredicate month, Predicate<MonthlyTotal> predicate) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (MonthlyTotal t : this.totals)
+            if (month.test(t.getDueMonth()) && predicate.test(t))
+                sum = sum.add(t.getAmount());
+        return sum;
+    }
+
+    private static IntPredicate inMonth(YearMonth reference) {
+        int key = MONTH_KEY.applyAsInt(reference);
+        return month -> month == key;
+    }
+
+    private static IntPredicate inYear(Year year) {
+        int first = MONTH_KEY.applyAsInt(year.atMonth(1));
+        int last = MONTH_KEY.applyAsInt(year.atMonth(12));
+        return month -> month >= first && month <= last;
+    }
+}
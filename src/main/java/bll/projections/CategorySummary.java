@@ -0,0 +1,52 @@
+package bll.projections;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Read-only view of a movement category with the columns shown by category lists.
+ */
+public final class CategorySummary implements Comparable<CategorySummary> {
+    private final UUID ID;
+    private final String name;
+
+    public CategorySummary(UUID ID, String name) {
+        this.ID = ID;
+        this.name = name;
+    }
+
+    /**
+     * Returns the unique identifier of the category.
+     *
+     * @return the unique identifier of the category.
+     */
+    public UUID getID() {
+        return this.ID;
+    }
+
+    /**
+     * Returns the name of the category.
+     *
+     * @return the name of the category.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return ID.equals(((CategorySummary) o).ID);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ID);
+    }
+
+    @Override
+    public int compareTo(CategorySummary o) {
+        return this.name.toLowerCase().compareTo(o.name.toLowerCase());
+    }
+}
@@ -0,0 +1,47 @@
+package bll.projections;
+
+import bll.enumerators.EOperationType;
+
+import java.math.BigDecimal;
+
+/**
+ * Sum of the amounts of the movements of a wallet that share the month they are due, the month they were
+ * accomplished, their type and whether they were accomplished. Months are keys built by
+ * {@link bll.entities.ICashFlow#MONTH_KEY}.
+ */
+public final class MonthlyTotal {
+    private final int dueMonth;
+    private final Integer accomplishMonth;
+    private final boolean credit;
+    private final boolean accomplished;
+    private final BigDecimal amount;
+
+    public MonthlyTotal(Integer dueMonth, Integer accomplishMonth, EOperationType type, Boolean accomplished,
+                        BigDecimal amount) {
+        this.dueMonth = dueMonth;
+        this.accomplishMonth = accomplishMonth;
+        this.credit = type == EOperationType.CREDIT;
+        this.accomplished = accomplished && accomplishMonth != null;
+        this.amount = amount;
+    }
+
+    int getDueMonth() {
+        return this.dueMonth;
+    }
+
+    Integer getAccomplishMonth() {
+        return this.accomplishMonth;
+    }
+
+    boolean isCredit() {
+        return this.credit;
+    }
+
+    boolean isAccomplished() {
+        return this.accomplished;
+    }
+
+    BigDecimal getAmount() {
+        return this.amount;
+    }
+}
@@ -0,0 +1,78 @@
+package bll.projections;
+
+import bll.enumerators.ERole;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Read-only view of a user with the columns shown by user lists.
+ * It is read straight from the database, without loading the user, its credential or its states.
+ */
+public final class UserSummary implements Comparable<UserSummary> {
+    private final UUID ID;
+    private final String name;
+    private final String email;
+    private final List<ERole> roles;
+
+    public UserSummary(UUID ID, String name, String email, List<ERole> roles) {
+        this.ID = ID;
+        this.name = name;
+        this.email = email;
+        this.roles = List.copyOf(roles);
+    }
+
+    /**
+     * Returns the unique identifier of the user.
+     *
+     * @return the unique identifier of the user.
+     */
+    public UUID getID() {
+        return this.ID;
+    }
+
+    /**
+     * Returns the name of the user.
+     *
+     * @return the name of the user.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the email of the user.
+     *
+     * @return the email of the user.
+     */
+    public String getEmail() {
+        return this.email;
+    }
+
+    /**
+     * Returns the roles of the user.
+     *
+     * @return an unmodifiable list of the roles of the user.
+     */
+    public List<ERole> getRoles() {
+        return this.roles;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return ID.equals(((UserSummary) o).ID);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ID);
+    }
+
+    @Override
+    public int compareTo(UserSummary o) {
+        return this.name.toLowerCase().compareTo(o.name.toLowerCase());
+    }
+}
@@ -1,5 +1,6 @@
 package bll.repositories;
 
+import bll.entities.FormOfPayment;
 import bll.entities.IFormOfPayment;
 import bll.exceptions.ExistingFormOfPaymentException;
 import bll.exceptions.NullArgumentException;
@@ -8,15 +9,18 @@ import bll.services.SessionService;
 import dal.infra.IDAO;
 
 import java.util.HashSet;
-import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import static bll.entities.IFormOfPayment.NORMALIZED_NAME;
 import static bll.enumerators.ERole.ADMIN;
 import static bll.services.PermissionService.permissionServiceDefault;
 import static dal.infra.FormOfPaymentDAO.defaultFormOfPaymentDAO;
+import static dal.infra.IDAO.exists;
+import static dal.infra.SoftDeletes.includingInactive;
 
 public class FormOfPaymentRepository implements IFormOfPaymentRepository {
     private final IDAO<IFormOfPayment> formOfPaymentDAO;
@@ -32,7 +36,7 @@ public class FormOfPaymentRepository implements IFormOfPaymentRepository {
 
     @Override
     public Set<IFormOfPayment> getAll() {
-        return new HashSet<>(this.formOfPaymentDAO.select("select f from FormOfPayment f where active = 1"));
+        return new HashSet<>(this.formOfPaymentDAO.select("select f from FormOfPayment f"));
     }
 
     @Override
@@ -53,11 +57,12 @@ public class FormOfPaymentRepository implements IFormOfPaymentRepository {
     public void add(IFormOfPayment element) {
         if (element == null)
             throw new NullArgumentException();
-        List<IFormOfPayment> formOfPayments = this.formOfPaymentDAO.select("select f from FormOfPayment f");
         if (permissionServiceDefault().hasRole(SessionService.getCurrentUser(), ADMIN)) {
-            if (!formOfPayments.contains(element) &&
-                    formOfPayments.stream().noneMatch(f -> f.getName().equalsIgnoreCase(element.getName()))) {
-                this.formOfPaymentDAO.create(element);
+            if (!includingInactive(() -> exists(
+                    "select f.id from FormOfPayment f where f.id = :id or f.normalizedName = :name",
+                    Map.of("id", element.getID(), "name", NORMALIZED_NAME.apply(element.getName()))))) {
+                UniqueNames.write(() -> this.formOfPaymentDAO.create(FormOfPayment.inCatalogue(element)),
+                        FormOfPayment.UNIQUE_NAME, ExistingFormOfPaymentException::new);
             } else
                 throw new ExistingFormOfPaymentException();
         } else
@@ -69,7 +74,8 @@ public class FormOfPaymentRepository implements IFormOfPaymentRepository {
         if (element == null)
             throw new NullArgumentException();
         if (permissionServiceDefault().hasRole(SessionService.getCurrentUser(), ADMIN))
-            this.formOfPaymentDAO.update(element);
+            OptimisticWrites.write(() -> UniqueNames.write(() -> this.formOfPaymentDAO.update(element),
+                    FormOfPayment.UNIQUE_NAME, ExistingFormOfPaymentException::new));
         else
             throw new UserIsNotAuthorizedForActionException();
     }
@@ -80,7 +86,7 @@ public class FormOfPaymentRepository implements IFormOfPaymentRepository {
             throw new NullArgumentException();
         if (permissionServiceDefault().hasRole(SessionService.getCurrentUser(), ADMIN)) {
             element.inactivate();
-            this.formOfPaymentDAO.update(element);
+            OptimisticWrites.write(() -> this.formOfPaymentDAO.update(element));
         } else
             throw new UserIsNotAuthorizedForActionException();
     }
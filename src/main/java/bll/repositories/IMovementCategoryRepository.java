@@ -1,7 +1,9 @@
 package bll.repositories;
 
 import bll.entities.IMovementCategory;
+import bll.projections.CategorySummary;
 
+import java.util.List;
 import java.util.Set;
 
 public interface IMovementCategoryRepository extends IRepository<IMovementCategory> {
@@ -19,4 +21,11 @@ public interface IMovementCategoryRepository extends IRepository<IMovementCatego
      * @return all public movement categories.
      */
     Set<IMovementCategory> getOnlyPublic();
+
+    /**
+     * Returns the summaries of all public movement categories, sorted by name, without loading the categories.
+     *
+     * @return the summaries of all public movement categories.
+     */
+    List<CategorySummary> getPublicSummaries();
 }
@@ -0,0 +1,95 @@
+package bll.repositories;
+
+import bll.entities.IMovement;
+import bll.entities.IWallet;
+import bll.enumerators.EHandlingMode;
+import bll.enumerators.ERepetitionFrequency;
+import bll.exceptions.ConcurrentUpdateException;
+import bll.exceptions.NonExistentWalletException;
+import bll.exceptions.NullArgumentException;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Movements of the wallets of the user in session.
+ * <p>
+ * Every operation applies the rules of {@link IWallet} and then writes only the movements it changed,
+ * so the rest of the wallet and of the user are neither read nor written.
+ * <p>
+ * Writes fail with {@link ConcurrentUpdateException} when the wallet was changed elsewhere since it was read;
+ * the wallet in session is then reloaded, so the call can be repeated against its current state.
+ */
+public interface IMovementRepository {
+
+    /**
+     * Returns the movements of a wallet that meet the predicate.
+     *
+     * @param wallet    holding the movements.
+     * @param predicate to be tested.
+     * @return the movements of a wallet that meet the predicate.
+     * @throws NullArgumentException      if any of the parameters are null.
+     * @throws NonExistentWalletException if the wallet does not belong to the user in session.
+     */
+    Set<IMovement> get(IWallet wallet, Predicate<IMovement> predicate);
+
+    /**
+     * Returns the movement with the given identifier or null if it does not exist.
+     *
+     * @param id of the movement.
+     * @return the movement with the given identifier or null if it does not exist.
+     * @throws NullArgumentException if the parameter is null.
+     */
+    IMovement get(UUID id);
+
+    /**
+     * Adds a movement to a wallet of the user in session.
+     *
+     * @see IWallet#addMovement(IMovement)
+     */
+    void add(IWallet wallet, IMovement movement);
+
+    /**
+     * Adds an installment plan to a wallet of the user in session.
+     *
+     * @see IWallet#addInstallment(IMovement, ERepetitionFrequency, int)
+     */
+    void addInstallment(IWallet wallet, IMovement movement, ERepetitionFrequency frequency, int numberOfInstallments);
+
+    /**
+     * Updates a movement of a wallet of the user in session.
+     *
+     * @see IWallet#updateMovement(IMovement)
+     */
+    void update(IWallet wallet, IMovement movement);
+
+    /**
+     * Updates an installment plan of a wallet of the user in session.
+     *
+     * @see IWallet#updateInstallment(IMovement, EHandlingMode)
+     */
+    void updateInstallment(IWallet wallet, IMovement installment, EHandlingMode handlingMode);
+
+    /**
+     * Confirms a movement of a wallet of the user in session.
+     *
+     * @see IWallet#confirmMovement(IMovement, LocalDate)
+     */
+    void confirm(IWallet wallet, IMovement movement, LocalDate accomplishDate);
+
+    /**
+     * Removes a movement from a wallet of the user in session.
+     *
+     * @see IWallet#removeMovement(IMovement)
+     */
+    void remove(IWallet wallet, IMovement movement);
+
+    /**
+     * Removes an installment plan from a wallet of the user in session.
+     *
+     * @see IWallet#removeInstallment(IMovement, EHandlingMode)
+     */
+    void removeInstallment(IWallet wallet, IMovement installment, EHandlingMode handlingMode);
+}
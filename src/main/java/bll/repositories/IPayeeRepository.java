@@ -0,0 +1,6 @@
+package bll.repositories;
+
+import bll.entities.IPayee;
+
+public interface IPayeeRepository extends IRepository<IPayee> {
+}
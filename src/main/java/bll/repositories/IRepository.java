@@ -1,5 +1,7 @@
 package bll.repositories;
 
+import bll.exceptions.ConcurrentUpdateException;
+
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Predicate;
@@ -12,7 +14,19 @@ public interface IRepository<T> {
 
     void add(T element);
 
+    /**
+     * Writes the changes of an element.
+     *
+     * @param element to be written.
+     * @throws ConcurrentUpdateException if the element was changed by someone else since it was read.
+     */
     void update(T element);
 
+    /**
+     * Removes an element.
+     *
+     * @param element to be removed.
+     * @throws ConcurrentUpdateException if the element was changed by someone else since it was read.
+     */
     void remove(T element);
 }
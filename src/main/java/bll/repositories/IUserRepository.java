@@ -1,8 +1,13 @@
 package bll.repositories;
 
 import bll.entities.IUser;
+import bll.enumerators.ERole;
+import bll.exceptions.ConcurrentUpdateException;
 import bll.exceptions.NullArgumentException;
+import bll.projections.UserSummary;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 
@@ -16,6 +21,77 @@ public interface IUserRepository extends IRepository<IUser> {
      */
     IUser getFirst(Predicate<IUser> predicate);
 
+    /**
+     * Returns the user that logs in with the access key or null if there is none, in a single query. Only what a
+     * login reads is loaded, so the rest of the user must be read inside the unit of work of the call.
+     *
+     * @param accessKey of the user.
+     * @return the user with the access key or null if there is none.
+     * @throws NullArgumentException if the parameter is null.
+     */
+    IUser getByAccessKey(String accessKey);
+
     Set<IUser> getAll();
 
+    /**
+     * Returns the summaries of all users, sorted by name, without loading the users.
+     *
+     * @return the summaries of all users.
+     */
+    List<UserSummary> getSummaries();
+
+    /**
+     * Returns the summaries of the users with an access key that contains the text, ignoring case,
+     * sorted by name.
+     *
+     * @param accessKey text to be searched in the access keys.
+     * @return the summaries of the users found.
+     * @throws NullArgumentException if the parameter is null.
+     */
+    List<UserSummary> getSummaries(String accessKey);
+
+    /**
+     * Returns the number of users of each role. Roles without users are absent.
+     *
+     * @return the number of users of each role.
+     */
+    Map<ERole, Long> countByRole();
+
+    /**
+     * Returns the number of users.
+     *
+     * @return the number of users.
+     */
+    long count();
+
+    /**
+     * Saves the states of the user without waiting for the write.
+     * Updates of the same user that are still pending are replaced, and the states do not change the
+     * version of the user, so a copy of the user can still be updated afterwards.
+     *
+     * @param user whose states are saved.
+     * @throws NullArgumentException if the parameter is null.
+     */
+    void updateStates(IUser user);
+
+    /**
+     * Saves the states of the user in a transaction of its own and waits for the write, for changes that must
+     * not be lost, such as a block. The update of its states still pending is discarded, and one already being
+     * written is written first, so it cannot overwrite the saved states.
+     *
+     * @param user whose states are saved.
+     * @throws NullArgumentException if the parameter is null.
+     * @see #updateStates(IUser)
+     */
+    void saveStates(IUser user);
+
+    /**
+     * Saves the credential of the user, without writing the rest of the user.
+     *
+     * @param user whose credential is saved.
+     * @throws NullArgumentException      if the parameter is null.
+     * @throws ConcurrentUpdateException if the credential was changed elsewhere since it was read.
+     */
+    void updateCredential(IUser user);
+
 }
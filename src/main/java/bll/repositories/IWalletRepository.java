@@ -0,0 +1,50 @@
+package bll.repositories;
+
+import bll.entities.ICashFlow;
+import bll.entities.IMovement;
+import bll.entities.IWallet;
+import bll.exceptions.NonExistentWalletException;
+import bll.exceptions.NullArgumentException;
+
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.Set;
+
+public interface IWalletRepository extends IRepository<IWallet> {
+
+    /**
+     * Returns the balances and cash flows of a wallet of the user in session, computed by the database
+     * from monthly totals of its movements, without loading the movements.
+     *
+     * @param wallet of the user in session.
+     * @return the balances and cash flows of the wallet.
+     * @throws NullArgumentException      if the parameter is null.
+     * @throws NonExistentWalletException if the wallet does not belong to the user in session.
+     */
+    ICashFlow getCashFlow(IWallet wallet);
+
+    /**
+     * Returns the operations of a year of a wallet of the user in session, loading the older years of the
+     * wallet held in session when the year is before them.
+     *
+     * @param wallet of the user in session.
+     * @param year   for reference.
+     * @return a collection of Operation for a year.
+     * @throws NullArgumentException      if the parameter is null.
+     * @throws NonExistentWalletException if the wallet does not belong to the user in session.
+     */
+    Set<IMovement> getYearOperations(IWallet wallet, Year year);
+
+    /**
+     * Returns the operations of a wallet of the user in session in the requested range, loading the older
+     * years of the wallet held in session when the range starts before them.
+     *
+     * @param wallet of the user in session.
+     * @param start  initial date.
+     * @param end    final date.
+     * @return a collection of operations that occurred in the requested range.
+     * @throws NullArgumentException      if the parameter is null.
+     * @throws NonExistentWalletException if the wallet does not belong to the user in session.
+     */
+    Set<IMovement> getOperationsBetween(IWallet wallet, YearMonth start, YearMonth end);
+}
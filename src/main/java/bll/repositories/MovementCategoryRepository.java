@@ -1,23 +1,31 @@
 package bll.repositories;
 
 import bll.entities.IMovementCategory;
+import bll.entities.MovementCategory;
 import bll.exceptions.ExistingCategoryException;
 import bll.exceptions.NullArgumentException;
 import bll.exceptions.UserIsNotAuthorizedForActionException;
+import bll.projections.CategorySummary;
 import bll.services.SessionService;
+import dal.infra.CategorySummaryDAO;
 import dal.infra.IDAO;
 import dal.infra.MovementCategoryDAO;
 
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Predicate;
 
+import static bll.entities.IMovementCategory.NORMALIZED_NAME;
 import static bll.enumerators.ERole.ADMIN;
 import static bll.services.PermissionService.permissionServiceDefault;
+import static dal.infra.IDAO.exists;
 
 public class MovementCategoryRepository implements IMovementCategoryRepository {
     private final IDAO<IMovementCategory> categoryDAO;
+    private final CategorySummaryDAO summaryDAO = CategorySummaryDAO.getInstance();
 
     public MovementCategoryRepository(IDAO<IMovementCategory> categoryDAO) {
         if (categoryDAO == null)
@@ -35,7 +43,7 @@ public class MovementCategoryRepository implements IMovementCategoryRepository {
 
     @Override
     public Set<IMovementCategory> getAll() {
-        return new HashSet<>(categoryDAO.select("select m from MovementCategory m where active = 1 and publicCategory = 1 "));
+        return new HashSet<>(categoryDAO.select("select m from MovementCategory m where publicCategory = 1"));
     }
 
     /**
@@ -45,7 +53,12 @@ public class MovementCategoryRepository implements IMovementCategoryRepository {
      */
     @Override
     public Set<IMovementCategory> getOnlyPublic() {
-        return new HashSet<>(categoryDAO.select("select m from MovementCategory m where active = 1 and publicCategory = 1 "));
+        return new HashSet<>(categoryDAO.select("select m from MovementCategory m where publicCategory = 1"));
+    }
+
+    @Override
+    public List<CategorySummary> getPublicSummaries() {
+        return summaryDAO.selectPublic();
     }
 
     @Override
@@ -70,11 +83,12 @@ public class MovementCategoryRepository implements IMovementCategoryRepository {
     public void add(IMovementCategory element) {
         if (element == null)
             throw new NullArgumentException();
-        Set<IMovementCategory> publicCategory = getOnlyPublic();
         if (permissionServiceDefault().hasRole(SessionService.getCurrentUser(), ADMIN) && element.isPublic()) {
-            if (!publicCategory.contains(element) &&
-                    publicCategory.stream().noneMatch(f -> f.getName().equalsIgnoreCase(element.getName())))
-                categoryDAO.create(element);
+            if (!exists("select m.id from MovementCategory m " +
+                            "where m.publicCategory = true and (m.id = :id or m.normalizedName = :name)",
+                    Map.of("id", element.getID(), "name", NORMALIZED_NAME.apply(element.getName()))))
+                UniqueNames.write(() -> categoryDAO.create(element), MovementCategory.UNIQUE_NAME,
+                        ExistingCategoryException::new);
             else
                 throw new ExistingCategoryException();
         } else throw new UserIsNotAuthorizedForActionException();
@@ -85,7 +99,8 @@ public class MovementCategoryRepository implements IMovementCategoryRepository {
         if (element == null)
             throw new NullArgumentException();
         if (permissionServiceDefault().hasRole(SessionService.getCurrentUser(), ADMIN) && element.isPublic())
-            categoryDAO.update(element);
+            OptimisticWrites.write(() -> UniqueNames.write(() -> categoryDAO.update(element),
+                    MovementCategory.UNIQUE_NAME, ExistingCategoryException::new));
         else
             throw new UserIsNotAuthorizedForActionException();
     }
@@ -96,7 +111,7 @@ public class MovementCategoryRepository implements IMovementCategoryRepository {
             throw new NullArgumentException();
         if (permissionServiceDefault().hasRole(SessionService.getCurrentUser(), ADMIN) && element.isPublic()) {
             element.inactivate();
-            categoryDAO.update(element);
+            OptimisticWrites.write(() -> categoryDAO.update(element));
         } else
             throw new UserIsNotAuthorizedForActionException();
     }
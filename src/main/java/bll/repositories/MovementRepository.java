@@ -0,0 +1,181 @@
+package bll.repositories;
+
+import bll.entities.IMovement;
+import bll.entities.IUser;
+import bll.entities.IWallet;
+import bll.enumerators.EHandlingMode;
+import bll.enumerators.ERepetitionFrequency;
+import bll.exceptions.AttemptedToUseExcludedMovementException;
+import bll.exceptions.NonExistentWalletException;
+import bll.exceptions.NullArgumentException;
+import bll.services.SessionService;
+import dal.infra.EntityVersions;
+import dal.infra.IDAO;
+import dal.infra.MovementDAO;
+import dal.infra.MovementTombstones;
+import dal.infra.WalletDAO;
+import dal.infra.WalletMonthSummaries;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static dal.infra.IDAO.executeInsideTransaction;
+
+public class MovementRepository implements IMovementRepository {
+    private final IDAO<IMovement> movementDAO;
+    private final IDAO<IWallet> walletDAO;
+
+    public MovementRepository(IDAO<IMovement> movementDAO, IDAO<IWallet> walletDAO) {
+        if (movementDAO == null || walletDAO == null)
+            throw new NullArgumentException();
+        this.movementDAO = movementDAO;
+        this.walletDAO = walletDAO;
+    }
+
+    public static IMovementRepository getInstance() {
+        return new MovementRepository(MovementDAO.getInstance(), WalletDAO.getInstance());
+    }
+
+    @Override
+    public Set<IMovement> get(IWallet wallet, Predicate<IMovement> predicate) {
+        if (wallet == null || predicate == null)
+            throw new NullArgumentException();
+        Set<IMovement> movements = new HashSet<>();
+        for (IMovement movement : fetchWallet(SessionService.getCurrentUser(), wallet).getMovements())
+            if (predicate.test(movement))
+                movements.add(movement);
+        return movements;
+    }
+
+    @Override
+    public IMovement get(UUID id) {
+        if (id == null)
+            throw new NullArgumentException();
+        return this.movementDAO.select(id);
+    }
+
+    @Override
+    public void add(IWallet wallet, IMovement movement) {
+        if (wallet == null || movement == null)
+            throw new NullArgumentException();
+        change(wallet, w -> w.addMovement(movement));
+    }
+
+    @Override
+    public void addInstallment(IWallet wallet, IMovement movement, ERepetitionFrequency frequency, int numberOfInstallments) {
+        if (wallet == null || movement == null || frequency == null)
+            throw new NullArgumentException();
+        change(wallet, w -> w.addInstallment(movement, frequency, numberOfInstallments));
+    }
+
+    @Override
+    public void update(IWallet wallet, IMovement movement) {
+        if (wallet == null || movement == null)
+            throw new NullArgumentException();
+        change(wallet, w -> w.updateMovement(movement));
+    }
+
+    @Override
+    public void updateInstallment(IWallet wallet, IMovement installment, EHandlingMode handlingMode) {
+        if (wallet == null || installment == null || handlingMode == null)
+            throw new NullArgumentException();
+        change(wallet, w -> w.updateInstallment(installment, handlingMode));
+    }
+
+    @Override
+    public void confirm(IWallet wallet, IMovement movement, LocalDate accomplishDate) {
+        if (wallet == null || movement == null || accomplishDate == null)
+            throw new NullArgumentException();
+        change(wallet, w -> w.confirmMovement(movement, accomplishDate));
+    }
+
+    @Override
+    public void remove(IWallet wallet, IMovement movement) {
+        if (wallet == null || movement == null)
+            throw new NullArgumentException();
+        change(wallet, w -> w.removeMovement(movement));
+    }
+
+    @Override
+    public void removeInstallment(IWallet wallet, IMovement installment, EHandlingMode handlingMode) {
+        if (wallet == null || installment == null || handlingMode == null)
+            throw new NullArgumentException();
+        change(wallet, w -> w.removeInstallment(installment, handlingMode));
+    }
+
+    /**
+     * Applies an operation to the session copy of the wallet and writes the movements it inserted,
+     * modified or inactivated, in a single transaction. A wallet never forgets a movement, so one that
+     * leaves the active view was inactivated and is kept as such.
+     * The same transaction moves the totals of the written movements in the monthly summaries of the wallet.
+     * Inserted movements are checked against the removed ones, which the wallet no longer holds, so a removed
+     * movement is never added again.
+     * <p>
+     * The transaction increments the version of the wallet, so writers of the same wallet conflict
+     * while writers of different wallets never wait for each other.
+     */
+    private void change(IWallet wallet, Consumer<IWallet> operation) {
+        IUser user = SessionService.getCurrentUser();
+        IWallet storedWallet = fetchWallet(user, wallet);
+        Map<UUID, IMovement> before = new HashMap<>();
+        for (IMovement movement : storedWallet.getMovements())
+            before.put(movement.getID(), movement);
+
+        operation.accept(storedWallet);
+
+        Set<IMovement> after = storedWallet.getMovements();
+        Set<UUID> inserted = new HashSet<>();
+        for (IMovement movement : after)
+            if (!before.containsKey(movement.getID()))
+                inserted.add(movement.getID());
+        OptimisticWrites.write(() -> executeInsideTransaction(entityManager -> {
+            if (MovementTombstones.isExcluded(inserted))
+                throw new AttemptedToUseExcludedMovementException();
+            EntityVersions.lock(entityManager, storedWallet);
+            List<IMovement> replaced = new ArrayList<>();
+            List<IMovement> written = new ArrayList<>();
+            for (IMovement movement : after) {
+                IMovement previous = before.remove(movement.getID());
+                if (previous == null)
+                    this.movementDAO.create(movement);
+                else if (!previous.isDeepEquals(movement)) {
+                    this.movementDAO.update(movement);
+                    replaced.add(previous);
+                } else
+                    continue;
+                written.add(movement);
+            }
+            replaced.addAll(before.values());
+            WalletMonthSummaries.record(storedWallet.getID(), replaced, written);
+            for (IMovement dropped : before.values()) {
+                dropped.inactivate();
+                this.movementDAO.update(dropped);
+            }
+            EntityVersions.refreshOnCommit(storedWallet);
+        }), () -> reload(user, storedWallet));
+        user.updateWallet(storedWallet);
+    }
+
+    private void reload(IUser user, IWallet wallet) {
+        IWallet current = this.walletDAO.select(wallet.getID());
+        if (current == null)
+            user.removeWallet(wallet);
+        else
+            user.updateWallet(current);
+    }
+
+    private static IWallet fetchWallet(IUser user, IWallet wallet) {
+        for (IWallet w : user.getWallets())
+            if (w.equals(wallet))
+                return w;
+        throw new NonExistentWalletException();
+    }
+}
@@ -0,0 +1,42 @@
+package bll.repositories;
+
+import bll.exceptions.ConcurrentUpdateException;
+import dal.infra.EntityVersions;
+
+/**
+ * Runs the writes of the repositories under optimistic concurrency control.
+ * <p>
+ * A write over an element changed by someone else since it was read fails as a whole with
+ * {@link ConcurrentUpdateException}; the repository first reloads what it keeps in session.
+ * Conflicts are reported, not retried: the write is not applied again here, since only the caller
+ * can apply its change to the reloaded state and repeat the call.
+ */
+final class OptimisticWrites {
+
+    private OptimisticWrites() {
+    }
+
+    static void write(Runnable write) {
+        write(write, () -> {
+        });
+    }
+
+    /**
+     * Runs a write once, reloading the affected state and reporting the conflict when it conflicts with a
+     * concurrent update.
+     *
+     * @param write  the write.
+     * @param reload brings the state kept in session up to date after a conflict.
+     * @throws ConcurrentUpdateException if the write conflicts with a concurrent update.
+     */
+    static void write(Runnable write, Runnable reload) {
+        try {
+            write.run();
+        } catch (RuntimeException e) {
+            if (!EntityVersions.isConflict(e))
+                throw e;
+            reload.run();
+            throw new ConcurrentUpdateException();
+        }
+    }
+}
@@ -1,14 +1,33 @@
 package bll.repositories;
 
 import bll.entities.IPayee;
+import bll.entities.IUser;
+import bll.exceptions.NullArgumentException;
 import bll.services.SessionService;
+import dal.infra.EntityVersions;
+import dal.infra.IDAO;
+import dal.infra.PayeeDAO;
 
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Predicate;
 
-public class PayeeRepository implements IRepository<IPayee> {
+import static dal.infra.IDAO.executeInsideTransaction;
+
+public class PayeeRepository implements IPayeeRepository {
+    private final IDAO<IPayee> payeeDAO;
+
+    public PayeeRepository(IDAO<IPayee> payeeDAO) {
+        if (payeeDAO == null)
+            throw new NullArgumentException();
+        this.payeeDAO = payeeDAO;
+    }
+
+    public static IPayeeRepository getInstance() {
+        return new PayeeRepository(PayeeDAO.getInstance());
+    }
+
     @Override
     public Set<IPayee> get(Predicate<IPayee> predicate) {
         Set<IPayee> payees = new HashSet<>();
@@ -28,19 +47,50 @@ public class PayeeRepository implements IRepository<IPayee> {
 
     @Override
     public void add(IPayee element) {
-        SessionService.getCurrentUser().addPayee(element);
-        UserRepository.getInstance().update(SessionService.getCurrentUser());
+        IUser user = SessionService.getCurrentUser();
+        user.addPayee(element);
+        write(user, element, () -> this.payeeDAO.create(fetchPayee(user, element)));
     }
 
     @Override
     public void update(IPayee element) {
-        SessionService.getCurrentUser().updatePayee(element);
-        UserRepository.getInstance().update(SessionService.getCurrentUser());
+        IUser user = SessionService.getCurrentUser();
+        user.updatePayee(element);
+        write(user, element, () -> this.payeeDAO.update(fetchPayee(user, element)));
     }
 
     @Override
     public void remove(IPayee element) {
-        SessionService.getCurrentUser().removePayee(element);
-        UserRepository.getInstance().update(SessionService.getCurrentUser());
+        IUser user = SessionService.getCurrentUser();
+        user.removePayee(element);
+        write(user, element, () -> this.payeeDAO.delete(element));
+    }
+
+    /**
+     * Runs a write of a payee of the user in session and refreshes the versions held in session.
+     */
+    private void write(IUser user, IPayee payee, Runnable write) {
+        OptimisticWrites.write(() -> executeInsideTransaction(entityManager -> {
+            write.run();
+            EntityVersions.refreshOnCommit(user);
+        }), () -> reload(user, payee));
+    }
+
+    private void reload(IUser user, IPayee payee) {
+        IPayee current = this.payeeDAO.select(payee.getID());
+        boolean held = user.getPayee().contains(payee);
+        if (current == null && held)
+            user.removePayee(payee);
+        else if (current != null && held)
+            user.updatePayee(current);
+        else if (current != null)
+            user.addPayee(current);
+    }
+
+    private static IPayee fetchPayee(IUser user, IPayee payee) {
+        for (IPayee p : user.getPayee())
+            if (p.equals(payee))
+                return p;
+        return null;
     }
 }
@@ -0,0 +1,35 @@
+package bll.repositories;
+
+import dal.infra.UniqueKeys;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs the writes of the repositories over names the database keeps unique.
+ * <p>
+ * The repositories check for a duplicate before writing, to report it without a failed transaction, but two
+ * concurrent writers can both pass that check; the unique key then rejects the second one, which fails with
+ * the same exception as the check.
+ */
+final class UniqueNames {
+
+    private UniqueNames() {
+    }
+
+    /**
+     * Runs a write, translating a violation of the unique key into the exception of an existing name.
+     *
+     * @param write     the write.
+     * @param key       name of the unique key.
+     * @param duplicate creates the exception of an existing name.
+     */
+    static void write(Runnable write, String key, Supplier<? extends RuntimeException> duplicate) {
+        try {
+            write.run();
+        } catch (RuntimeException e) {
+            if (!UniqueKeys.isViolation(e, key))
+                throw e;
+            throw duplicate.get();
+        }
+    }
+}
@@ -1,19 +1,34 @@
 package bll.repositories;
 
+import bll.entities.ICredential;
 import bll.entities.IUser;
+import bll.entities.User;
+import bll.enumerators.ERole;
+import bll.enumerators.EUserState;
 import bll.exceptions.NullArgumentException;
+import bll.projections.UserSummary;
+import dal.infra.EntityVersions;
 import dal.infra.IDAO;
+import dal.infra.LoginDAO;
 import dal.infra.UserDAO;
+import dal.infra.UserSummaryDAO;
+import dal.infra.WriteBehindQueue;
 import org.hibernate.event.internal.DefaultResolveNaturalIdEventListener;
 
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import static dal.infra.IDAO.executeInsideTransaction;
+
 public class UserRepository implements IUserRepository {
     private final IDAO<IUser> userDAO;
+    private final UserSummaryDAO summaryDAO = UserSummaryDAO.getInstance();
+    private final LoginDAO loginDAO = LoginDAO.getInstance();
 
     public UserRepository(IDAO<IUser> userDAO) {
         if (userDAO == null)
@@ -43,6 +58,28 @@ public class UserRepository implements IUserRepository {
         return new HashSet<>(userDAO.select("select t from User t"));
     }
 
+    @Override
+    public List<UserSummary> getSummaries() {
+        return summaryDAO.selectAll();
+    }
+
+    @Override
+    public List<UserSummary> getSummaries(String accessKey) {
+        if (accessKey == null)
+            throw new NullArgumentException();
+        return summaryDAO.selectByAccessKey(accessKey);
+    }
+
+    @Override
+    public Map<ERole, Long> countByRole() {
+        return summaryDAO.countByRole();
+    }
+
+    @Override
+    public long count() {
+        return summaryDAO.count();
+    }
+
     @Override
     public IUser getFirst(Predicate<IUser> predicate) {
         if (predicate == null)
@@ -50,6 +87,13 @@ public class UserRepository implements IUserRepository {
         return userDAO.select("select t from User t").stream().filter(predicate).findFirst().orElse(null);
     }
 
+    @Override
+    public IUser getByAccessKey(String accessKey) {
+        if (accessKey == null)
+            throw new NullArgumentException();
+        return loginDAO.selectByAccessKey(accessKey);
+    }
+
     @Override
     public IUser get(UUID id) {
         if (id == null)
@@ -70,13 +114,50 @@ public class UserRepository implements IUserRepository {
     public void update(IUser element) {
         if (element == null)
             throw new NullArgumentException();
-        userDAO.update(element);
+        OptimisticWrites.write(() -> userDAO.update(element));
     }
 
     @Override
     public void remove(IUser element) {
         if (element == null)
             throw new NullArgumentException();
-        userDAO.delete(element);
+        OptimisticWrites.write(() -> userDAO.delete(element));
+    }
+
+    @Override
+    public void updateCredential(IUser user) {
+        if (user == null)
+            throw new NullArgumentException();
+        ICredential credential = user.getCredential();
+        OptimisticWrites.write(() -> executeInsideTransaction(entityManager -> {
+            entityManager.merge(credential);
+            EntityVersions.refreshOnCommit(credential);
+        }));
+    }
+
+    @Override
+    public void updateStates(IUser user) {
+        if (user == null)
+            throw new NullArgumentException();
+        List<EUserState> states = user.getUserStates();
+        WriteBehindQueue.submit(User.class, user.getID(), stored -> replaceStates(stored, states));
+    }
+
+    @Override
+    public void saveStates(IUser user) {
+        if (user == null)
+            throw new NullArgumentException();
+        List<EUserState> states = user.getUserStates();
+        WriteBehindQueue.write(User.class, user.getID(), stored -> replaceStates(stored, states));
+    }
+
+    private static void replaceStates(IUser stored, List<EUserState> states) {
+        List<EUserState> previous = stored.getUserStates();
+        if (previous.equals(states))
+            return;
+        for (EUserState state : states)
+            stored.addUserState(state);
+        for (EUserState state : previous)
+            stored.removeUserState(state);
     }
 }
@@ -0,0 +1,156 @@
+package bll.repositories;
+
+import bll.entities.ICashFlow;
+import bll.entities.IMovement;
+import bll.entities.IUser;
+import bll.entities.IWallet;
+import bll.exceptions.NonExistentWalletException;
+import bll.exceptions.NullArgumentException;
+import bll.projections.CashFlowTotals;
+import bll.services.SessionService;
+import dal.infra.CashFlowDAO;
+import dal.infra.EntityVersions;
+import dal.infra.IDAO;
+import dal.infra.WalletDAO;
+
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static dal.infra.IDAO.executeInsideTransaction;
+import static dal.infra.IDAO.exists;
+
+/**
+ * Wallets of the user in session, written one wallet at a time instead of through the whole user.
+ */
+public class WalletRepository implements IWalletRepository {
+    private final IDAO<IWallet> walletDAO;
+    private final CashFlowDAO cashFlowDAO = CashFlowDAO.getInstance();
+
+    public WalletRepository(IDAO<IWallet> walletDAO) {
+        if (walletDAO == null)
+            throw new NullArgumentException();
+        this.walletDAO = walletDAO;
+    }
+
+    public static IWalletRepository getInstance() {
+        return new WalletRepository(WalletDAO.getInstance());
+    }
+
+    @Override
+    public Set<IWallet> get(Predicate<IWallet> predicate) {
+        if (predicate == null)
+            throw new NullArgumentException();
+        Set<IWallet> wallets = new HashSet<>();
+        for (IWallet wallet : SessionService.getCurrentUser().getWallets())
+            if (predicate.test(wallet))
+                wallets.add(wallet);
+        return wallets;
+    }
+
+    @Override
+    public IWallet get(UUID id) {
+        if (id == null)
+            throw new NullArgumentException();
+        return this.walletDAO.select(id);
+    }
+
+    @Override
+    public ICashFlow getCashFlow(IWallet wallet) {
+        if (wallet == null)
+            throw new NullArgumentException();
+        if (!exists("select w.ID from Wallet w where w.ID = :wallet and w.userID = :user",
+                Map.of("wallet", wallet.getID(), "user", SessionService.getCurrentUser().getID())))
+            throw new NonExistentWalletException();
+        return new CashFlowTotals(this.cashFlowDAO.selectMonthlyTotals(wallet.getID()));
+    }
+
+    @Override
+    public Set<IMovement> getYearOperations(IWallet wallet, Year year) {
+        if (wallet == null || year == null)
+            throw new NullArgumentException();
+        return loadHistory(wallet, year).getYearOperations(year);
+    }
+
+    @Override
+    public Set<IMovement> getOperationsBetween(IWallet wallet, YearMonth start, YearMonth end) {
+        if (wallet == null || start == null || end == null)
+            throw new NullArgumentException();
+        return loadHistory(wallet, Year.from(start.isBefore(end) ? start : end)).getOperationsBetween(start, end);
+    }
+
+    @Override
+    public void add(IWallet element) {
+        if (element == null)
+            throw new NullArgumentException();
+        IUser user = SessionService.getCurrentUser();
+        user.addWallet(element);
+        write(user, element, () -> this.walletDAO.create(fetchWallet(user, element)));
+    }
+
+    @Override
+    public void update(IWallet element) {
+        if (element == null)
+            throw new NullArgumentException();
+        IUser user = SessionService.getCurrentUser();
+        user.updateWallet(element);
+        write(user, element, () -> this.walletDAO.update(fetchWallet(user, element)));
+    }
+
+    @Override
+    public void remove(IWallet element) {
+        if (element == null)
+            throw new NullArgumentException();
+        IUser user = SessionService.getCurrentUser();
+        user.removeWallet(element);
+        write(user, element, () -> this.walletDAO.delete(element));
+    }
+
+    /**
+     * Runs a write of a wallet of the user in session and refreshes the versions held in session.
+     */
+    private void write(IUser user, IWallet wallet, Runnable write) {
+        OptimisticWrites.write(() -> executeInsideTransaction(entityManager -> {
+            write.run();
+            EntityVersions.refreshOnCommit(user);
+        }), () -> reload(user, wallet));
+    }
+
+    private void reload(IUser user, IWallet wallet) {
+        IWallet current = this.walletDAO.select(wallet.getID());
+        boolean held = user.getWallets().contains(wallet);
+        if (current == null && held)
+            user.removeWallet(wallet);
+        else if (current != null && held)
+            user.updateWallet(current);
+        else if (current != null)
+            user.addWallet(current);
+    }
+
+    /**
+     * Returns the wallet held in session, after loading the settled movements from the year to the years
+     * already loaded, which are kept in session for the following queries.
+     */
+    private IWallet loadHistory(IWallet wallet, Year year) {
+        IUser user = SessionService.getCurrentUser();
+        IWallet held = fetchWallet(user, wallet);
+        if (held == null)
+            throw new NonExistentWalletException();
+        if (held.isHistoryLoaded(year.atMonth(1)))
+            return held;
+        held.loadHistory(year);
+        user.updateWallet(held);
+        return held;
+    }
+
+    private static IWallet fetchWallet(IUser user, IWallet wallet) {
+        for (IWallet w : user.getWallets())
+            if (w.equals(wallet))
+                return w;
+        return null;
+    }
+}
@@ -1,11 +1,23 @@
 package bll.services;
 
+import bll.entities.ICredential;
 import bll.entities.IUser;
+import bll.entities.PasswordHashing;
 import bll.enumerators.ERole;
 import bll.exceptions.NullArgumentException;
+import dal.infra.UnitOfWork;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
 
 import static bll.services.LoginService.LoginServiceDefault;
 import static bll.services.PermissionService.permissionServiceDefault;
@@ -13,43 +25,84 @@ import static bll.services.SessionService.getCurrentUser;
 import static bll.services.IdentificationService.identificationServiceDefault;
 
 public class AuthenticationService implements IAuthenticationService {
+    /**
+     * Threads reading and saving the users of asynchronous logins, as many as the password hashing pool, with as
+     * many logins waiting.
+     */
+    public static final int LOGIN_THREADS = PasswordHashing.POOL_SIZE;
+    private static final ThreadPoolExecutor LOGINS = loginExecutor();
 
     private final IIdentificationService identificationService;
     private final IPermissionService permissionService;
     private final ILoginService loginService;
+    private final LoginAttemptLimiter limiter;
 
     public AuthenticationService(IIdentificationService identificationService, IPermissionService permissionService, ILoginService loginService) {
-        if (identificationService == null || permissionService == null || loginService == null)
+        this(identificationService, permissionService, loginService, LoginAttemptLimiter.getInstance());
+    }
+
+    public AuthenticationService(IIdentificationService identificationService, IPermissionService permissionService, ILoginService loginService, LoginAttemptLimiter limiter) {
+        if (identificationService == null || permissionService == null || loginService == null || limiter == null)
             throw new NullArgumentException();
 
         this.identificationService = identificationService;
         this.permissionService = permissionService;
         this.loginService = loginService;
+        this.limiter = limiter;
     }
 
+    /**
+     * Access keys that match no user are throttled by the limiter, without querying the database, once they
+     * reach its maximum of failures.
+     */
     @Override
     public boolean authenticate(String accessKey, String password) {
         if (accessKey == null || password == null)
             throw new NullArgumentException();
-        IUser user = identificationService.identifyUser(accessKey);
-        if (user == null)
-            return false;
-
-        return loginService.logInto(user, password);
+        return authenticate(accessKey, password, (user) -> true);
     }
 
+    /**
+     * Access keys that match no user are throttled by the limiter, without querying the database, once they
+     * reach its maximum of failures.
+     */
     @Override
     public boolean authenticate(String accessKey, String password, ERole role) {
         if (accessKey == null || password == null || role == null)
             throw new NullArgumentException();
-        IUser user = identificationService.identifyUser(accessKey);
-        if (user == null)
-            return false;
-        if (!permissionService.hasRole(user, role))
-            return false;
-        return loginService.logInto(user, password);
+        return authenticate(accessKey, password, (user) -> permissionService.hasRole(user, role));
+    }
+
+    /**
+     * The user is read on a login thread and the password is hashed on the password hashing pool, without either
+     * thread waiting for the other. The login is then completed on a login thread, inside the session scope of
+     * the calling thread. A saturated pool fails the login with {@link RejectedExecutionException}.
+     */
+    @Override
+    public CompletableFuture<Boolean> authenticateAsync(String accessKey, String password) {
+        if (accessKey == null || password == null)
+            throw new NullArgumentException();
+        return authenticateAsync(accessKey, password, (user) -> true);
+    }
+
+    /**
+     * The user is read on a login thread and the password is hashed on the password hashing pool, without either
+     * thread waiting for the other. The login is then completed on a login thread, inside the session scope of
+     * the calling thread. A saturated pool fails the login with {@link RejectedExecutionException}.
+     */
+    @Override
+    public CompletableFuture<Boolean> authenticateAsync(String accessKey, String password, ERole role) {
+        if (accessKey == null || password == null || role == null)
+            throw new NullArgumentException();
+        return authenticateAsync(accessKey, password, (user) -> permissionService.hasRole(user, role));
     }
 
+    @Override
+    public UUID openSession(String accessKey, String password) {
+        if (accessKey == null || password == null)
+            throw new NullArgumentException();
+        return SessionRegistry.login(() -> authenticate(accessKey, password));
+    }
 
     @Override
     public boolean isAuthenticated(IUser user, Set<ERole> roles) {
@@ -70,6 +123,82 @@ public class AuthenticationService implements IAuthenticationService {
         return isAuthenticated(user, new HashSet<>());
     }
 
+    private boolean authenticate(String accessKey, String password, Predicate<IUser> allowed) {
+        if (limiter.isLimited(accessKey))
+            return false;
+        return UnitOfWork.call(entityManager -> {
+            IUser user = identifyUser(accessKey);
+            if (user == null)
+                return false;
+            if (!allowed.test(user))
+                return false;
+            return loginService.logInto(user, password);
+        });
+    }
+
+    private CompletableFuture<Boolean> authenticateAsync(String accessKey, String password,
+                                                         Predicate<IUser> allowed) {
+        BiFunction<ICredential, Boolean, Boolean> complete = SessionRegistry.bindToScope(
+                (credential, valid) -> completeLogin(accessKey, password, credential, valid));
+        CompletableFuture<ICredential> candidate;
+        try {
+            candidate = CompletableFuture.supplyAsync(() -> loginCandidate(accessKey, allowed), LOGINS);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return candidate.thenCompose(credential -> credential == null
+                ? CompletableFuture.completedFuture(false)
+                : credential.isPasswordValidAsync(password)
+                .thenApplyAsync(valid -> complete.apply(credential, valid), LOGINS));
+    }
+
+    /**
+     * Returns the credential the password of an asynchronous login is verified against, or null if the user
+     * does not exist or may not log in.
+     */
+    private ICredential loginCandidate(String accessKey, Predicate<IUser> allowed) {
+        if (limiter.isLimited(accessKey))
+            return null;
+        return UnitOfWork.call(entityManager -> {
+            IUser user = identifyUser(accessKey);
+            if (user == null || !allowed.test(user) || !loginService.canLogInto(user))
+                return null;
+            return user.getCredential();
+        });
+    }
+
+    /**
+     * Completes an asynchronous login in a unit of work of its own, reading the user again. A credential changed
+     * since the password was verified fails the login.
+     */
+    private boolean completeLogin(String accessKey, String password, ICredential verified, boolean valid) {
+        return UnitOfWork.call(entityManager -> {
+            IUser user = identificationService.identifyUser(accessKey);
+            if (user == null || !user.getCredential().equals(verified))
+                return false;
+            return loginService.logInto(user, password, valid);
+        });
+    }
+
+    private static ThreadPoolExecutor loginExecutor() {
+        AtomicInteger threads = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(LOGIN_THREADS, LOGIN_THREADS, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(PasswordHashing.QUEUE_CAPACITY), runnable -> {
+            Thread thread = new Thread(runnable, "login-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private IUser identifyUser(String accessKey) {
+        IUser user = identificationService.identifyUser(accessKey);
+        if (user == null)
+            limiter.recordFailure(accessKey);
+        return user;
+    }
+
     public static IAuthenticationService authenticationServiceDefault() {
         return new AuthenticationService(identificationServiceDefault(), permissionServiceDefault(), LoginServiceDefault());
     }
@@ -6,6 +6,8 @@ import bll.exceptions.AccessDeniedException;
 import bll.exceptions.NullArgumentException;
 
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface IAuthenticationService {
 
@@ -32,6 +34,48 @@ public interface IAuthenticationService {
      */
     boolean authenticate(String accessKey, String password, ERole role);
 
+    /**
+     * Checks on the login threads if there is a user with the data informed, hashing the password on the
+     * password hashing pool, so the calling thread never waits for the login. The login acts on the session scope
+     * of the calling thread.
+     *
+     * @param accessKey from user.
+     * @param password  from user.
+     * @return {@code true} if the login was successful, completed on a login thread, or failed with
+     * {@link java.util.concurrent.RejectedExecutionException} if the logins or the hashes are saturated.
+     * @throws NullArgumentException if any of the parameters are null.
+     * @see #authenticate(String, String)
+     */
+    CompletableFuture<Boolean> authenticateAsync(String accessKey, String password);
+
+    /**
+     * Checks on the login threads if there is a user with the data informed, hashing the password on the
+     * password hashing pool, so the calling thread never waits for the login. The login acts on the session scope
+     * of the calling thread.
+     *
+     * @param accessKey from user.
+     * @param password  from user.
+     * @param role      from user.
+     * @return {@code true} if the login was successful, completed on a login thread, or failed with
+     * {@link java.util.concurrent.RejectedExecutionException} if the logins or the hashes are saturated.
+     * @throws NullArgumentException if any of the parameters are null.
+     * @see #authenticate(String, String, ERole)
+     */
+    CompletableFuture<Boolean> authenticateAsync(String accessKey, String password, ERole role);
+
+    /**
+     * Check if there is a user with the data informed and, if successful, opens a session of its own for the
+     * user, so many users can be logged in at once. Requests of the user then run inside
+     * {@link SessionRegistry#callAs(UUID, java.util.function.Supplier)} with the token returned.
+     *
+     * @param accessKey from user.
+     * @param password  from user.
+     * @return the token of the session or null if the login failed.
+     * @throws NullArgumentException if any of the parameters are null.
+     * @see #authenticate(String, String)
+     */
+    UUID openSession(String accessKey, String password);
+
     /**
      * Returns {@code true} if the user is a valid user on the system and has the necessary permissions.
      *
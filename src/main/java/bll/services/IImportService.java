@@ -0,0 +1,31 @@
+package bll.services;
+
+import bll.entities.IMovement;
+import bll.entities.IWallet;
+import bll.exceptions.AttemptedToUseExcludedMovementException;
+import bll.exceptions.ExistingMovementException;
+import bll.exceptions.NonExistentWalletException;
+import bll.exceptions.NullArgumentException;
+
+import java.util.Iterator;
+
+public interface IImportService {
+
+    /**
+     * Imports new movements into a wallet of the user in session, applying the rules of
+     * {@link IWallet#addMovement(IMovement)} to each of them.
+     * <p>
+     * The movements are read one at a time and written in batches, each in its own transaction, so the batches
+     * written before a movement is rejected are kept. The wallet in session is reloaded at the end.
+     *
+     * @param wallet    receiving the movements.
+     * @param movements to be imported.
+     * @return the number of movements imported.
+     * @throws NullArgumentException                   if any of the parameters are null.
+     * @throws NonExistentWalletException              if the wallet does not belong to the user in session.
+     * @throws ExistingMovementException               if a movement is repeated or already exists.
+     * @throws AttemptedToUseExcludedMovementException if a movement was removed from its wallet.
+     * @see IWallet#admitMovement(IMovement)
+     */
+    int importMovements(IWallet wallet, Iterator<? extends IMovement> movements);
+}
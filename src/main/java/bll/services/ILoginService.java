@@ -1,6 +1,8 @@
 package bll.services;
 
 import bll.entities.IUser;
+import bll.exceptions.AccessDeniedBlockedUserException;
+import bll.exceptions.AccessDeniedUnconfirmedEmailException;
 
 public interface ILoginService {
 
@@ -12,4 +14,26 @@ public interface ILoginService {
      * @return {@code true} if the login is successful.
      */
     boolean logInto(IUser user, String password);
+
+    /**
+     * Returns {@code true} if the user may try to log in, checking its states without verifying the password.
+     *
+     * @param user to be logged in.
+     * @return {@code true} if the user may try to log in.
+     * @throws AccessDeniedUnconfirmedEmailException if the email of the user is not confirmed.
+     * @throws AccessDeniedBlockedUserException      if the user is blocked.
+     */
+    boolean canLogInto(IUser user);
+
+    /**
+     * Returns {@code true} if the login is successful, with the password already verified against the
+     * credential of the user, such as on the password hashing pool.
+     *
+     * @param user          to be logged in.
+     * @param password      verified.
+     * @param passwordValid whether the password matches the credential of the user.
+     * @return {@code true} if the login is successful.
+     * @see #logInto(IUser, String)
+     */
+    boolean logInto(IUser user, String password, boolean passwordValid);
 }
@@ -5,8 +5,6 @@ import bll.exceptions.NullArgumentException;
 import bll.repositories.IUserRepository;
 import bll.repositories.UserRepository;
 
-import java.util.function.Predicate;
-
 public class IdentificationService implements IIdentificationService {
 
     private final IUserRepository userRepository;
@@ -21,9 +19,7 @@ public class IdentificationService implements IIdentificationService {
     public IUser identifyUser(String accessKey) {
         if (accessKey == null)
             throw new NullArgumentException();
-
-        Predicate<IUser> predicate = user -> user.getCredential().getAccessKeys().contains(accessKey);
-        return this.userRepository.getFirst(predicate);
+        return this.userRepository.getByAccessKey(accessKey);
     }
 
     @Override
@@ -0,0 +1,73 @@
+package bll.services;
+
+import bll.entities.IMovement;
+import bll.entities.IUser;
+import bll.entities.IWallet;
+import bll.exceptions.NonExistentWalletException;
+import bll.exceptions.NullArgumentException;
+import dal.infra.IDAO;
+import dal.infra.MovementImports;
+import dal.infra.WalletDAO;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class ImportService implements IImportService {
+    private final IDAO<IWallet> walletDAO;
+    private final int batchSize;
+
+    public ImportService(IDAO<IWallet> walletDAO, int batchSize) {
+        if (walletDAO == null)
+            throw new NullArgumentException();
+        if (batchSize < 1)
+            throw new IllegalArgumentException();
+        this.walletDAO = walletDAO;
+        this.batchSize = batchSize;
+    }
+
+    public static IImportService importServiceDefault() {
+        return new ImportService(WalletDAO.getInstance(), MovementImports.DEFAULT_BATCH_SIZE);
+    }
+
+    @Override
+    public int importMovements(IWallet wallet, Iterator<? extends IMovement> movements) {
+        if (wallet == null || movements == null)
+            throw new NullArgumentException();
+        IUser user = SessionService.getCurrentUser();
+        IWallet storedWallet = fetchWallet(user, wallet);
+        int imported = 0;
+        try {
+            List<IMovement> batch = new ArrayList<>(this.batchSize);
+            while (movements.hasNext()) {
+                batch.add(storedWallet.admitMovement(movements.next()));
+                if (batch.size() == this.batchSize) {
+                    MovementImports.insert(storedWallet.getID(), batch);
+                    imported += batch.size();
+                    batch.clear();
+                }
+            }
+            MovementImports.insert(storedWallet.getID(), batch);
+            imported += batch.size();
+        } finally {
+            if (imported > 0)
+                reload(user, storedWallet);
+        }
+        return imported;
+    }
+
+    private void reload(IUser user, IWallet wallet) {
+        IWallet current = this.walletDAO.select(wallet.getID());
+        if (current == null)
+            user.removeWallet(wallet);
+        else
+            user.updateWallet(current);
+    }
+
+    private static IWallet fetchWallet(IUser user, IWallet wallet) {
+        for (IWallet w : user.getWallets())
+            if (w.equals(wallet))
+                return w;
+        throw new NonExistentWalletException();
+    }
+}
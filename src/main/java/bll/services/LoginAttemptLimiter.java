@@ -0,0 +1,136 @@
+package bll.services;
+
+import bll.exceptions.NullArgumentException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the failed logins of each key, a user or an access key, over a sliding window, in memory.
+ * <p>
+ * Only the failures inside the window count, and keys whose failures all left the window are discarded.
+ * At most {@link #MAX_KEYS} keys are kept; the key used least recently is dropped first, so a burst of
+ * attempts with distinct access keys cannot exhaust the memory.
+ */
+public final class LoginAttemptLimiter {
+    public static final int MAX_ATTEMPTS = 3;
+    public static final Duration WINDOW = Duration.ofMinutes(15);
+    public static final int MAX_KEYS = 10_000;
+    private static final LoginAttemptLimiter INSTANCE =
+            new LoginAttemptLimiter(MAX_ATTEMPTS, WINDOW, MAX_KEYS, Clock.systemUTC());
+    private final int maxAttempts;
+    private final Duration window;
+    private final Clock clock;
+    private final LinkedHashMap<Object, Deque<Instant>> failures;
+
+    /**
+     * @throws NullArgumentException    if any of the parameters are null.
+     * @throws IllegalArgumentException if the attempts, the window or the number of keys is not positive.
+     */
+    public LoginAttemptLimiter(int maxAttempts, Duration window, int maxKeys, Clock clock) {
+        if (window == null || clock == null)
+            throw new NullArgumentException();
+        if (maxAttempts < 1 || maxKeys < 1 || window.isZero() || window.isNegative())
+            throw new IllegalArgumentException();
+        this.maxAttempts = maxAttempts;
+        this.window = window;
+        this.clock = clock;
+        this.failures = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Deque<Instant>> eldest) {
+                return size() > maxKeys;
+            }
+        };
+    }
+
+    /**
+     * Returns the limiter shared by the login services.
+     *
+     * @return the limiter shared by the login services.
+     */
+    public static LoginAttemptLimiter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records a failed login of the key.
+     *
+     * @param key that failed to log in.
+     * @return the number of failures of the key inside the window, this one included.
+     * @throws NullArgumentException if the parameter is null.
+     */
+    public synchronized int recordFailure(Object key) {
+        if (key == null)
+            throw new NullArgumentException();
+        Instant now = this.clock.instant();
+        Deque<Instant> attempts = this.failures.computeIfAbsent(key, (k) -> new ArrayDeque<>());
+        prune(attempts, now);
+        attempts.addLast(now);
+        while (attempts.size() > this.maxAttempts)
+            attempts.removeFirst();
+        return attempts.size();
+    }
+
+    /**
+     * Returns {@code true} if the key reached the maximum of failures inside the window.
+     *
+     * @param key to be checked.
+     * @return {@code true} if the key reached the maximum of failures inside the window.
+     * @throws NullArgumentException if the parameter is null.
+     */
+    public synchronized boolean isLimited(Object key) {
+        if (key == null)
+            throw new NullArgumentException();
+        Deque<Instant> attempts = this.failures.get(key);
+        if (attempts == null)
+            return false;
+        prune(attempts, this.clock.instant());
+        if (attempts.isEmpty())
+            this.failures.remove(key);
+        return attempts.size() >= this.maxAttempts;
+    }
+
+    /**
+     * Forgets the failures of the key, after it logged in or was blocked.
+     *
+     * @param key to be forgotten.
+     * @throws NullArgumentException if the parameter is null.
+     */
+    public synchronized void reset(Object key) {
+        if (key == null)
+            throw new NullArgumentException();
+        this.failures.remove(key);
+    }
+
+    /**
+     * Returns the number of keys with failures inside the window.
+     *
+     * @return the number of keys with failures inside the window.
+     */
+    public synchronized int size() {
+        expire(this.clock.instant());
+        return this.failures.size();
+    }
+
+    private void expire(Instant now) {
+        Iterator<Deque<Instant>> iterator = this.failures.values().iterator();
+        while (iterator.hasNext()) {
+            Deque<Instant> attempts = iterator.next();
+            prune(attempts, now);
+            if (attempts.isEmpty())
+                iterator.remove();
+        }
+    }
+
+    private void prune(Deque<Instant> attempts, Instant now) {
+        Instant start = now.minus(this.window);
+        while (!attempts.isEmpty() && !attempts.peekFirst().isAfter(start))
+            attempts.removeFirst();
+    }
+}
@@ -4,25 +4,49 @@ import bll.entities.IUser;
 import bll.enumerators.EUserState;
 import bll.exceptions.AccessDeniedBlockedUserException;
 import bll.exceptions.AccessDeniedUnconfirmedEmailException;
+import bll.exceptions.ConcurrentUpdateException;
 import bll.exceptions.NullArgumentException;
 import bll.repositories.UserRepository;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import static bll.enumerators.EUserState.*;
 
 public class LoginService implements ILoginService {
-    private static final int INVALID_ATTEMPTS_ALLOWED = 3;
+    private static final Logger LOGGER = Logger.getLogger(LoginService.class.getName());
+    private final LoginAttemptLimiter limiter;
 
-    private LoginService() {
+    public LoginService(LoginAttemptLimiter limiter) {
+        if (limiter == null)
+            throw new NullArgumentException();
+        this.limiter = limiter;
     }
 
     public static ILoginService LoginServiceDefault() {
-        return new LoginService();
+        return new LoginService(LoginAttemptLimiter.getInstance());
     }
 
+    /**
+     * Failed logins are counted in memory by the limiter, per user, and only the user blocked once the
+     * limiter reaches its maximum of failures is saved, before the login returns. The removal of the failed
+     * logins saved as states is left to the write-behind queue.
+     */
     @Override
     public boolean logInto(IUser user, String password) {
         if (user == null || password == null)
             throw new NullArgumentException();
+        if (!canLogInto(user))
+            return false;
+        return complete(user, password, user.getCredential().isPasswordValid(password));
+    }
+
+    @Override
+    public boolean canLogInto(IUser user) {
+        if (user == null)
+            throw new NullArgumentException();
 
         if (user.getUserStates().contains(WAITING_FOR_EMAIL_CONFIRMATION))
             throw new AccessDeniedUnconfirmedEmailException();
@@ -30,34 +54,61 @@ public class LoginService implements ILoginService {
         if (user.getUserStates().contains(BLOCKED_BY_MANY_INVALID_LOGIN_ATTEMPT))
             throw new AccessDeniedBlockedUserException();
 
-        if (user.getUserStates().contains(INACTIVE))
+        return !user.getUserStates().contains(INACTIVE);
+    }
+
+    @Override
+    public boolean logInto(IUser user, String password, boolean passwordValid) {
+        if (user == null || password == null)
+            throw new NullArgumentException();
+        if (!canLogInto(user))
             return false;
+        return complete(user, password, passwordValid);
+    }
 
-        if (user.getCredential().isPasswordValid(password)) {
-            removeAllInvalidLoginAttempts(user);
-            UserRepository.getInstance().update(user);
+    private boolean complete(IUser user, String password, boolean passwordValid) {
+        if (passwordValid) {
+            if (user.getCredential().needsRehash())
+                rehash(user, password);
+            this.limiter.reset(user.getID());
+            if (removeAllInvalidLoginAttempts(user))
+                UserRepository.getInstance().updateStates(user);
             SessionService.addUserInSession(user);
             return true;
         } else {
-            user.addUserState(INVALID_LOGIN_ATTEMPT);
-
-            int invalidAttempts = 0;
-            for (EUserState userState : user.getUserStates()) {
-                if (userState == INVALID_LOGIN_ATTEMPT)
-                    invalidAttempts++;
-            }
-            if (invalidAttempts == INVALID_ATTEMPTS_ALLOWED) {
+            this.limiter.recordFailure(user.getID());
+            if (this.limiter.isLimited(user.getID())) {
+                this.limiter.reset(user.getID());
                 removeAllInvalidLoginAttempts(user);
                 user.addUserState(BLOCKED_BY_MANY_INVALID_LOGIN_ATTEMPT);
+                UserRepository.getInstance().saveStates(user);
             }
-            UserRepository.getInstance().update(user);
             return false;
         }
     }
 
-    private void removeAllInvalidLoginAttempts(IUser user) {
-        while (user.getUserStates().contains(INVALID_LOGIN_ATTEMPT))
+    /**
+     * Hashes the verified password with the current parameters. A credential changed elsewhere in the meantime
+     * keeps its hash and is rehashed on a later login.
+     */
+    private void rehash(IUser user, String password) {
+        try {
+            user.getCredential().updatePassword(password);
+            UserRepository.getInstance().updateCredential(user);
+        } catch (ConcurrentUpdateException e) {
+            LOGGER.log(Level.FINE, "Rehash of the password of user " + user.getID() + " left to a later login", e);
+        }
+    }
+
+    /**
+     * Removes the failed logins saved as states of the user before they were counted in memory.
+     */
+    private boolean removeAllInvalidLoginAttempts(IUser user) {
+        List<EUserState> states = user.getUserStates();
+        int invalidAttempts = Collections.frequency(states, INVALID_LOGIN_ATTEMPT);
+        for (int i = 0; i < invalidAttempts; i++)
             user.removeUserState(INVALID_LOGIN_ATTEMPT);
+        return invalidAttempts > 0;
     }
 
 }
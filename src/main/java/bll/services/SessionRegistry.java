@@ -0,0 +1,300 @@
+package bll.services;
+
+import bll.entities.IUser;
+import bll.exceptions.NonExistentSessionException;
+import bll.exceptions.NullArgumentException;
+import bll.exceptions.SessionAlreadyHasUserException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Keeps the sessions of the users logged into the process, keyed by a random token, so one process serves many
+ * users at once.
+ * <p>
+ * A request runs inside the scope of its session, bound to the calling thread by {@link #callAs(UUID, Supplier)},
+ * and the static methods of {@link SessionService}, read by every repository and service, then act on that
+ * session. Outside a scope they act on the default session of the process, the one of the desktop application.
+ * A session is meant to serve one request at a time, since its user is shared by the requests of the session.
+ * <p>
+ * Opening the first session starts a daemon thread that closes the idle sessions every
+ * {@link #INACTIVITY_ALLOWED}, so sessions that are never used again do not stay in memory.
+ */
+public final class SessionRegistry {
+    public static final Duration INACTIVITY_ALLOWED = Duration.ofMinutes(1);
+    private static final Map<UUID, Session> SESSIONS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+    private static ScheduledExecutorService expiry;
+
+    private SessionRegistry() {
+    }
+
+    /**
+     * Opens a session for the user.
+     *
+     * @param user to be logged in.
+     * @return the token of the new session.
+     * @throws NullArgumentException if the parameter is null.
+     */
+    public static UUID open(IUser user) {
+        if (user == null)
+            throw new NullArgumentException();
+        Session session = new Session(user.clone());
+        SESSIONS.put(session.token, session);
+        startExpiry();
+        return session.token;
+    }
+
+    /**
+     * Returns the session of the token or null if it does not exist or expired, in which case it is closed.
+     *
+     * @param token of the session.
+     * @return the session of the token or null if it does not exist or expired.
+     * @throws NullArgumentException if the parameter is null.
+     */
+    public static Session get(UUID token) {
+        if (token == null)
+            throw new NullArgumentException();
+        Session session = SESSIONS.get(token);
+        if (session != null && !session.isValid()) {
+            SESSIONS.remove(token, session);
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * Closes the session of the token, if it exists.
+     *
+     * @param token of the session.
+     * @throws NullArgumentException if the parameter is null.
+     */
+    public static void close(UUID token) {
+        if (token == null)
+            throw new NullArgumentException();
+        SESSIONS.remove(token);
+    }
+
+    /**
+     * Closes the sessions without interactions for longer than the inactivity allowed.
+     *
+     * @param inactivity allowed.
+     * @return the number of sessions closed.
+     * @throws NullArgumentException if the parameter is null.
+     */
+    public static int expire(Duration inactivity) {
+        if (inactivity == null)
+            throw new NullArgumentException();
+        Instant now = Instant.now();
+        int expired = 0;
+        for (Session session : SESSIONS.values())
+            if (session.isIdle(inactivity, now) && SESSIONS.remove(session.token, session))
+                expired++;
+        return expired;
+    }
+
+    /**
+     * Returns the number of open sessions.
+     *
+     * @return the number of open sessions.
+     */
+    public static int size() {
+        return SESSIONS.size();
+    }
+
+    /**
+     * Runs the work inside the scope of the session of the token, on the calling thread.
+     *
+     * @param token of the session.
+     * @param work  to be executed.
+     * @param <R>   type of the result.
+     * @return the result of the work.
+     * @throws NullArgumentException       if any of the parameters are null.
+     * @throws NonExistentSessionException if the session does not exist or expired.
+     */
+    public static <R> R callAs(UUID token, Supplier<R> work) {
+        if (token == null || work == null)
+            throw new NullArgumentException();
+        Session session = get(token);
+        if (session == null)
+            throw new NonExistentSessionException();
+        session.touch();
+        return inScope(new Scope(session), work);
+    }
+
+    /**
+     * Runs the work inside the scope of the session of the token, on the calling thread.
+     *
+     * @param token of the session.
+     * @param work  to be executed.
+     * @throws NullArgumentException       if any of the parameters are null.
+     * @throws NonExistentSessionException if the session does not exist or expired.
+     * @see #callAs(UUID, Supplier)
+     */
+    public static void runAs(UUID token, Runnable work) {
+        if (work == null)
+            throw new NullArgumentException();
+        callAs(token, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a login inside a new scope, so the user it adds to the session gets a session of its own.
+     *
+     * @param login to be executed.
+     * @return the token of the session opened by the login or null if it failed.
+     * @throws NullArgumentException if the parameter is null.
+     */
+    public static UUID login(BooleanSupplier login) {
+        if (login == null)
+            throw new NullArgumentException();
+        Scope scope = new Scope(null);
+        boolean loggedIn = inScope(scope, login::getAsBoolean);
+        if (!loggedIn || scope.session == null) {
+            if (scope.session != null)
+                close(scope.session.token);
+            return null;
+        }
+        return scope.session.token;
+    }
+
+    /**
+     * Binds the work to the scope of the calling thread, so it acts on the same session when it runs on another
+     * thread. Outside a scope the work is returned as it is.
+     */
+    static <T, U, R> BiFunction<T, U, R> bindToScope(BiFunction<T, U, R> work) {
+        Scope scope = CURRENT.get();
+        if (scope == null)
+            return work;
+        return (first, second) -> inScope(scope, () -> work.apply(first, second));
+    }
+
+    /**
+     * Returns {@code true} if the calling thread runs inside the scope of a session.
+     */
+    static boolean isScoped() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Returns the session of the scope of the calling thread or null if it has none.
+     */
+    static Session current() {
+        Scope scope = CURRENT.get();
+        return scope == null ? null : scope.session;
+    }
+
+    /**
+     * Opens a session for the user in the scope of the calling thread.
+     *
+     * @throws SessionAlreadyHasUserException if the scope already has a session.
+     */
+    static void openInScope(IUser user) {
+        Scope scope = CURRENT.get();
+        if (scope.session != null)
+            throw new SessionAlreadyHasUserException();
+        scope.session = SESSIONS.get(open(user));
+    }
+
+    /**
+     * Closes the session of the scope of the calling thread.
+     */
+    static void closeInScope() {
+        Scope scope = CURRENT.get();
+        if (scope.session != null)
+            close(scope.session.token);
+        scope.session = null;
+    }
+
+    private static synchronized void startExpiry() {
+        if (expiry != null)
+            return;
+        expiry = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = INACTIVITY_ALLOWED.toMillis();
+        expiry.scheduleAtFixedRate(() -> expire(INACTIVITY_ALLOWED), period, period, MILLISECONDS);
+    }
+
+    private static <R> R inScope(Scope scope, Supplier<R> work) {
+        Scope previous = CURRENT.get();
+        CURRENT.set(scope);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null)
+                CURRENT.remove();
+            else
+                CURRENT.set(previous);
+        }
+    }
+
+    private static final class Scope {
+        private Session session;
+
+        private Scope(Session session) {
+            this.session = session;
+        }
+    }
+
+    /**
+     * Session of a logged in user, with the instant of its last interaction.
+     */
+    public static final class Session {
+        private final UUID token;
+        private final IUser user;
+        private volatile Instant lastInteraction;
+
+        Session(IUser user) {
+            this.token = UUID.randomUUID();
+            this.user = user;
+            this.lastInteraction = Instant.now();
+        }
+
+        public UUID getToken() {
+            return token;
+        }
+
+        public IUser getUser() {
+            return user;
+        }
+
+        public Instant getLastInteraction() {
+            return lastInteraction;
+        }
+
+        /**
+         * Records an interaction of the user.
+         */
+        public void touch() {
+            this.lastInteraction = Instant.now();
+        }
+
+        /**
+         * Returns {@code true} if the user interacted within the inactivity allowed.
+         *
+         * @return {@code true} if the user interacted within the inactivity allowed.
+         */
+        public boolean isValid() {
+            return !isIdle(INACTIVITY_ALLOWED, Instant.now());
+        }
+
+        private boolean isIdle(Duration inactivity, Instant now) {
+            return Duration.between(this.lastInteraction, now).compareTo(inactivity) > 0;
+        }
+    }
+}
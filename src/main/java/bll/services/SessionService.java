@@ -5,64 +5,66 @@ import bll.exceptions.NullArgumentException;
 import bll.exceptions.SessionAlreadyHasUserException;
 import bll.exceptions.NonExistentSessionException;
 
-import java.time.Duration;
-import java.time.Instant;
-
+/**
+ * Session of the user the calling thread works for: the session of the scope bound by
+ * {@link SessionRegistry#callAs(java.util.UUID, java.util.function.Supplier)} or, outside a scope, the default
+ * session of the process.
+ */
 public class SessionService {
-    private static final int INACTIVITY_ALLOWED_IN_MINUTES = 1;
-    private static final int SECONDS = 60;
-    private static SessionService INSTANCE;
-    private Instant lastInteraction;
-    private IUser currentUser;
+    private static SessionRegistry.Session defaultSession;
 
     private SessionService() {
-        this.lastInteraction = Instant.now();
     }
 
-    private static SessionService getInstance() {
-        if (INSTANCE == null) {
-            synchronized (SessionService.class) {
-                if (INSTANCE == null) {
-                    INSTANCE = new SessionService();
-                }
-            }
+    private static SessionRegistry.Session currentSession() {
+        if (SessionRegistry.isScoped())
+            return SessionRegistry.current();
+        synchronized (SessionService.class) {
+            return defaultSession;
         }
-        return INSTANCE;
-    }
-
-    private void keepsSessionActive() {
-        this.lastInteraction = Instant.now();
     }
 
     public static void killSession() {
-        INSTANCE = null;
+        if (SessionRegistry.isScoped()) {
+            SessionRegistry.closeInScope();
+            return;
+        }
+        synchronized (SessionService.class) {
+            defaultSession = null;
+        }
     }
 
     public static boolean isValid() {
-        if (getInstance().currentUser == null)
-            return false;
-        Duration interval = Duration.between(getInstance().lastInteraction, Instant.now());
-        return interval.getSeconds() <= (INACTIVITY_ALLOWED_IN_MINUTES * SECONDS);
+        SessionRegistry.Session session = currentSession();
+        return session != null && session.isValid();
     }
 
     public static void keepActive() {
-        if (getInstance().currentUser == null)
+        SessionRegistry.Session session = currentSession();
+        if (session == null)
             throw new NonExistentSessionException();
-        getInstance().keepsSessionActive();
+        session.touch();
     }
 
     public static IUser getCurrentUser() {
-        if (getInstance().currentUser == null)
+        SessionRegistry.Session session = currentSession();
+        if (session == null)
             throw new NonExistentSessionException();
-        getInstance().keepsSessionActive();
-        return getInstance().currentUser;
+        session.touch();
+        return session.getUser();
     }
 
     public static void addUserInSession(IUser user) {
         if (user == null)
             throw new NullArgumentException();
-        if (getInstance().currentUser != null)
-            throw new SessionAlreadyHasUserException();
-        getInstance().currentUser = user.clone();
+        if (SessionRegistry.isScoped()) {
+            SessionRegistry.openInScope(user);
+            return;
+        }
+        synchronized (SessionService.class) {
+            if (defaultSession != null)
+                throw new SessionAlreadyHasUserException();
+            defaultSession = new SessionRegistry.Session(user.clone());
+        }
     }
 }
@@ -0,0 +1,33 @@
+package bll.valueObjects;
+
+import java.io.Serializable;
+
+/**
+ * Interface {@code IPasswordHashParameters} represents the key derivation function and cost used to hash
+ * a password.
+ * <p>
+ * They are stored with every credential, so the cost can be tuned without invalidating the stored passwords.
+ */
+public interface IPasswordHashParameters extends Serializable {
+
+    /**
+     * Returns the name of the key derivation algorithm.
+     *
+     * @return the name of the key derivation algorithm.
+     */
+    String getAlgorithm();
+
+    /**
+     * Returns the number of iterations of the key derivation.
+     *
+     * @return the number of iterations of the key derivation.
+     */
+    int getIterationCount();
+
+    /**
+     * Returns the length of the derived key, in bits.
+     *
+     * @return the length of the derived key, in bits.
+     */
+    int getKeyLength();
+}
@@ -0,0 +1,91 @@
+package bll.valueObjects;
+
+import bll.exceptions.NullArgumentException;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.util.Objects;
+
+/**
+ * Implementation of the {@code IPasswordHashParameters} interface.
+ */
+@Embeddable
+@Immutable
+final public class PasswordHashParameters implements IPasswordHashParameters {
+    @Column(name = "hashAlgorithm")
+    private String algorithm;
+    @Column(name = "hashIterationCount")
+    private int iterationCount;
+    @Column(name = "hashKeyLength")
+    private int keyLength;
+
+    /**
+     * @throws NullArgumentException    if the algorithm is null.
+     * @throws IllegalArgumentException if the iteration count or the key length is not positive.
+     */
+    public PasswordHashParameters(String algorithm, int iterationCount, int keyLength) {
+        if (algorithm == null)
+            throw new NullArgumentException();
+        if (iterationCount < 1 || keyLength < 1)
+            throw new IllegalArgumentException();
+        this.algorithm = algorithm;
+        this.iterationCount = iterationCount;
+        this.keyLength = keyLength;
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return this.algorithm;
+    }
+
+    @Override
+    public int getIterationCount() {
+        return this.iterationCount;
+    }
+
+    @Override
+    public int getKeyLength() {
+        return this.keyLength;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PasswordHashParameters that = (PasswordHashParameters) o;
+        return iterationCount == that.iterationCount && keyLength == that.keyLength && algorithm.equals(that.algorithm);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(algorithm, iterationCount, keyLength);
+    }
+
+    @Override
+    public String toString() {
+        return "PasswordHashParameters{" +
+                "algorithm='" + algorithm + '\'' +
+                ", iterationCount=" + iterationCount +
+                ", keyLength=" + keyLength +
+                '}';
+    }
+
+    protected PasswordHashParameters() {
+    }
+
+    @SuppressWarnings("unused")
+    private void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    @SuppressWarnings("unused")
+    private void setIterationCount(int iterationCount) {
+        this.iterationCount = iterationCount;
+    }
+
+    @SuppressWarnings("unused")
+    private void setKeyLength(int keyLength) {
+        this.keyLength = keyLength;
+    }
+}
@@ -0,0 +1,135 @@
+package dal.infra;
+
+import bll.entities.Credential;
+import bll.entities.Movement;
+import bll.entities.User;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.collection.AbstractCollectionPersister;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deletes users and wallets with one set-based {@code DELETE} per table, children before parents, instead of
+ * loading every wallet and movement to cascade the removal one row at a time.
+ * <p>
+ * Bulk deletes of an entity clear its join tables but not its element collections, whose rows are deleted
+ * first with statements built from the mapping. The statements run in the transaction of the caller and
+ * bypass the persistence context, so callers must not keep managed instances of the deleted rows.
+ * Soft-deleted movements are deleted as well.
+ */
+final class BulkDeletes {
+
+    private BulkDeletes() {
+    }
+
+    /**
+     * Deletes a user with its credential, wallets, movements, payees and categories.
+     *
+     * @param entityManager of the current transaction.
+     * @param userID        identifier of the user.
+     */
+    static void deleteUser(EntityManager entityManager, UUID userID) {
+        SoftDeletes.includingInactive(() -> {
+            List<UUID> wallets = entityManager.createQuery(
+                            "select w.ID from Wallet w where w.userID = :user", UUID.class)
+                    .setParameter("user", userID)
+                    .getResultList();
+            List<UUID> credentials = entityManager.createQuery(
+                            "select u.credential.ID from User u where u.ID = :user", UUID.class)
+                    .setParameter("user", userID)
+                    .getResultList();
+
+            for (UUID walletID : wallets)
+                deleteWalletRows(entityManager, walletID);
+            delete(entityManager, "delete from Payee p where p.userID = :user", "user", userID);
+            delete(entityManager, "delete from MovementCategory m where m.id in " +
+                    "(select c.id from User u join u.categories c where u.ID = :user)", "user", userID);
+            deleteElementCollections(entityManager, User.class, "ID", userID);
+            delete(entityManager, "delete from User u where u.ID = :user", "user", userID);
+            for (UUID credentialID : credentials) {
+                deleteElementCollections(entityManager, Credential.class, "ID", credentialID);
+                delete(entityManager, "delete from Credential c where c.ID = :credential", "credential", credentialID);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Deletes movements with their element collections, whatever their state.
+     *
+     * @param entityManager of the current transaction.
+     * @param movementIDs   identifiers of the movements.
+     */
+    static void deleteMovements(EntityManager entityManager, Collection<UUID> movementIDs) {
+        if (movementIDs.isEmpty())
+            return;
+        SoftDeletes.includingInactive(() -> {
+            deleteElementCollections(entityManager, Movement.class, "ID", movementIDs);
+            delete(entityManager, "delete from Movement m where m.ID in :ids", "ids", movementIDs);
+            return null;
+        });
+    }
+
+    /**
+     * Deletes a wallet with its movements, archives, tombstones and monthly summaries.
+     *
+     * @param entityManager of the current transaction.
+     * @param walletID      identifier of the wallet.
+     */
+    static void deleteWallet(EntityManager entityManager, UUID walletID) {
+        SoftDeletes.includingInactive(() -> {
+            deleteWalletRows(entityManager, walletID);
+            return null;
+        });
+    }
+
+    private static void deleteWalletRows(EntityManager entityManager, UUID walletID) {
+        List<UUID> payeeFormats = entityManager.createQuery(
+                        "select w.payeeFormat.id from Wallet w where w.ID = :wallet", UUID.class)
+                .setParameter("wallet", walletID)
+                .getResultList();
+
+        delete(entityManager, "delete from WalletMonthSummary s where s.walletID = :wallet", "wallet", walletID);
+        deleteElementCollections(entityManager, MovementArchive.class, "walletID", walletID);
+        delete(entityManager, "delete from MovementArchive a where a.walletID = :wallet", "wallet", walletID);
+        delete(entityManager, "delete from MovementTombstone t where t.walletID = :wallet", "wallet", walletID);
+        deleteElementCollections(entityManager, Movement.class, "walletID", walletID);
+        delete(entityManager, "delete from Movement m where m.walletID = :wallet", "wallet", walletID);
+        delete(entityManager, "delete from Wallet w where w.ID = :wallet", "wallet", walletID);
+        if (!payeeFormats.isEmpty())
+            delete(entityManager, "delete from Payee p where p.id in :ids", "ids", payeeFormats);
+    }
+
+    /**
+     * Deletes the element collection rows of the entities whose property has the value, or one of the values
+     * of a collection.
+     */
+    private static void deleteElementCollections(EntityManager entityManager, Class<?> owner, String property,
+                                                 Object value) {
+        SessionFactoryImplementor factory = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class);
+        AbstractEntityPersister entity = (AbstractEntityPersister) factory.getMetamodel().entityPersister(owner);
+        String owners = "select " + entity.getIdentifierColumnNames()[0] + " from " + entity.getTableName() +
+                " where " + entity.getPropertyColumnNames(property)[0] +
+                (value instanceof Collection ? " in (:value)" : " = :value");
+        for (CollectionPersister collection : factory.getMetamodel().collectionPersisters().values()) {
+            if (!collection.getOwnerEntityPersister().equals(entity) || collection.isOneToMany() ||
+                    collection.isManyToMany())
+                continue;
+            AbstractCollectionPersister table = (AbstractCollectionPersister) collection;
+            entityManager.createNativeQuery("delete from " + table.getTableName() + " where " +
+                            table.getKeyColumnNames()[0] + " in (" + owners + ")")
+                    .setParameter("value", value)
+                    .executeUpdate();
+        }
+    }
+
+    private static void delete(EntityManager entityManager, String statement, String parameter, Object value) {
+        entityManager.createQuery(statement).setParameter(parameter, value).executeUpdate();
+    }
+}
@@ -0,0 +1,51 @@
+package dal.infra;
+
+import bll.enumerators.EOperationType;
+import bll.projections.MonthlyTotal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Aggregates the movements of a wallet in the database, returning one {@link MonthlyTotal} per month, type
+ * and state instead of the movements themselves.
+ */
+public class CashFlowDAO {
+
+    /**
+     * Returns the monthly totals of the active movements of a wallet, archived ones included, which are read
+     * from the totals saved with their archives.
+     *
+     * @param walletID identifier of the wallet.
+     * @return the monthly totals, empty if the wallet has no movements.
+     */
+    public List<MonthlyTotal> selectMonthlyTotals(UUID walletID) {
+        return UnitOfWork.call(entityManager -> {
+            List<MonthlyTotal> totals = new ArrayList<>(entityManager.createQuery(
+                    "select new bll.projections.MonthlyTotal(m.dueMonth, m.accomplishMonth, m.movementType, " +
+                            "m.accomplished, sum(m.amount)) from Movement m where m.walletID = :wallet " +
+                            "group by m.dueMonth, m.accomplishMonth, m.movementType, m.accomplished",
+                            MonthlyTotal.class)
+                    .setParameter("wallet", walletID)
+                    .getResultList());
+            for (Object[] row : entityManager.createQuery(
+                            "select t.dueMonth, t.accomplishMonth, t.movementType, sum(t.amount) " +
+                                    "from MovementArchive a join a.totals t where a.walletID = :wallet " +
+                                    "group by t.dueMonth, t.accomplishMonth, t.movementType", Object[].class)
+                    .setParameter("wallet", walletID)
+                    .getResultList())
+                totals.add(new MonthlyTotal((Integer) row[0], (Integer) row[1], (EOperationType) row[2], true,
+                        (BigDecimal) row[3]));
+            return totals;
+        });
+    }
+
+    public static CashFlowDAO getInstance() {
+        return new CashFlowDAO();
+    }
+
+    private CashFlowDAO() {
+    }
+}
@@ -0,0 +1,25 @@
+package dal.infra;
+
+import bll.projections.CategorySummary;
+
+import java.util.List;
+
+/**
+ * Read-only queries that select only the columns of {@link CategorySummary}.
+ */
+public class CategorySummaryDAO {
+
+    public List<CategorySummary> selectPublic() {
+        return UnitOfWork.call(entityManager -> entityManager.createQuery(
+                "select new bll.projections.CategorySummary(m.id, m.name) from MovementCategory m " +
+                        "where m.publicCategory = true order by lower(m.name)",
+                CategorySummary.class).getResultList());
+    }
+
+    public static CategorySummaryDAO getInstance() {
+        return new CategorySummaryDAO();
+    }
+
+    private CategorySummaryDAO() {
+    }
+}
@@ -0,0 +1,101 @@
+package dal.infra;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the metrics of the HikariCP connection pools.
+ * <p>
+ * HikariCP instantiates this class from the {@code hibernate.hikari.metricsTrackerFactory} property
+ * of the persistence unit, and every pool it creates is then readable through {@link #getPoolMetrics(String)}.
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+    private static final Map<String, Tracker> TRACKERS = new ConcurrentHashMap<>();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        Tracker tracker = new Tracker(poolName, poolStats);
+        TRACKERS.put(poolName, tracker);
+        return tracker;
+    }
+
+    /**
+     * Returns the current metrics of a pool or null if no pool with that name is running.
+     *
+     * @param poolName name of the pool.
+     * @return the current metrics of a pool or null if no pool with that name is running.
+     */
+    public static PoolMetrics getPoolMetrics(String poolName) {
+        Tracker tracker = TRACKERS.get(poolName);
+        return tracker == null ? null : tracker.snapshot();
+    }
+
+    /**
+     * Returns the current metrics of every running pool.
+     *
+     * @return the current metrics of every running pool.
+     */
+    public static List<PoolMetrics> getAllPoolMetrics() {
+        List<PoolMetrics> metrics = new ArrayList<>();
+        for (Tracker tracker : TRACKERS.values())
+            metrics.add(tracker.snapshot());
+        return metrics;
+    }
+
+    private static final class Tracker implements IMetricsTracker {
+        private final String poolName;
+        private final PoolStats poolStats;
+        private final LatencyHistogram acquireTime;
+        private final LatencyHistogram usageTime;
+        private final LatencyHistogram creationTime;
+        private final LongAdder timeouts;
+
+        private Tracker(String poolName, PoolStats poolStats) {
+            this.poolName = poolName;
+            this.poolStats = poolStats;
+            this.acquireTime = new LatencyHistogram();
+            this.usageTime = new LatencyHistogram();
+            this.creationTime = new LatencyHistogram();
+            this.timeouts = new LongAdder();
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            this.creationTime.record(connectionCreatedMillis * 1_000_000);
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            this.acquireTime.record(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            this.usageTime.record(elapsedBorrowedMillis * 1_000_000);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            this.timeouts.increment();
+        }
+
+        @Override
+        public void close() {
+            TRACKERS.remove(this.poolName, this);
+        }
+
+        private PoolMetrics snapshot() {
+            return new PoolMetrics(this.poolName,
+                    this.poolStats.getActiveConnections(), this.poolStats.getIdleConnections(),
+                    this.poolStats.getPendingThreads(), this.poolStats.getMaxConnections(),
+                    this.timeouts.sum(), this.acquireTime, this.usageTime, this.creationTime);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package dal.infra;
+
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+
+/**
+ * Support for entities enhanced at build time with in-line dirty tracking.
+ * <p>
+ * An enhanced entity records the attributes written since it was loaded or flushed, and {@code merge} copies
+ * that record from the detached instance to the managed one instead of comparing snapshots. A copy built by
+ * a constructor writes every attribute, so it must inherit the record of its source, otherwise merging it
+ * would update every column.
+ */
+public final class DirtyTracking {
+
+    private DirtyTracking() {
+    }
+
+    /**
+     * Replaces the dirty attributes of a copy with the ones of its source.
+     * Has no effect on classes that were not enhanced.
+     *
+     * @param source the original entity.
+     * @param copy   a copy of the original entity.
+     * @param <T>    type of the entity.
+     * @return the copy.
+     */
+    public static <T> T copyOf(Object source, T copy) {
+        if (source instanceof SelfDirtinessTracker && copy instanceof SelfDirtinessTracker) {
+            SelfDirtinessTracker tracker = (SelfDirtinessTracker) copy;
+            tracker.$$_hibernate_clearDirtyAttributes();
+            for (String attribute : ((SelfDirtinessTracker) source).$$_hibernate_getDirtyAttributes())
+                tracker.$$_hibernate_trackChange(attribute);
+        }
+        return copy;
+    }
+}
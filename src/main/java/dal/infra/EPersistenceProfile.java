@@ -0,0 +1,60 @@
+package dal.infra;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Database behind the {@code PFM-PU} persistence unit.
+ * <p>
+ * The profile is chosen at startup with the {@code pfm.persistence.profile} system property,
+ * e.g. {@code -Dpfm.persistence.profile=embedded}; without it the SQL Server configured in
+ * {@code persistence.xml} is used.
+ */
+public enum EPersistenceProfile {
+    /**
+     * The SQL Server instance configured in {@code persistence.xml}.
+     */
+    SQL_SERVER,
+    /**
+     * An H2 database running inside the application in SQL Server compatibility mode.
+     * Its location can be changed with the {@code pfm.persistence.embedded.url} system property
+     * and its schema is created or updated on startup.
+     */
+    EMBEDDED;
+
+    public static final String PROFILE_PROPERTY = "pfm.persistence.profile";
+    public static final String EMBEDDED_URL_PROPERTY = "pfm.persistence.embedded.url";
+    private static final String DEFAULT_EMBEDDED_URL = "jdbc:h2:./pfm;MODE=MSSQLServer";
+
+    /**
+     * Returns the properties that override the {@code persistence.xml} configuration for this profile.
+     *
+     * @return the properties that override the {@code persistence.xml} configuration for this profile.
+     */
+    public Map<String, Object> getProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        if (this == EMBEDDED) {
+            properties.put("javax.persistence.jdbc.url", System.getProperty(EMBEDDED_URL_PROPERTY, DEFAULT_EMBEDDED_URL));
+            properties.put("javax.persistence.jdbc.user", "sa");
+            properties.put("javax.persistence.jdbc.password", "");
+            properties.put("javax.persistence.jdbc.driver", "org.h2.Driver");
+            properties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+            properties.put("hibernate.hbm2ddl.auto", "update");
+        }
+        return properties;
+    }
+
+    /**
+     * Returns the profile selected by the {@code pfm.persistence.profile} system property.
+     *
+     * @return the selected profile, {@link #SQL_SERVER} if none is selected.
+     * @throws IllegalArgumentException if the property names an unknown profile.
+     */
+    public static EPersistenceProfile current() {
+        String profile = System.getProperty(PROFILE_PROPERTY);
+        if (profile == null || profile.isBlank())
+            return SQL_SERVER;
+        return valueOf(profile.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
@@ -7,26 +7,34 @@ import static javax.persistence.Persistence.createEntityManagerFactory;
 
 public class EntityManagerSingleton {
     private final EntityManagerFactory factory;
-    private final EntityManager entityManager;
-    private static EntityManagerSingleton INSTANCE;
+    private static volatile EntityManagerSingleton INSTANCE;
 
     private EntityManagerSingleton() {
-        this.factory = createEntityManagerFactory("PFM-PU");
-        this.entityManager = this.factory.createEntityManager();
+        this.factory = createEntityManagerFactory("PFM-PU", EPersistenceProfile.current().getProperties());
     }
 
     private void close() {
-        this.entityManager.close();
         this.factory.close();
     }
 
-    public static EntityManager getEntityManager() {
-        return getInstance().entityManager;
+    /**
+     * Returns a new {@code EntityManager}, which hides soft-deleted rows and the settled movements of the previous
+     * years of each wallet; callers own it and must close it.
+     * Prefer {@link UnitOfWork}, which manages this lifecycle.
+     *
+     * @return a new {@code EntityManager}.
+     */
+    static EntityManager createEntityManager() {
+        return MovementHistory.showRecent(SoftDeletes.hideInactive(getInstance().factory.createEntityManager()));
     }
 
     public static void closingEntityManager() {
-        getInstance().close();
-        INSTANCE = null;
+        WriteBehindQueue.flush();
+        synchronized (EntityManagerSingleton.class) {
+            if (INSTANCE != null)
+                INSTANCE.close();
+            INSTANCE = null;
+        }
     }
 
     private static EntityManagerSingleton getInstance() {
@@ -0,0 +1,157 @@
+package dal.infra;
+
+import org.hibernate.Hibernate;
+import org.hibernate.StaleStateException;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.Status;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+
+import javax.persistence.EntityManager;
+import javax.persistence.OptimisticLockException;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Optimistic concurrency control for detached entities.
+ * <p>
+ * The application keeps detached copies of its entities, such as the user in session, and writes them
+ * back with {@code merge}, which rejects a copy whose version is behind the database. After a commit the
+ * versions written by the transaction are copied back into the detached graphs registered with
+ * {@link #refreshOnCommit(Object)}, so the same copy can be written again.
+ */
+public final class EntityVersions {
+    private static final ThreadLocal<List<Object>> ROOTS = ThreadLocal.withInitial(ArrayList::new);
+    private static final ThreadLocal<Map<EntityKey, Object>> INCREMENTED = ThreadLocal.withInitial(HashMap::new);
+
+    private EntityVersions() {
+    }
+
+    /**
+     * Registers a detached entity whose graph receives the versions committed by the current transaction.
+     *
+     * @param root detached entity.
+     */
+    public static void refreshOnCommit(Object root) {
+        ROOTS.get().add(root);
+    }
+
+    /**
+     * Increments the version of a detached entity in the database, provided it is still the version of the copy.
+     * The increment conflicts with every other writer of the same entity until the transaction ends,
+     * without reading the entity or blocking writers of other entities.
+     * The entity itself must not be written by the same transaction.
+     *
+     * @param entityManager of the current transaction.
+     * @param detached      versioned entity.
+     * @throws OptimisticLockException if the entity was changed or removed since the copy was read.
+     */
+    public static void lock(EntityManager entityManager, Object detached) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = persisterOf(session, detached);
+        if (persister == null || !persister.isVersioned())
+            throw new IllegalArgumentException(detached.getClass().getName() + " is not a versioned entity");
+        Object id = persister.getIdentifier(detached, session);
+        long version = (Long) persister.getVersion(detached);
+        String versionName = persister.getPropertyNames()[persister.getVersionProperty()];
+        int updated = entityManager.createQuery("update " + persister.getEntityName() + " e set e." + versionName +
+                        " = e." + versionName + " + 1 where e." + persister.getIdentifierPropertyName() +
+                        " = :id and e." + versionName + " = :version")
+                .setParameter("id", id)
+                .setParameter("version", version)
+                .executeUpdate();
+        if (updated == 0)
+            throw new OptimisticLockException(null, null, detached);
+        INCREMENTED.get().put(session.generateEntityKey((Serializable) id, persister), version + 1);
+    }
+
+    /**
+     * Checks that a detached copy is of the version of its managed instance.
+     *
+     * @param entityManager managing the entity.
+     * @param detached      copy of the entity.
+     * @param managed       managed instance of the same entity.
+     * @throws OptimisticLockException if the entity was changed since the copy was read.
+     */
+    public static void verify(EntityManager entityManager, Object detached, Object managed) {
+        EntityPersister persister = persisterOf(entityManager.unwrap(SessionImplementor.class), managed);
+        if (persister != null && persister.isVersioned() &&
+                !Objects.equals(persister.getVersion(detached), persister.getVersion(managed)))
+            throw new OptimisticLockException(null, null, detached);
+    }
+
+    /**
+     * Returns {@code true} if the exception, or any of its causes, reports a write over a newer version.
+     *
+     * @param exception thrown by a write.
+     * @return {@code true} if the exception reports a concurrent update.
+     */
+    public static boolean isConflict(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause())
+            if (cause instanceof OptimisticLockException || cause instanceof StaleStateException)
+                return true;
+        return false;
+    }
+
+    /**
+     * Copies the versions of the entities managed by a committed transaction into the registered graphs.
+     */
+    static void committed(EntityManager entityManager) {
+        try {
+            SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+            Map<EntityKey, Object> versions = new HashMap<>();
+            for (Map.Entry<Object, EntityEntry> managed : session.getPersistenceContext().reentrantSafeEntityEntries()) {
+                EntityEntry entry = managed.getValue();
+                if (entry.getStatus() == Status.MANAGED && entry.getPersister().isVersioned())
+                    versions.put(entry.getEntityKey(), entry.getVersion());
+            }
+            versions.putAll(INCREMENTED.get());
+            Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Object root : ROOTS.get())
+                refresh(session, root, versions, visited);
+        } finally {
+            discard();
+        }
+    }
+
+    static void discard() {
+        ROOTS.remove();
+        INCREMENTED.remove();
+    }
+
+    private static void refresh(SessionImplementor session, Object root, Map<EntityKey, Object> versions,
+                                Set<Object> visited) {
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Object entity = pending.pop();
+            EntityPersister persister = persisterOf(session, entity);
+            if (persister == null || !visited.add(entity))
+                continue;
+            if (persister.isVersioned()) {
+                Object id = persister.getIdentifier(entity, session);
+                Object version = id == null ? null : versions.get(session.generateEntityKey((Serializable) id, persister));
+                if (version != null)
+                    persister.setPropertyValue(entity, persister.getVersionProperty(), version);
+            }
+            Type[] types = persister.getPropertyTypes();
+            Object[] values = persister.getPropertyValues(entity);
+            for (int i = 0; i < types.length; i++) {
+                if (values[i] == null || !Hibernate.isInitialized(values[i]))
+                    continue;
+                if (types[i].isEntityType())
+                    pending.push(values[i]);
+                else if (types[i].isCollectionType() && values[i] instanceof Collection)
+                    for (Object element : (Collection<?>) values[i])
+                        if (element != null)
+                            pending.push(element);
+            }
+        }
+    }
+
+    private static EntityPersister persisterOf(SessionImplementor session, Object entity) {
+        return session.getFactory().getMetamodel().entityPersisters().get(entity.getClass().getName());
+    }
+}
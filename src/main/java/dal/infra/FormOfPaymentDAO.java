@@ -8,21 +8,20 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
-import static dal.infra.EntityManagerSingleton.getEntityManager;
 import static dal.infra.IDAO.executeInsideTransaction;
 
 public class FormOfPaymentDAO implements IDAO<IFormOfPayment> {
     @Override
     public List<IFormOfPayment> select(String query) {
-        List<IFormOfPayment> formOfPayments;
-        TypedQuery<FormOfPayment> typedQuery = getEntityManager().createQuery(query, FormOfPayment.class);
-        formOfPayments = new ArrayList<>(typedQuery.getResultList());
-        return formOfPayments;
+        return OperationLog.measure(query, () -> UnitOfWork.call(entityManager -> {
+            TypedQuery<FormOfPayment> typedQuery = entityManager.createQuery(query, FormOfPayment.class);
+            return new ArrayList<>(typedQuery.getResultList());
+        }));
     }
 
     @Override
     public IFormOfPayment select(UUID id) {
-        return getEntityManager().find(FormOfPayment.class, id);
+        return UnitOfWork.call(entityManager -> entityManager.find(FormOfPayment.class, id));
     }
 
     @Override
@@ -32,12 +31,16 @@ public class FormOfPaymentDAO implements IDAO<IFormOfPayment> {
 
     @Override
     public void update(IFormOfPayment element) {
-        executeInsideTransaction(entityManager -> entityManager.merge(element));
+        executeInsideTransaction(entityManager -> {
+            entityManager.merge(element);
+            EntityVersions.refreshOnCommit(element);
+        });
     }
 
     @Override
     public void delete(IFormOfPayment element) {
-        executeInsideTransaction(entityManager -> entityManager.remove(element));
+        executeInsideTransaction(entityManager ->
+                entityManager.remove(entityManager.contains(element) ? element : entityManager.merge(element)));
     }
 
     private FormOfPaymentDAO() {
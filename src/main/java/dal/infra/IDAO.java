@@ -2,12 +2,12 @@ package dal.infra;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityTransaction;
+import javax.persistence.Query;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.function.Consumer;
 
-import static dal.infra.EntityManagerSingleton.getEntityManager;
-
 public interface IDAO<T> {
 
     List<T> select(String query);
@@ -20,16 +20,42 @@ public interface IDAO<T> {
 
     void delete(T element);
 
+    /**
+     * Returns {@code true} if the query selects at least one row. Only the first row is fetched.
+     *
+     * @param query      to be executed.
+     * @param parameters named parameters of the query.
+     * @return {@code true} if the query selects at least one row.
+     */
+    static boolean exists(String query, Map<String, ?> parameters) {
+        return UnitOfWork.call(entityManager -> {
+            Query existence = entityManager.createQuery(query).setMaxResults(1);
+            parameters.forEach(existence::setParameter);
+            return !existence.getResultList().isEmpty();
+        });
+    }
+
 
     static void executeInsideTransaction(Consumer<EntityManager> action) {
-        EntityTransaction transaction = getEntityManager().getTransaction();
-        try {
-            transaction.begin();
-            action.accept(getEntityManager());
-            transaction.commit();
-        } catch (RuntimeException e) {
-            transaction.rollback();
-            throw e;
-        }
+        UnitOfWork.run(entityManager -> {
+            EntityTransaction transaction = entityManager.getTransaction();
+            if (transaction.isActive()) {
+                action.accept(entityManager);
+                return;
+            }
+            try {
+                EntityVersions.discard();
+                transaction.begin();
+                action.accept(entityManager);
+                transaction.commit();
+                EntityVersions.committed(entityManager);
+                OperationLog.transactionCommitted();
+            } catch (RuntimeException e) {
+                EntityVersions.discard();
+                if (transaction.isActive())
+                    transaction.rollback();
+                throw e;
+            }
+        });
     }
 }
@@ -0,0 +1,32 @@
+package dal.infra;
+
+import bll.entities.IUser;
+import bll.entities.User;
+
+import java.util.List;
+
+/**
+ * Finds the user that logs in with an access key in a single statement, fetching together what a login reads:
+ * the credential with its access keys, the states and the roles.
+ */
+public class LoginDAO {
+
+    public IUser selectByAccessKey(String accessKey) {
+        return UnitOfWork.call(entityManager -> {
+            List<User> users = entityManager.createQuery(
+                            "select distinct u from User u join fetch u.credential c join fetch c.accessKeys " +
+                                    "left join fetch u.userStates left join fetch u.roles " +
+                                    "where :accessKey member of c.accessKeys", User.class)
+                    .setParameter("accessKey", accessKey)
+                    .getResultList();
+            return users.isEmpty() ? null : users.get(0);
+        });
+    }
+
+    public static LoginDAO getInstance() {
+        return new LoginDAO();
+    }
+
+    private LoginDAO() {
+    }
+}
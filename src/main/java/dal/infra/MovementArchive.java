@@ -0,0 +1,157 @@
+package dal.infra;
+
+import bll.enumerators.EOperationType;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.CollectionTable;
+import javax.persistence.Column;
+import javax.persistence.ElementCollection;
+import javax.persistence.Embeddable;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.JoinColumn;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Settled movements of a wallet in one closed year, moved out of the movement table by {@link MovementArchives}.
+ * <p>
+ * The movements are kept as a compressed payload in the format of {@link MovementArchiveFormat}, read whole,
+ * together with their count, the sum of their amounts, the carry-forward of the year, and their totals per due
+ * month, accomplish month and type in {@code movement_archive_total}, which the cash flows and the monthly
+ * summaries read instead of the payload. Rows are written once and never updated.
+ */
+@Entity
+@Immutable
+@Table(name = "movement_archive")
+@IdClass(MovementArchive.Key.class)
+public class MovementArchive {
+    @Id
+    @Column(name = "wallet")
+    private UUID walletID;
+    @Id
+    @Column(name = "archiveYear")
+    private int year;
+    private int movementCount;
+    @Column(nullable = false)
+    private BigDecimal settledAmount;
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;
+    @ElementCollection
+    @CollectionTable(name = "movement_archive_total", joinColumns = {
+            @JoinColumn(name = "wallet", referencedColumnName = "wallet"),
+            @JoinColumn(name = "archiveYear", referencedColumnName = "archiveYear")})
+    private List<Total> totals;
+
+    MovementArchive(UUID walletID, int year, int movementCount, BigDecimal settledAmount, byte[] payload,
+                    List<Total> totals) {
+        this.walletID = walletID;
+        this.year = year;
+        this.movementCount = movementCount;
+        this.settledAmount = settledAmount;
+        this.payload = payload;
+        this.totals = new ArrayList<>(totals);
+    }
+
+    protected MovementArchive() {
+    }
+
+    public UUID getWalletID() {
+        return this.walletID;
+    }
+
+    public Year getYear() {
+        return Year.of(this.year);
+    }
+
+    public int getMovementCount() {
+        return this.movementCount;
+    }
+
+    public BigDecimal getSettledAmount() {
+        return this.settledAmount;
+    }
+
+    byte[] getPayload() {
+        return this.payload;
+    }
+
+    @Override
+    public String toString() {
+        return "MovementArchive{" +
+                "walletID=" + walletID +
+                ", year=" + year +
+                ", movementCount=" + movementCount +
+                ", settledAmount=" + settledAmount +
+                ", payload=" + payload.length + " bytes" +
+                '}';
+    }
+
+    /**
+     * Number and sum of the amounts of the archived movements that share their due month, accomplish month and
+     * type. Months are keys built by {@link bll.entities.ICashFlow#MONTH_KEY}.
+     */
+    @Embeddable
+    public static class Total {
+        private int dueMonth;
+        private int accomplishMonth;
+        @Column(nullable = false)
+        private EOperationType movementType;
+        private int movementCount;
+        @Column(nullable = false)
+        private BigDecimal amount;
+
+        Total(int dueMonth, int accomplishMonth, EOperationType movementType) {
+            this.dueMonth = dueMonth;
+            this.accomplishMonth = accomplishMonth;
+            this.movementType = movementType;
+            this.amount = BigDecimal.ZERO;
+        }
+
+        protected Total() {
+        }
+
+        void add(BigDecimal amount) {
+            this.movementCount++;
+            this.amount = this.amount.add(amount);
+        }
+    }
+
+    /**
+     * Identifier of an archive, the wallet and the year.
+     */
+    public static class Key implements Serializable {
+        private UUID walletID;
+        private int year;
+
+        public Key(UUID walletID, int year) {
+            this.walletID = walletID;
+            this.year = year;
+        }
+
+        protected Key() {
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return year == key.year && walletID.equals(key.walletID);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(walletID, year);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package dal.infra;
+
+import bll.entities.FormOfPayment;
+import bll.entities.IMovement;
+import bll.entities.Movement;
+import bll.entities.MovementCategory;
+import bll.entities.Payee;
+import bll.enumerators.EOperationType;
+import bll.enumerators.ERepetitionFrequency;
+import bll.valueObjects.Attachment;
+import bll.valueObjects.IAttachment;
+import dal.converters.ERepetitionFrequencyConverter;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding of the payload of a {@link MovementArchive}, independent of the classes of the movements.
+ * <p>
+ * The payload is a GZIP stream of the fields below, written with {@link DataOutputStream}: identifiers as two
+ * longs, the most significant first, dates as epoch days, amounts as the plain string of the decimal and text
+ * in modified UTF-8.
+ * <pre>
+ * int     version, {@value #VERSION}
+ * int     number of movements
+ * per movement:
+ *   UUID    identifier
+ *   UUID    group identifier
+ *   UTF     name
+ *   UTF     description
+ *   UTF     amount, signed as stored
+ *   UTF     type, the name of its {@link EOperationType}
+ *   int     repetition frequency, the identifier stored in the movement table
+ *   long    due date
+ *   long    accomplish date
+ *   long    registration date
+ *   UUID    form of payment
+ *   UUID    payee
+ *   UUID    category
+ *   int     number of attachments, followed by the URI of each one as UTF
+ * </pre>
+ * The form of payment, payee and category are kept by identifier and read from their tables, where they are
+ * never deleted while the wallet exists. A later version of the layout must keep reading the earlier ones.
+ */
+final class MovementArchiveFormat {
+    static final int VERSION = 1;
+    private static final ERepetitionFrequencyConverter FREQUENCIES = new ERepetitionFrequencyConverter();
+
+    private MovementArchiveFormat() {
+    }
+
+    /**
+     * Encodes settled movements.
+     *
+     * @param movements settled movements.
+     * @return the payload of the movements.
+     * @throws IllegalStateException if the payload cannot be written.
+     */
+    static byte[] encode(List<IMovement> movements) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(VERSION);
+            out.writeInt(movements.size());
+            for (IMovement movement : movements) {
+                writeUUID(out, movement.getID());
+                writeUUID(out, movement.getGroupID());
+                out.writeUTF(movement.getName());
+                out.writeUTF(movement.getDescription());
+                out.writeUTF(movement.getAmount().toPlainString());
+                out.writeUTF((movement.isCredit() ? EOperationType.CREDIT : EOperationType.DEBIT).name());
+                out.writeInt(FREQUENCIES.convertToDatabaseColumn(movement.getRepetitionFrequency()));
+                out.writeLong(movement.getDueDate().toEpochDay());
+                out.writeLong(movement.getAccomplishDate().toEpochDay());
+                out.writeLong(movement.getRegistrationDate().toEpochDay());
+                writeUUID(out, movement.getFormOfPayment().getID());
+                writeUUID(out, movement.getPayee().getID());
+                writeUUID(out, movement.getCategory().getID());
+                out.writeInt(movement.getAttachments().size());
+                for (IAttachment attachment : movement.getAttachments())
+                    out.writeUTF(attachment.getURI());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes the settled movements of a wallet, reading their forms of payment, payees and categories.
+     *
+     * @param entityManager of the current unit of work.
+     * @param walletID      identifier of the wallet.
+     * @param payload       written by {@link #encode(List)}.
+     * @return the settled movements.
+     * @throws IllegalStateException if the payload is not readable or a reference no longer exists.
+     */
+    static List<IMovement> decode(EntityManager entityManager, UUID walletID, byte[] payload) {
+        List<Row> rows = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(payload)))) {
+            int version = in.readInt();
+            if (version != VERSION)
+                throw new IllegalStateException("Unknown movement archive version " + version);
+            for (int i = in.readInt(); i > 0; i--)
+                rows.add(new Row(in));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        Map<UUID, FormOfPayment> formsOfPayment = find(entityManager, FormOfPayment.class, FormOfPayment::getID,
+                rows, (row) -> row.formOfPayment);
+        Map<UUID, Payee> payees = find(entityManager, Payee.class, Payee::getID, rows, (row) -> row.payee);
+        Map<UUID, MovementCategory> categories = find(entityManager, MovementCategory.class,
+                MovementCategory::getID, rows, (row) -> row.category);
+        List<IMovement> movements = new ArrayList<>(rows.size());
+        for (Row row : rows)
+            movements.add(Movement.restore(row.id, walletID, row.name, row.description, row.amount, row.dueDate,
+                    reference(formsOfPayment, row.formOfPayment), reference(payees, row.payee),
+                    reference(categories, row.category), row.attachments, row.type, row.frequency, row.groupID,
+                    row.registrationDate, row.accomplishDate));
+        return movements;
+    }
+
+    /**
+     * Reads the referenced rows of a table, inactive ones included, keyed by identifier.
+     */
+    private static <T> Map<UUID, T> find(EntityManager entityManager, Class<T> entity, Function<T, UUID> id,
+                                         List<Row> rows, Function<Row, UUID> reference) {
+        Set<UUID> ids = new HashSet<>();
+        for (Row row : rows)
+            ids.add(reference.apply(row));
+        Map<UUID, T> found = new HashMap<>();
+        if (!ids.isEmpty())
+            for (T element : SoftDeletes.includingInactive(() -> entityManager.createQuery(
+                            "select e from " + entity.getSimpleName() + " e where e.id in :ids", entity)
+                    .setParameter("ids", ids)
+                    .getResultList()))
+                found.put(id.apply(element), element);
+        return found;
+    }
+
+    private static <R> R reference(Map<UUID, R> found, UUID id) {
+        R reference = found.get(id);
+        if (reference == null)
+            throw new IllegalStateException("Archived movement references a missing row " + id);
+        return reference;
+    }
+
+    private static void writeUUID(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readUUID(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    /**
+     * Fields of one archived movement, as read from the payload.
+     */
+    private static final class Row {
+        private final UUID id;
+        private final UUID groupID;
+        private final String name;
+        private final String description;
+        private final BigDecimal amount;
+        private final EOperationType type;
+        private final ERepetitionFrequency frequency;
+        private final LocalDate dueDate;
+        private final LocalDate accomplishDate;
+        private final LocalDate registrationDate;
+        private final UUID formOfPayment;
+        private final UUID payee;
+        private final UUID category;
+        private final Set<IAttachment> attachments = new HashSet<>();
+
+        private Row(DataInputStream in) throws IOException {
+            this.id = readUUID(in);
+            this.groupID = readUUID(in);
+            this.name = in.readUTF();
+            this.description = in.readUTF();
+            this.amount = new BigDecimal(in.readUTF());
+            this.type = EOperationType.valueOf(in.readUTF());
+            this.frequency = FREQUENCIES.convertToEntityAttribute(in.readInt());
+            this.dueDate = LocalDate.ofEpochDay(in.readLong());
+            this.accomplishDate = LocalDate.ofEpochDay(in.readLong());
+            this.registrationDate = LocalDate.ofEpochDay(in.readLong());
+            this.formOfPayment = readUUID(in);
+            this.payee = readUUID(in);
+            this.category = readUUID(in);
+            for (int i = in.readInt(); i > 0; i--)
+                this.attachments.add(new Attachment(in.readUTF()));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package dal.infra;
+
+import bll.entities.IMovement;
+import bll.entities.Movement;
+import bll.enumerators.EOperationType;
+import bll.exceptions.NullArgumentException;
+
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static bll.entities.ICashFlow.MONTH_KEY;
+
+/**
+ * Moves the settled movements of closed years out of the movement table into the {@code movement_archive} table,
+ * one compressed row per wallet and year.
+ * <p>
+ * A settled movement is never edited again, and no confirmation can settle a movement in a past year, so the
+ * archive of a year is final. Wallets keep their opening balances, which come from the monthly summaries, and
+ * {@link MovementHistory#selectSettled(UUID, int, int)}, the cash flows and {@link WalletMonthSummaries#rebuild()}
+ * read the archive together with the live movements, so the older years a wallet loads on demand include the
+ * archived ones. Archiving a wallet increments its version, so copies that loaded the archived movements must
+ * be reloaded before they are written again.
+ */
+public final class MovementArchives {
+    private static final Logger LOGGER = Logger.getLogger(MovementArchives.class.getName());
+
+    private MovementArchives() {
+    }
+
+    /**
+     * Returns the archives of a wallet, ordered by year.
+     *
+     * @param walletID identifier of the wallet.
+     * @return the archives of the wallet.
+     */
+    public static List<MovementArchive> select(UUID walletID) {
+        return UnitOfWork.call(entityManager -> entityManager.createQuery(
+                        "select a from MovementArchive a where a.walletID = :wallet order by a.year",
+                        MovementArchive.class)
+                .setParameter("wallet", walletID)
+                .getResultList());
+    }
+
+    /**
+     * Archives the movements settled before a year, one wallet per transaction. Years after the current one are
+     * not closed and are never archived.
+     *
+     * @param before first year to be kept in the movement table.
+     * @return the number of movements archived.
+     * @throws NullArgumentException if the parameter is null.
+     */
+    public static int archive(Year before) {
+        if (before == null)
+            throw new NullArgumentException();
+        int until = MONTH_KEY.applyAsInt((before.isAfter(Year.now()) ? Year.now() : before).atMonth(1));
+        List<UUID> wallets = UnitOfWork.call(entityManager -> entityManager.createQuery(
+                        "select distinct m.walletID from Movement m where m.accomplished = true " +
+                                "and m.dueMonth < :until and m.accomplishMonth < :until", UUID.class)
+                .setParameter("until", until)
+                .getResultList());
+        int archived = 0;
+        for (UUID walletID : wallets)
+            archived += archive(walletID, until);
+        return archived;
+    }
+
+    /**
+     * Archives the movements settled before the current year.
+     *
+     * @param args optionally, the first year to be kept in the movement table.
+     */
+    public static void main(String[] args) {
+        try {
+            Year before = args.length > 0 ? Year.parse(args[0]) : Year.now();
+            LOGGER.info("Archived " + archive(before) + " movements settled before " + before);
+        } finally {
+            EntityManagerSingleton.closingEntityManager();
+        }
+    }
+
+    /**
+     * Returns the archived movements of a wallet settled in a range of months.
+     */
+    static List<IMovement> selectSettled(EntityManager entityManager, UUID walletID, int from, int until) {
+        List<IMovement> settled = new ArrayList<>();
+        for (MovementArchive archive : entityManager.createQuery(
+                        "select a from MovementArchive a where a.walletID = :wallet " +
+                                "and a.year >= :fromYear and a.year <= :untilYear", MovementArchive.class)
+                .setParameter("wallet", walletID)
+                .setParameter("fromYear", from / 100)
+                .setParameter("untilYear", (until - 1) / 100)
+                .getResultList())
+            for (IMovement movement : unpack(entityManager, archive)) {
+                int month = MovementHistory.settledMonth(movement);
+                if (month >= from && month < until)
+                    settled.add(movement);
+            }
+        return settled;
+    }
+
+    private static List<IMovement> unpack(EntityManager entityManager, MovementArchive archive) {
+        return MovementArchiveFormat.decode(entityManager, archive.getWalletID(), archive.getPayload());
+    }
+
+    private static int archive(UUID walletID, int until) {
+        int[] archived = {0};
+        IDAO.executeInsideTransaction(entityManager -> {
+            Map<Integer, List<IMovement>> years = new TreeMap<>();
+            List<UUID> ids = new ArrayList<>();
+            for (Movement movement : entityManager.createQuery(
+                            "select distinct m from Movement m left join fetch m.attachments " +
+                                    "where m.walletID = :wallet and m.accomplished = true " +
+                                    "and m.dueMonth < :until and m.accomplishMonth < :until", Movement.class)
+                    .setParameter("wallet", walletID)
+                    .setParameter("until", until)
+                    .getResultList()) {
+                years.computeIfAbsent(MovementHistory.settledMonth(movement) / 100, (year) -> new ArrayList<>())
+                        .add(movement.clone());
+                ids.add(movement.getID());
+            }
+            if (ids.isEmpty())
+                return;
+
+            for (Map.Entry<Integer, List<IMovement>> year : years.entrySet()) {
+                List<IMovement> movements = year.getValue();
+                MovementArchive previous = entityManager.find(MovementArchive.class,
+                        new MovementArchive.Key(walletID, year.getKey()));
+                if (previous != null) {
+                    movements.addAll(unpack(entityManager, previous));
+                    entityManager.remove(previous);
+                    entityManager.flush();
+                }
+                BigDecimal settledAmount = BigDecimal.ZERO;
+                for (IMovement movement : movements)
+                    settledAmount = settledAmount.add(movement.getAmount());
+                entityManager.persist(new MovementArchive(walletID, year.getKey(), movements.size(), settledAmount,
+                        MovementArchiveFormat.encode(movements), totals(movements)));
+            }
+            entityManager.flush();
+            BulkDeletes.deleteMovements(entityManager, ids);
+            entityManager.createQuery("update Wallet w set w.version = w.version + 1 where w.ID = :wallet")
+                    .setParameter("wallet", walletID)
+                    .executeUpdate();
+            archived[0] = ids.size();
+        });
+        return archived[0];
+    }
+
+    /**
+     * Returns the totals of settled movements per due month, accomplish month and type.
+     */
+    private static List<MovementArchive.Total> totals(List<IMovement> movements) {
+        Map<List<Object>, MovementArchive.Total> totals = new LinkedHashMap<>();
+        for (IMovement movement : movements) {
+            int dueMonth = MONTH_KEY.applyAsInt(YearMonth.from(movement.getDueDate()));
+            int accomplishMonth = MONTH_KEY.applyAsInt(YearMonth.from(movement.getAccomplishDate()));
+            EOperationType type = movement.isCredit() ? EOperationType.CREDIT : EOperationType.DEBIT;
+            totals.computeIfAbsent(List.of(dueMonth, accomplishMonth, type),
+                            (key) -> new MovementArchive.Total(dueMonth, accomplishMonth, type))
+                    .add(movement.getAmount());
+        }
+        return new ArrayList<>(totals.values());
+    }
+}
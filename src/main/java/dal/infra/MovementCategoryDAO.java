@@ -8,22 +8,21 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
-import static dal.infra.EntityManagerSingleton.getEntityManager;
 import static dal.infra.IDAO.executeInsideTransaction;
 
 public class MovementCategoryDAO implements IDAO<IMovementCategory> {
 
     @Override
     public List<IMovementCategory> select(String query) {
-        List<IMovementCategory> movementCategories;
-        TypedQuery<MovementCategory> typedQuery = getEntityManager().createQuery(query, MovementCategory.class);
-        movementCategories = new ArrayList<>(typedQuery.getResultList());
-        return movementCategories;
+        return OperationLog.measure(query, () -> UnitOfWork.call(entityManager -> {
+            TypedQuery<MovementCategory> typedQuery = entityManager.createQuery(query, MovementCategory.class);
+            return new ArrayList<>(typedQuery.getResultList());
+        }));
     }
 
     @Override
     public IMovementCategory select(UUID id) {
-        return getEntityManager().find(MovementCategory.class, id);
+        return UnitOfWork.call(entityManager -> entityManager.find(MovementCategory.class, id));
     }
 
     @Override
@@ -33,12 +32,16 @@ public class MovementCategoryDAO implements IDAO<IMovementCategory> {
 
     @Override
     public void update(IMovementCategory element) {
-        executeInsideTransaction(entityManager -> entityManager.merge(element));
+        executeInsideTransaction(entityManager -> {
+            entityManager.merge(element);
+            EntityVersions.refreshOnCommit(element);
+        });
     }
 
     @Override
     public void delete(IMovementCategory element) {
-        executeInsideTransaction(entityManager -> entityManager.remove(element));
+        executeInsideTransaction(entityManager ->
+                entityManager.remove(entityManager.contains(element) ? element : entityManager.merge(element)));
     }
 
     private MovementCategoryDAO() {
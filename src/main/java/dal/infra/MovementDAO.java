@@ -0,0 +1,53 @@
+package dal.infra;
+
+import bll.entities.IMovement;
+import bll.entities.Movement;
+
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static dal.infra.IDAO.executeInsideTransaction;
+
+public class MovementDAO implements IDAO<IMovement> {
+
+    @Override
+    public List<IMovement> select(String query) {
+        return OperationLog.measure(query, () -> UnitOfWork.call(entityManager -> {
+            TypedQuery<Movement> typedQuery = entityManager.createQuery(query, Movement.class);
+            return new ArrayList<>(typedQuery.getResultList());
+        }));
+    }
+
+    @Override
+    public IMovement select(UUID id) {
+        return UnitOfWork.call(entityManager -> entityManager.find(Movement.class, id));
+    }
+
+    @Override
+    public void create(IMovement element) {
+        executeInsideTransaction(entityManager -> entityManager.persist(element));
+    }
+
+    @Override
+    public void update(IMovement element) {
+        executeInsideTransaction(entityManager -> {
+            entityManager.merge(element);
+            EntityVersions.refreshOnCommit(element);
+        });
+    }
+
+    @Override
+    public void delete(IMovement element) {
+        executeInsideTransaction(entityManager ->
+                entityManager.remove(entityManager.contains(element) ? element : entityManager.merge(element)));
+    }
+
+    private MovementDAO() {
+    }
+
+    public static IDAO<IMovement> getInstance() {
+        return new MovementDAO();
+    }
+}
@@ -0,0 +1,87 @@
+package dal.infra;
+
+import bll.entities.IMovement;
+import bll.entities.Movement;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static bll.entities.ICashFlow.MONTH_KEY;
+
+/**
+ * Splits the movements of a wallet in year slices, so loading a wallet does not load its whole history.
+ * <p>
+ * Every entity manager opened for a {@link UnitOfWork} enables the {@value #FILTER} filter, which restricts
+ * the movements loaded with a wallet to the current year and to the movements still to be accomplished.
+ * The settled movements of the previous years, accomplished and due before the current year, are replaced by
+ * the {@link #OPENING_BALANCE opening balance} of the year, the sum of the settled amounts kept in the
+ * {@code wallet_month_summary} table, so balances from the current year on need none of them.
+ * Older slices are read on demand with {@link #selectSettled(UUID, int, int)}, from the movement table and
+ * from the {@link MovementArchives archive}, by the wallet itself when a query reaches before its loaded
+ * history.
+ * The current year is the one of the database clock, the same for the filter and the formulas.
+ */
+public final class MovementHistory {
+    public static final String FILTER = "recent";
+    public static final String HORIZON = "YEAR(GETDATE())";
+    public static final String CONDITION = "(accomplished = 0 or dueMonth >= " + HORIZON + " * 100 + 1 or " +
+            "accomplishMonth >= " + HORIZON + " * 100 + 1)";
+    public static final String OPENING_BALANCE = "(select coalesce(sum(s.settledAmount), 0) " +
+            "from wallet_month_summary s where s.wallet = ID and s.summaryMonth < " + HORIZON + " * 100 + 1)";
+
+    private MovementHistory() {
+    }
+
+    /**
+     * Returns the active movements of a wallet settled in a range of months, that is, accomplished with both
+     * the due and the accomplish months before the end of the range and at least one of them in the range.
+     * Archived movements are included.
+     *
+     * @param walletID identifier of the wallet.
+     * @param from     first month of the range, as a month key.
+     * @param until    month after the range, as a month key.
+     * @return the movements settled in the range.
+     */
+    public static List<IMovement> selectSettled(UUID walletID, int from, int until) {
+        return UnitOfWork.call(entityManager -> {
+            List<IMovement> settled = new ArrayList<>(entityManager.createQuery(
+                            "select distinct m from Movement m left join fetch m.attachments " +
+                                    "where m.walletID = :wallet and m.accomplished = true " +
+                                    "and m.dueMonth < :until and m.accomplishMonth < :until " +
+                                    "and (m.dueMonth >= :from or m.accomplishMonth >= :from)", Movement.class)
+                    .setParameter("wallet", walletID)
+                    .setParameter("from", from)
+                    .setParameter("until", until)
+                    .getResultList());
+            settled.addAll(MovementArchives.selectSettled(entityManager, walletID, from, until));
+            return settled;
+        });
+    }
+
+    /**
+     * Returns the month a movement is settled, the last of its due and accomplish months, after which it only
+     * counts in the opening balances. Movements still to be accomplished are never settled.
+     *
+     * @param movement to be classified.
+     * @return the settled month key, or {@code null} if the movement is not accomplished.
+     */
+    static Integer settledMonth(IMovement movement) {
+        if (!movement.isAccomplished() || movement.getAccomplishDate() == null)
+            return null;
+        return Math.max(monthKey(movement.getDueDate()), monthKey(movement.getAccomplishDate()));
+    }
+
+    static EntityManager showRecent(EntityManager entityManager) {
+        entityManager.unwrap(Session.class).enableFilter(FILTER);
+        return entityManager;
+    }
+
+    private static int monthKey(LocalDate date) {
+        return MONTH_KEY.applyAsInt(YearMonth.from(date));
+    }
+}
@@ -0,0 +1,78 @@
+package dal.infra;
+
+import bll.entities.IMovement;
+import bll.exceptions.AttemptedToUseExcludedMovementException;
+import bll.exceptions.ExistingMovementException;
+import bll.exceptions.NonExistentWalletException;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static dal.infra.IDAO.exists;
+
+/**
+ * Writes new movements of a wallet in batches, bypassing the persistence context.
+ * <p>
+ * Each batch is one transaction: the movements are inserted through a {@link StatelessSession} sharing the
+ * connection of the transaction, so they are sent in JDBC batches and never kept in memory, and the monthly
+ * summaries and the version of the wallet are moved in the same transaction. Movements with attachments go
+ * through the entity manager, since a stateless session does not write collections.
+ */
+public final class MovementImports {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private MovementImports() {
+    }
+
+    /**
+     * Inserts new movements of a wallet in a single transaction. The movements must already have passed the
+     * rules of the wallet.
+     *
+     * @param walletID  identifier of the wallet holding the movements.
+     * @param movements new movements of the wallet.
+     * @throws NonExistentWalletException              if the wallet does not exist.
+     * @throws ExistingMovementException               if a movement is repeated or already exists.
+     * @throws AttemptedToUseExcludedMovementException if a movement was removed from its wallet.
+     */
+    public static void insert(UUID walletID, List<? extends IMovement> movements) {
+        if (movements.isEmpty())
+            return;
+        Set<UUID> ids = new HashSet<>();
+        for (IMovement movement : movements)
+            if (!ids.add(movement.getID()))
+                throw new ExistingMovementException();
+
+        IDAO.executeInsideTransaction(entityManager -> {
+            if (MovementTombstones.isExcluded(ids))
+                throw new AttemptedToUseExcludedMovementException();
+            if (exists("select m.ID from Movement m where m.ID in :ids", Map.of("ids", ids)))
+                throw new ExistingMovementException();
+            if (entityManager.createQuery("update Wallet w set w.version = w.version + 1 where w.ID = :wallet")
+                    .setParameter("wallet", walletID)
+                    .executeUpdate() == 0)
+                throw new NonExistentWalletException();
+
+            Session session = entityManager.unwrap(Session.class);
+            session.doWork(connection -> {
+                try (StatelessSession statelessSession = session.getSessionFactory().openStatelessSession(connection)) {
+                    for (IMovement movement : movements)
+                        if (movement.getAttachments().isEmpty())
+                            statelessSession.insert(movement);
+                    ((SharedSessionContractImplementor) statelessSession).getJdbcCoordinator().executeBatch();
+                }
+            });
+            for (IMovement movement : movements)
+                if (!movement.getAttachments().isEmpty())
+                    entityManager.persist(movement);
+            WalletMonthSummaries.record(walletID, List.of(), movements);
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+}
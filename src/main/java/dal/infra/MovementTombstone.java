@@ -0,0 +1,41 @@
+package dal.infra;
+
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.util.UUID;
+
+/**
+ * Identifier of an inactive movement removed by {@link MovementTombstones#compact(java.time.Period, int)},
+ * kept so the movement is still recognized as excluded.
+ */
+@Entity
+@Immutable
+@Table(name = "movement_tombstone", indexes = @Index(name = "index_movement_tombstone_wallet", columnList = "wallet"))
+public class MovementTombstone {
+    @Id
+    @Column(name = "movement")
+    private UUID movementID;
+    @Column(name = "wallet", nullable = false)
+    private UUID walletID;
+
+    MovementTombstone(UUID movementID, UUID walletID) {
+        this.movementID = movementID;
+        this.walletID = walletID;
+    }
+
+    protected MovementTombstone() {
+    }
+
+    public UUID getMovementID() {
+        return this.movementID;
+    }
+
+    public UUID getWalletID() {
+        return this.walletID;
+    }
+}
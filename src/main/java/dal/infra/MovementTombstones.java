@@ -0,0 +1,108 @@
+package dal.infra;
+
+import bll.exceptions.NullArgumentException;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static dal.infra.IDAO.exists;
+
+/**
+ * Compacts the movement table by removing the inactive movements whose retention expired, leaving only their
+ * identifiers in the {@code movement_tombstone} table.
+ * <p>
+ * Inactive movements contribute nothing to balances and summaries, so removing them changes no totals.
+ * Writers of new movements check {@link #isExcluded(Collection)}, so a removed movement, inactive or compacted,
+ * can never be added again.
+ */
+public final class MovementTombstones {
+    private static final Logger LOGGER = Logger.getLogger(MovementTombstones.class.getName());
+    public static final Period DEFAULT_RETENTION = Period.ofDays(90);
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private MovementTombstones() {
+    }
+
+    /**
+     * Tells whether one of the movements was removed from its wallet, that is, is inactive or was compacted.
+     *
+     * @param movementIDs identifiers of the movements.
+     * @return {@code true} if one of the movements was removed.
+     */
+    public static boolean isExcluded(Collection<UUID> movementIDs) {
+        if (movementIDs.isEmpty())
+            return false;
+        Map<String, ?> parameters = Map.of("ids", movementIDs);
+        return SoftDeletes.includingInactive(() -> exists(
+                "select m.ID from Movement m where m.ID in :ids and m.active = false", parameters)) ||
+                exists("select t.movementID from MovementTombstone t where t.movementID in :ids", parameters);
+    }
+
+    /**
+     * Removes the inactive movements of every wallet inactivated before the retention, one batch per transaction.
+     * Movements inactivated before their date was recorded are removed as well.
+     *
+     * @param retention time an inactive movement is kept.
+     * @param batchSize maximum number of movements removed per transaction.
+     * @return the number of movements removed.
+     * @throws NullArgumentException    if the retention is null.
+     * @throws IllegalArgumentException if the batch size is not positive.
+     */
+    public static int compact(Period retention, int batchSize) {
+        if (retention == null)
+            throw new NullArgumentException();
+        if (batchSize < 1)
+            throw new IllegalArgumentException();
+        LocalDate cutoff = LocalDate.now().minus(retention);
+        int compacted = 0;
+        int batch;
+        do {
+            batch = compactBatch(cutoff, batchSize);
+            compacted += batch;
+        } while (batch == batchSize);
+        return compacted;
+    }
+
+    /**
+     * Compacts the inactive movements with the default retention and batch size.
+     *
+     * @param args optionally, the retention in days and the batch size.
+     */
+    public static void main(String[] args) {
+        try {
+            Period retention = args.length > 0 ? Period.ofDays(Integer.parseInt(args[0])) : DEFAULT_RETENTION;
+            int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_BATCH_SIZE;
+            LOGGER.info("Compacted " + compact(retention, batchSize) + " inactive movements");
+        } finally {
+            EntityManagerSingleton.closingEntityManager();
+        }
+    }
+
+    private static int compactBatch(LocalDate cutoff, int batchSize) {
+        int[] compacted = {0};
+        IDAO.executeInsideTransaction(entityManager -> {
+            List<Object[]> rows = SoftDeletes.includingInactive(() -> entityManager.createQuery(
+                            "select m.ID, m.walletID from Movement m where m.active = false " +
+                                    "and (m.inactivationDate is null or m.inactivationDate < :cutoff) order by m.ID",
+                            Object[].class)
+                    .setParameter("cutoff", cutoff)
+                    .setMaxResults(batchSize)
+                    .getResultList());
+            List<UUID> ids = new ArrayList<>();
+            for (Object[] row : rows) {
+                ids.add((UUID) row[0]);
+                entityManager.persist(new MovementTombstone((UUID) row[0], (UUID) row[1]));
+            }
+            entityManager.flush();
+            BulkDeletes.deleteMovements(entityManager, ids);
+            compacted[0] = ids.size();
+        });
+        return compacted[0];
+    }
+}
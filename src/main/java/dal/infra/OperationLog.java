@@ -0,0 +1,256 @@
+package dal.infra;
+
+import bll.exceptions.NullArgumentException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Times the database operations and keeps a latency histogram per operation, writing the operations slower
+ * than a threshold to a dedicated rolling log.
+ * <p>
+ * An operation is the outermost measured call on a thread: a unit of work, which every DAO call and transaction
+ * opens, or a {@code select(String)} of a DAO, named after its query. Nested calls are part of the enclosing
+ * operation, so a transaction is measured as a whole, with every statement it prepared. A slow entry carries
+ * the duration, the statements prepared, the rows returned, whether a transaction was committed and the
+ * repository or service method that called it.
+ * <p>
+ * The threshold is read from the {@value #THRESHOLD_PROPERTY} system property, in milliseconds, and the log
+ * file pattern from {@value #FILE_PROPERTY}, with the placeholders of {@link FileHandler}.
+ */
+public final class OperationLog {
+    public static final String THRESHOLD_PROPERTY = "pfm.operationLog.thresholdMillis";
+    public static final String FILE_PROPERTY = "pfm.operationLog.file";
+    public static final Duration DEFAULT_THRESHOLD = Duration.ofMillis(500);
+    public static final String DEFAULT_FILE = "%t/pfm-slow-operations%g.log";
+    private static final int FILE_LIMIT = 10 * 1024 * 1024;
+    private static final int FILE_COUNT = 5;
+    private static final int MAX_OPERATIONS = 1000;
+    private static final String OTHER_OPERATIONS = "(other)";
+    private static final Logger LOGGER = Logger.getLogger(OperationLog.class.getName());
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Measurement> CURRENT = new ThreadLocal<>();
+    private static volatile Duration threshold = Duration.ofMillis(
+            Long.getLong(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD.toMillis()));
+    private static FileHandler fileHandler;
+
+    private OperationLog() {
+    }
+
+    /**
+     * Runs an operation and measures it, unless it is nested in another measured operation.
+     *
+     * @param operation name of the operation, the query for queries.
+     * @param work      to be executed.
+     * @param <R>       type of the result.
+     * @return the result of the work.
+     */
+    public static <R> R measure(String operation, Supplier<R> work) {
+        if (CURRENT.get() != null)
+            return work.get();
+
+        Measurement measurement = new Measurement();
+        CURRENT.set(measurement);
+        Object[] result = new Object[1];
+        RuntimeException[] failure = new RuntimeException[1];
+        long start = System.nanoTime();
+        try {
+            measurement.statements = StatementRecorder.record(() -> {
+                try {
+                    result[0] = work.get();
+                } catch (RuntimeException e) {
+                    failure[0] = e;
+                }
+            });
+        } finally {
+            CURRENT.remove();
+        }
+        long elapsed = System.nanoTime() - start;
+        record(operation == null ? caller(false) : operation, elapsed, measurement, result[0], failure[0] != null);
+        if (failure[0] != null)
+            throw failure[0];
+        @SuppressWarnings("unchecked")
+        R value = (R) result[0];
+        return value;
+    }
+
+    /**
+     * Runs an operation named after the method that called the database layer.
+     *
+     * @see #measure(String, Supplier)
+     */
+    static <R> R measure(Supplier<R> work) {
+        return measure(null, work);
+    }
+
+    /**
+     * Marks the operation in progress on the current thread as having committed a transaction.
+     */
+    static void transactionCommitted() {
+        Measurement measurement = CURRENT.get();
+        if (measurement != null)
+            measurement.transaction = true;
+    }
+
+    /**
+     * Returns the latency histogram of an operation or null if it was never measured.
+     *
+     * @param operation name of the operation.
+     * @return the latency histogram of an operation or null if it was never measured.
+     */
+    public static LatencyHistogram getHistogram(String operation) {
+        return HISTOGRAMS.get(operation);
+    }
+
+    /**
+     * Returns the names of the measured operations.
+     *
+     * @return the names of the measured operations.
+     */
+    public static Set<String> getOperations() {
+        return Set.copyOf(HISTOGRAMS.keySet());
+    }
+
+    /**
+     * Returns the duration above which an operation is written to the log.
+     *
+     * @return the duration above which an operation is written to the log.
+     */
+    public static Duration getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Changes the duration above which an operation is written to the log.
+     *
+     * @param threshold new threshold.
+     * @throws NullArgumentException    if the threshold is null.
+     * @throws IllegalArgumentException if the threshold is negative.
+     */
+    public static void setThreshold(Duration threshold) {
+        if (threshold == null)
+            throw new NullArgumentException();
+        if (threshold.isNegative())
+            throw new IllegalArgumentException();
+        OperationLog.threshold = threshold;
+    }
+
+    /**
+     * Writes the next slow operations to another file, closing the current one.
+     *
+     * @param pattern of the log file, with the placeholders of {@link FileHandler}.
+     * @throws NullArgumentException if the pattern is null.
+     */
+    public static synchronized void open(String pattern) {
+        if (pattern == null)
+            throw new NullArgumentException();
+        if (fileHandler != null)
+            fileHandler.close();
+        fileHandler = null;
+        System.setProperty(FILE_PROPERTY, pattern);
+    }
+
+    /**
+     * Discards every histogram.
+     */
+    public static void reset() {
+        HISTOGRAMS.clear();
+    }
+
+    private static void record(String operation, long elapsed, Measurement measurement, Object result,
+                               boolean failed) {
+        LatencyHistogram histogram = HISTOGRAMS.get(operation);
+        if (histogram == null)
+            histogram = HISTOGRAMS.size() < MAX_OPERATIONS
+                    ? HISTOGRAMS.computeIfAbsent(operation, (name) -> new LatencyHistogram())
+                    : HISTOGRAMS.computeIfAbsent(OTHER_OPERATIONS, (name) -> new LatencyHistogram());
+        histogram.record(elapsed);
+        if (elapsed <= threshold.toNanos())
+            return;
+
+        String entry = Instant.now() +
+                " operation=" + operation.replaceAll("\\s+", " ") +
+                " caller=" + caller(true) +
+                " durationMillis=" + TimeUnit.NANOSECONDS.toMillis(elapsed) +
+                " statements=" + (measurement.statements == null ? 0 : measurement.statements.size()) +
+                " rows=" + rows(result) +
+                " transaction=" + measurement.transaction +
+                (failed ? " failed=true" : "");
+        FileHandler handler = fileHandler();
+        if (handler != null)
+            handler.publish(new LogRecord(Level.WARNING, entry));
+    }
+
+    private static synchronized FileHandler fileHandler() {
+        if (fileHandler == null)
+            try {
+                fileHandler = new FileHandler(System.getProperty(FILE_PROPERTY, DEFAULT_FILE), FILE_LIMIT,
+                        FILE_COUNT, true);
+                fileHandler.setFormatter(new Formatter() {
+                    @Override
+                    public String format(LogRecord logRecord) {
+                        return logRecord.getMessage() + System.lineSeparator();
+                    }
+                });
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Slow operation log could not be opened", e);
+            }
+        return fileHandler;
+    }
+
+    private static int rows(Object result) {
+        if (result == null)
+            return 0;
+        if (result instanceof Collection)
+            return ((Collection<?>) result).size();
+        if (result instanceof Map)
+            return ((Map<?, ?>) result).size();
+        if (result instanceof Number)
+            return ((Number) result).intValue();
+        return 1;
+    }
+
+    /**
+     * Returns the first method, outside the database layer plumbing, that called it or, for the caller, the
+     * first repository or service method.
+     */
+    private static String caller(boolean repository) {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> repository
+                        ? frame.getClassName().startsWith("bll.repositories.") ||
+                        frame.getClassName().startsWith("bll.services.")
+                        : !frame.getClassName().equals(OperationLog.class.getName()) &&
+                        !frame.getClassName().equals(UnitOfWork.class.getName()) &&
+                        !frame.getClassName().equals(IDAO.class.getName()))
+                .findFirst()
+                .map(OperationLog::name)
+                .orElse("unknown"));
+    }
+
+    private static String name(StackWalker.StackFrame frame) {
+        String className = frame.getClassName();
+        String method = frame.getMethodName();
+        if (method.startsWith("lambda$"))
+            method = method.substring("lambda$".length(), method.lastIndexOf('$'));
+        return className.substring(className.lastIndexOf('.') + 1) + "." + method;
+    }
+
+    private static final class Measurement {
+        private List<String> statements;
+        private boolean transaction;
+    }
+}
@@ -0,0 +1,53 @@
+package dal.infra;
+
+import bll.entities.IPayee;
+import bll.entities.Payee;
+
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static dal.infra.IDAO.executeInsideTransaction;
+
+public class PayeeDAO implements IDAO<IPayee> {
+
+    @Override
+    public List<IPayee> select(String query) {
+        return OperationLog.measure(query, () -> UnitOfWork.call(entityManager -> {
+            TypedQuery<Payee> typedQuery = entityManager.createQuery(query, Payee.class);
+            return new ArrayList<>(typedQuery.getResultList());
+        }));
+    }
+
+    @Override
+    public IPayee select(UUID id) {
+        return UnitOfWork.call(entityManager -> entityManager.find(Payee.class, id));
+    }
+
+    @Override
+    public void create(IPayee element) {
+        executeInsideTransaction(entityManager -> entityManager.persist(element));
+    }
+
+    @Override
+    public void update(IPayee element) {
+        executeInsideTransaction(entityManager -> {
+            entityManager.merge(element);
+            EntityVersions.refreshOnCommit(element);
+        });
+    }
+
+    @Override
+    public void delete(IPayee element) {
+        executeInsideTransaction(entityManager ->
+                entityManager.remove(entityManager.contains(element) ? element : entityManager.merge(element)));
+    }
+
+    private PayeeDAO() {
+    }
+
+    public static IDAO<IPayee> getInstance() {
+        return new PayeeDAO();
+    }
+}
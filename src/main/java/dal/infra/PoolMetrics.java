@@ -0,0 +1,126 @@
+package dal.infra;
+
+import java.time.Duration;
+
+/**
+ * Point-in-time view of a connection pool: its occupation and how long connections take to be acquired,
+ * how long they are held and how long new ones take to be opened.
+ */
+public final class PoolMetrics {
+    private final String poolName;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int pendingThreads;
+    private final int maxConnections;
+    private final long timeouts;
+    private final long acquisitions;
+    private final Duration acquireTimeMedian;
+    private final Duration acquireTimeP95;
+    private final Duration acquireTimeP99;
+    private final Duration acquireTimeMax;
+    private final Duration usageTimeMedian;
+    private final Duration usageTimeP95;
+    private final Duration usageTimeMax;
+    private final Duration creationTimeMax;
+
+    PoolMetrics(String poolName, int activeConnections, int idleConnections, int pendingThreads,
+                int maxConnections, long timeouts, LatencyHistogram acquireTime,
+                LatencyHistogram usageTime, LatencyHistogram creationTime) {
+        this.poolName = poolName;
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.pendingThreads = pendingThreads;
+        this.maxConnections = maxConnections;
+        this.timeouts = timeouts;
+        this.acquisitions = acquireTime.getCount();
+        this.acquireTimeMedian = Duration.ofNanos(acquireTime.getPercentile(50));
+        this.acquireTimeP95 = Duration.ofNanos(acquireTime.getPercentile(95));
+        this.acquireTimeP99 = Duration.ofNanos(acquireTime.getPercentile(99));
+        this.acquireTimeMax = Duration.ofNanos(acquireTime.getMax());
+        this.usageTimeMedian = Duration.ofNanos(usageTime.getPercentile(50));
+        this.usageTimeP95 = Duration.ofNanos(usageTime.getPercentile(95));
+        this.usageTimeMax = Duration.ofNanos(usageTime.getMax());
+        this.creationTimeMax = Duration.ofNanos(creationTime.getMax());
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public int getPendingThreads() {
+        return pendingThreads;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public long getAcquisitions() {
+        return acquisitions;
+    }
+
+    public Duration getAcquireTimeMedian() {
+        return acquireTimeMedian;
+    }
+
+    public Duration getAcquireTimeP95() {
+        return acquireTimeP95;
+    }
+
+    public Duration getAcquireTimeP99() {
+        return acquireTimeP99;
+    }
+
+    public Duration getAcquireTimeMax() {
+        return acquireTimeMax;
+    }
+
+    public Duration getUsageTimeMedian() {
+        return usageTimeMedian;
+    }
+
+    public Duration getUsageTimeP95() {
+        return usageTimeP95;
+    }
+
+    public Duration getUsageTimeMax() {
+        return usageTimeMax;
+    }
+
+    public Duration getCreationTimeMax() {
+        return creationTimeMax;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolMetrics{" +
+                "poolName='" + poolName + '\'' +
+                ", activeConnections=" + activeConnections +
+                ", idleConnections=" + idleConnections +
+                ", pendingThreads=" + pendingThreads +
+                ", maxConnections=" + maxConnections +
+                ", timeouts=" + timeouts +
+                ", acquisitions=" + acquisitions +
+                ", acquireTimeMedian=" + acquireTimeMedian +
+                ", acquireTimeP95=" + acquireTimeP95 +
+                ", acquireTimeP99=" + acquireTimeP99 +
+                ", acquireTimeMax=" + acquireTimeMax +
+                ", usageTimeMedian=" + usageTimeMedian +
+                ", usageTimeP95=" + usageTimeP95 +
+                ", usageTimeMax=" + usageTimeMax +
+                ", creationTimeMax=" + creationTimeMax +
+                '}';
+    }
+}
@@ -0,0 +1,47 @@
+package dal.infra;
+
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import java.util.function.Supplier;
+
+/**
+ * Hides soft-deleted rows, that is, the movements, categories and forms of payment that were inactivated.
+ * <p>
+ * Every entity manager opened for a {@link UnitOfWork} enables the {@value #FILTER} filter, which restricts
+ * the queries on those entities, and the movements loaded with a wallet, to active rows. Reads of the inactive
+ * history opt in with {@link #includingInactive(Supplier)}. Entities loaded by identifier are never filtered.
+ */
+public final class SoftDeletes {
+    public static final String FILTER = "active";
+    public static final String CONDITION = "active = 1";
+
+    private SoftDeletes() {
+    }
+
+    /**
+     * Runs a read inside the current unit of work with the inactive rows included.
+     *
+     * @param read to be executed.
+     * @param <R>  type of the result.
+     * @return the result of the read.
+     */
+    public static <R> R includingInactive(Supplier<R> read) {
+        return UnitOfWork.call(entityManager -> {
+            Session session = entityManager.unwrap(Session.class);
+            boolean enabled = session.getEnabledFilter(FILTER) != null;
+            session.disableFilter(FILTER);
+            try {
+                return read.get();
+            } finally {
+                if (enabled)
+                    session.enableFilter(FILTER);
+            }
+        });
+    }
+
+    static EntityManager hideInactive(EntityManager entityManager) {
+        entityManager.unwrap(Session.class).enableFilter(FILTER);
+        return entityManager;
+    }
+}
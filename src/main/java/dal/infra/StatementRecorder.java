@@ -0,0 +1,50 @@
+package dal.infra;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records the SQL statements prepared on the current thread, so that an operation can be held to a statement
+ * budget and a select repeated per row, the N+1 pattern, shows up as a count instead of as a slow screen.
+ * <p>
+ * Registered as the statement inspector of the persistence unit; outside {@link #record(Runnable)} it only
+ * returns the statement unchanged.
+ */
+public class StatementRecorder implements StatementInspector {
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    /**
+     * Runs an operation and returns the statements it prepared on the current thread, in order.
+     * Nested recordings are also counted by the enclosing one.
+     *
+     * @param operation to be executed.
+     * @return the statements prepared by the operation.
+     */
+    public static List<String> record(Runnable operation) {
+        List<String> enclosing = STATEMENTS.get();
+        List<String> statements = new ArrayList<>();
+        STATEMENTS.set(statements);
+        try {
+            operation.run();
+        } finally {
+            if (enclosing == null)
+                STATEMENTS.remove();
+            else {
+                enclosing.addAll(statements);
+                STATEMENTS.set(enclosing);
+            }
+        }
+        return Collections.unmodifiableList(statements);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null)
+            statements.add(sql);
+        return sql;
+    }
+}
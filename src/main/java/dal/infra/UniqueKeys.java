@@ -0,0 +1,36 @@
+package dal.infra;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.util.Locale;
+
+/**
+ * Recognizes the writes rejected by a unique key of the database.
+ */
+public final class UniqueKeys {
+
+    private UniqueKeys() {
+    }
+
+    /**
+     * Returns {@code true} if the exception, or any of its causes, reports a violation of the unique key.
+     * Databases report the name of the key in their own case, and some with its table or columns, so the
+     * name is matched ignoring case.
+     *
+     * @param exception thrown by a write.
+     * @param key       name of the unique key.
+     * @return {@code true} if the exception reports a violation of the unique key.
+     */
+    public static boolean isViolation(Throwable exception, String key) {
+        String name = key.toLowerCase(Locale.ROOT);
+        for (Throwable cause = exception; cause != null; cause = cause.getCause())
+            if (cause instanceof ConstraintViolationException) {
+                String constraint = ((ConstraintViolationException) cause).getConstraintName();
+                String message = cause.getCause() == null ? null : cause.getCause().getMessage();
+                if ((constraint != null && constraint.toLowerCase(Locale.ROOT).contains(name)) ||
+                        (message != null && message.toLowerCase(Locale.ROOT).contains(name)))
+                    return true;
+            }
+        return false;
+    }
+}
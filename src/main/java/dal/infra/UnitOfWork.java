@@ -0,0 +1,97 @@
+package dal.infra;
+
+import javax.persistence.EntityManager;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Scopes an {@code EntityManager} to a unit of work on the current thread.
+ * <p>
+ * The outermost call opens a new {@code EntityManager}, nested calls on the same thread reuse it,
+ * and when the outermost call returns its persistence context is cleared and closed.
+ * This keeps each service call isolated from other threads and bounds the first-level cache
+ * to what the unit of work itself loads. Units of work are measured by {@link OperationLog}.
+ */
+public final class UnitOfWork {
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+    private final EntityManager entityManager;
+
+    private UnitOfWork(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Runs the work inside the current unit of work, opening one if none is active.
+     *
+     * @param work to be executed.
+     * @param <R>  type of the result.
+     * @return the result of the work.
+     */
+    public static <R> R call(Function<EntityManager, R> work) {
+        UnitOfWork unitOfWork = CURRENT.get();
+        if (unitOfWork != null)
+            return work.apply(unitOfWork.entityManager);
+
+        return OperationLog.measure(() -> {
+            UnitOfWork opened = new UnitOfWork(EntityManagerSingleton.createEntityManager());
+            CURRENT.set(opened);
+            try {
+                return work.apply(opened.entityManager);
+            } finally {
+                CURRENT.remove();
+                opened.end();
+            }
+        });
+    }
+
+    /**
+     * Runs the work like {@link #call(Function)} and, when the call opens the unit of work, loads what its result
+     * holds lazily before the entity manager is closed, so the result can still be read once it is detached.
+     *
+     * @param work to be executed.
+     * @param load reads the lazy associations of a result that is not null.
+     * @param <R>  type of the result.
+     * @return the result of the work.
+     */
+    public static <R> R callDetached(Function<EntityManager, R> work, Consumer<? super R> load) {
+        if (isActive())
+            return call(work);
+        return call(entityManager -> {
+            R result = work.apply(entityManager);
+            if (result != null)
+                load.accept(result);
+            return result;
+        });
+    }
+
+    /**
+     * Runs the work inside the current unit of work, opening one if none is active.
+     *
+     * @param work to be executed.
+     */
+    public static void run(Consumer<EntityManager> work) {
+        call(entityManager -> {
+            work.accept(entityManager);
+            return null;
+        });
+    }
+
+    /**
+     * Returns {@code true} if the current thread is inside a unit of work.
+     *
+     * @return {@code true} if the current thread is inside a unit of work.
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    private void end() {
+        try {
+            if (this.entityManager.getTransaction().isActive())
+                this.entityManager.getTransaction().rollback();
+            this.entityManager.clear();
+        } finally {
+            this.entityManager.close();
+        }
+    }
+}
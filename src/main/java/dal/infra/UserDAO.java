@@ -8,26 +8,28 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
-import static dal.infra.EntityManagerSingleton.getEntityManager;
 import static dal.infra.IDAO.executeInsideTransaction;
 
 public class UserDAO implements IDAO<IUser> {
 
     public List<IUser> selectAll() {
-        return new ArrayList<>(getEntityManager().createQuery("select t from User t", User.class).getResultList());
+        return UnitOfWork.callDetached(entityManager ->
+                new ArrayList<>(entityManager.createQuery("select t from User t", User.class).getResultList()),
+                users -> users.forEach(UserDAO::loadAssociations));
     }
 
     @Override
     public List<IUser> select(String query) {
-        List<IUser> users;
-        TypedQuery<IUser> typedQuery = getEntityManager().createQuery(query, IUser.class);
-        users = typedQuery.getResultList();
-        return users;
+        return OperationLog.measure(query, () -> UnitOfWork.callDetached(entityManager -> {
+            TypedQuery<IUser> typedQuery = entityManager.createQuery(query, IUser.class);
+            return typedQuery.getResultList();
+        }, users -> users.forEach(UserDAO::loadAssociations)));
     }
 
     @Override
     public IUser select(UUID id) {
-        return getEntityManager().find(User.class, id);
+        return UnitOfWork.callDetached(entityManager -> entityManager.find(User.class, id),
+                UserDAO::loadAssociations);
     }
 
     @Override
@@ -37,12 +39,37 @@ public class UserDAO implements IDAO<IUser> {
 
     @Override
     public void update(IUser element) {
-        executeInsideTransaction(entityManager -> entityManager.merge(element));
+        executeInsideTransaction(entityManager -> {
+            entityManager.merge(element);
+            EntityVersions.refreshOnCommit(element);
+        });
     }
 
+    /**
+     * Deletes the user and everything it owns with set-based statements, without loading its wallets.
+     */
     @Override
     public void delete(IUser element) {
-        executeInsideTransaction(entityManager -> entityManager.remove(element));
+        executeInsideTransaction(entityManager -> {
+            User user = entityManager.find(User.class, element.getID());
+            if (user != null) {
+                EntityVersions.verify(entityManager, element, user);
+                entityManager.detach(user);
+                BulkDeletes.deleteUser(entityManager, element.getID());
+            }
+        });
+    }
+
+    /**
+     * Loads the associations a user reads lazily, its credential, its wallets with their movements, its payees
+     * and its categories, so the user can be read and copied after its unit of work ends. The getters copy what
+     * they return, which reads each association.
+     */
+    static void loadAssociations(IUser user) {
+        user.getCredential();
+        user.getWallets();
+        user.getPayee();
+        user.getCategory();
     }
 
     public static IDAO<IUser> getInstance() {
@@ -0,0 +1,76 @@
+package dal.infra;
+
+import bll.enumerators.ERole;
+import bll.projections.UserSummary;
+import bll.valueObjects.IEmail;
+
+import javax.persistence.TypedQuery;
+import java.util.*;
+
+/**
+ * Read-only queries that select only the columns of {@link UserSummary}, one row per role of each user.
+ */
+public class UserSummaryDAO {
+    private static final String SUMMARIES = "select u.ID, u.name, u.email, r from User u left join u.roles r ";
+    private static final String ORDER = "order by lower(u.name), u.ID, index(r)";
+
+    public List<UserSummary> selectAll() {
+        return UnitOfWork.call(entityManager -> summaries(entityManager.createQuery(SUMMARIES + ORDER, Object[].class)));
+    }
+
+    /**
+     * Returns the summaries of the users with an access key that contains the fragment, ignoring case.
+     *
+     * @param fragment of an access key.
+     * @return the summaries of the users found.
+     */
+    public List<UserSummary> selectByAccessKey(String fragment) {
+        return UnitOfWork.call(entityManager -> summaries(entityManager.createQuery(SUMMARIES +
+                        "where u.credential.ID in (select c.ID from Credential c join c.accessKeys k " +
+                        "where lower(k) like :fragment escape '!') " + ORDER, Object[].class)
+                .setParameter("fragment", "%" + escapeLike(fragment.toLowerCase()) + "%")));
+    }
+
+    public Map<ERole, Long> countByRole() {
+        return UnitOfWork.call(entityManager -> {
+            Map<ERole, Long> counts = new EnumMap<>(ERole.class);
+            for (Object[] row : entityManager.createQuery(
+                    "select r, count(u) from User u join u.roles r group by r", Object[].class).getResultList())
+                counts.put((ERole) row[0], (Long) row[1]);
+            return counts;
+        });
+    }
+
+    public long count() {
+        return UnitOfWork.call(entityManager ->
+                entityManager.createQuery("select count(u) from User u", Long.class).getSingleResult());
+    }
+
+    public static UserSummaryDAO getInstance() {
+        return new UserSummaryDAO();
+    }
+
+    private UserSummaryDAO() {
+    }
+
+    private static List<UserSummary> summaries(TypedQuery<Object[]> query) {
+        Map<UUID, Object[]> users = new LinkedHashMap<>();
+        Map<UUID, List<ERole>> roles = new HashMap<>();
+        for (Object[] row : query.getResultList()) {
+            UUID id = (UUID) row[0];
+            users.putIfAbsent(id, row);
+            List<ERole> userRoles = roles.computeIfAbsent(id, key -> new ArrayList<>());
+            if (row[3] != null)
+                userRoles.add((ERole) row[3]);
+        }
+        List<UserSummary> summaries = new ArrayList<>(users.size());
+        for (Object[] row : users.values())
+            summaries.add(new UserSummary((UUID) row[0], (String) row[1], ((IEmail) row[2]).getEmail(),
+                    roles.get((UUID) row[0])));
+        return summaries;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
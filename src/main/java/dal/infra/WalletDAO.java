@@ -0,0 +1,81 @@
+package dal.infra;
+
+import bll.entities.IWallet;
+import bll.entities.Wallet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static dal.infra.IDAO.executeInsideTransaction;
+
+/**
+ * Reads and writes a wallet together with its movements.
+ * <p>
+ * Wallets are returned as copies loaded inside the unit of work, so their movements
+ * can be used after the {@code EntityManager} is closed.
+ */
+public class WalletDAO implements IDAO<IWallet> {
+
+    @Override
+    public List<IWallet> select(String query) {
+        return OperationLog.measure(query, () -> UnitOfWork.call(entityManager -> {
+            List<IWallet> wallets = new ArrayList<>();
+            for (Wallet wallet : entityManager.createQuery(query, Wallet.class).getResultList())
+                wallets.add(wallet.clone());
+            return wallets;
+        }));
+    }
+
+    @Override
+    public IWallet select(UUID id) {
+        return UnitOfWork.call(entityManager -> {
+            Wallet wallet = entityManager.find(Wallet.class, id);
+            return wallet == null ? null : wallet.clone();
+        });
+    }
+
+    /**
+     * Inserts a new wallet. The forms of payment of a wallet already exist, so the wallet
+     * is merged rather than persisted, which would reject them as detached.
+     *
+     * @param element wallet to insert.
+     */
+    @Override
+    public void create(IWallet element) {
+        executeInsideTransaction(entityManager -> {
+            entityManager.merge(element);
+            EntityVersions.refreshOnCommit(element);
+        });
+    }
+
+    @Override
+    public void update(IWallet element) {
+        executeInsideTransaction(entityManager -> {
+            entityManager.merge(element);
+            EntityVersions.refreshOnCommit(element);
+        });
+    }
+
+    /**
+     * Deletes the wallet and its movements with set-based statements, without loading the movements.
+     */
+    @Override
+    public void delete(IWallet element) {
+        executeInsideTransaction(entityManager -> {
+            Wallet wallet = entityManager.find(Wallet.class, element.getID());
+            if (wallet != null) {
+                EntityVersions.verify(entityManager, element, wallet);
+                entityManager.detach(wallet);
+                BulkDeletes.deleteWallet(entityManager, element.getID());
+            }
+        });
+    }
+
+    private WalletDAO() {
+    }
+
+    public static IDAO<IWallet> getInstance() {
+        return new WalletDAO();
+    }
+}
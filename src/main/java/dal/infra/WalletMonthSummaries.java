@@ -0,0 +1,172 @@
+package dal.infra;
+
+import bll.entities.IMovement;
+import bll.enumerators.EOperationType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static bll.entities.ICashFlow.MONTH_KEY;
+
+/**
+ * Maintains the {@code wallet_month_summary} table, the totals of the active movements of each wallet per month
+ * and the settled amounts behind the opening balances of {@link MovementHistory}.
+ * <p>
+ * Writers of movements {@link #record(UUID, Collection, Collection) record} the states they replace and the
+ * states they write in the same transaction, so the summaries commit or roll back with the movements.
+ * Writers of a wallet are serialized by its version, so the summaries of a wallet have a single writer.
+ * {@link #rebuild()} recomputes every summary from the movements.
+ */
+public final class WalletMonthSummaries {
+    private static final Logger LOGGER = Logger.getLogger(WalletMonthSummaries.class.getName());
+
+    private WalletMonthSummaries() {
+    }
+
+    /**
+     * Returns the summaries of a wallet, ordered by month.
+     *
+     * @param walletID identifier of the wallet.
+     * @return the summaries of the months with movements.
+     */
+    public static List<WalletMonthSummary> select(UUID walletID) {
+        return UnitOfWork.call(entityManager -> entityManager.createQuery(
+                        "select s from WalletMonthSummary s where s.walletID = :wallet order by s.month",
+                        WalletMonthSummary.class)
+                .setParameter("wallet", walletID)
+                .getResultList());
+    }
+
+    /**
+     * Moves the contribution of changed movements of a wallet from their previous states to their current ones.
+     * Must run inside the transaction that writes the movements. Inactive states contribute nothing.
+     *
+     * @param walletID identifier of the wallet.
+     * @param previous states replaced by the transaction.
+     * @param current  states written by the transaction.
+     */
+    public static void record(UUID walletID, Collection<? extends IMovement> previous,
+                              Collection<? extends IMovement> current) {
+        Map<Integer, WalletMonthSummary> deltas = new LinkedHashMap<>();
+        for (IMovement movement : previous)
+            contribute(deltas, walletID, movement, -1);
+        for (IMovement movement : current)
+            contribute(deltas, walletID, movement, 1);
+        if (deltas.values().stream().allMatch(WalletMonthSummary::isUnchanged))
+            return;
+
+        UnitOfWork.run(entityManager -> {
+            for (WalletMonthSummary delta : deltas.values()) {
+                if (delta.isUnchanged())
+                    continue;
+                WalletMonthSummary summary = entityManager.find(WalletMonthSummary.class, delta.getKey());
+                if (summary == null)
+                    entityManager.persist(delta);
+                else {
+                    summary.add(delta);
+                    if (summary.isEmpty())
+                        entityManager.remove(summary);
+                }
+            }
+        });
+    }
+
+    /**
+     * Recomputes every summary from the active movements and the totals of the archived ones, in a single
+     * transaction.
+     * Meant for maintenance, while no movements are being written.
+     *
+     * @return the number of summaries written.
+     */
+    public static int rebuild() {
+        Map<WalletMonthSummary.Key, WalletMonthSummary> summaries = new LinkedHashMap<>();
+        IDAO.executeInsideTransaction(entityManager -> {
+            entityManager.createQuery("delete from WalletMonthSummary").executeUpdate();
+            for (Object[] row : entityManager.createQuery(
+                    "select m.walletID, m.dueMonth, m.movementType, count(m), sum(m.amount) from Movement m " +
+                            "group by m.walletID, m.dueMonth, m.movementType", Object[].class).getResultList())
+                add(summaries, row, false);
+            for (Object[] row : entityManager.createQuery(
+                    "select m.walletID, m.accomplishMonth, m.movementType, count(m), sum(m.amount) from Movement m " +
+                            "where m.accomplished = true and m.accomplishMonth is not null " +
+                            "group by m.walletID, m.accomplishMonth, m.movementType", Object[].class).getResultList())
+                add(summaries, row, true);
+            for (Object[] row : entityManager.createQuery(
+                    "select m.walletID, m.dueMonth, m.accomplishMonth, sum(m.amount) from Movement m " +
+                            "where m.accomplished = true and m.accomplishMonth is not null " +
+                            "group by m.walletID, m.dueMonth, m.accomplishMonth", Object[].class).getResultList())
+                settle(summaries, row);
+            for (Object[] row : entityManager.createQuery(
+                    "select a.walletID, t.dueMonth, t.movementType, sum(t.movementCount), sum(t.amount) " +
+                            "from MovementArchive a join a.totals t " +
+                            "group by a.walletID, t.dueMonth, t.movementType", Object[].class).getResultList())
+                add(summaries, row, false);
+            for (Object[] row : entityManager.createQuery(
+                    "select a.walletID, t.accomplishMonth, t.movementType, sum(t.movementCount), sum(t.amount) " +
+                            "from MovementArchive a join a.totals t " +
+                            "group by a.walletID, t.accomplishMonth, t.movementType", Object[].class).getResultList())
+                add(summaries, row, true);
+            for (Object[] row : entityManager.createQuery(
+                    "select a.walletID, t.dueMonth, t.accomplishMonth, sum(t.amount) " +
+                            "from MovementArchive a join a.totals t " +
+                            "group by a.walletID, t.dueMonth, t.accomplishMonth", Object[].class).getResultList())
+                settle(summaries, row);
+            summaries.values().forEach(entityManager::persist);
+        });
+        return summaries.size();
+    }
+
+    /**
+     * Rebuilds the summaries of the database of the current persistence profile.
+     *
+     * @param args ignored.
+     */
+    public static void main(String[] args) {
+        try {
+            LOGGER.info("Rebuilt " + rebuild() + " wallet month summaries");
+        } finally {
+            EntityManagerSingleton.closingEntityManager();
+        }
+    }
+
+    private static void add(Map<WalletMonthSummary.Key, WalletMonthSummary> summaries, Object[] row, boolean realized) {
+        UUID walletID = (UUID) row[0];
+        int month = (Integer) row[1];
+        summaries.computeIfAbsent(new WalletMonthSummary.Key(walletID, month),
+                        (key) -> new WalletMonthSummary(walletID, month))
+                .add(realized, row[2] == EOperationType.CREDIT, (Long) row[3], (BigDecimal) row[4]);
+    }
+
+    private static void settle(Map<WalletMonthSummary.Key, WalletMonthSummary> summaries, Object[] row) {
+        UUID walletID = (UUID) row[0];
+        int month = Math.max((Integer) row[1], (Integer) row[2]);
+        summaries.computeIfAbsent(new WalletMonthSummary.Key(walletID, month),
+                        (key) -> new WalletMonthSummary(walletID, month))
+                .settle((BigDecimal) row[3]);
+    }
+
+    private static void contribute(Map<Integer, WalletMonthSummary> deltas, UUID walletID, IMovement movement,
+                                   int sign) {
+        if (movement.isInactive())
+            return;
+        BigDecimal amount = sign < 0 ? movement.getAmount().negate() : movement.getAmount();
+        delta(deltas, walletID, movement.getDueDate()).add(false, movement.isCredit(), sign, amount);
+        if (movement.isAccomplished() && movement.getAccomplishDate() != null)
+            delta(deltas, walletID, movement.getAccomplishDate()).add(true, movement.isCredit(), sign, amount);
+        Integer settled = MovementHistory.settledMonth(movement);
+        if (settled != null)
+            deltas.computeIfAbsent(settled, (key) -> new WalletMonthSummary(walletID, settled)).settle(amount);
+    }
+
+    private static WalletMonthSummary delta(Map<Integer, WalletMonthSummary> deltas, UUID walletID, LocalDate date) {
+        int month = MONTH_KEY.applyAsInt(YearMonth.from(date));
+        return deltas.computeIfAbsent(month, (key) -> new WalletMonthSummary(walletID, month));
+    }
+}
@@ -0,0 +1,187 @@
+package dal.infra;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Totals of the active movements of a wallet in one month, kept up to date by {@link WalletMonthSummaries}.
+ * <p>
+ * Realized totals count the accomplished movements in the month they were accomplished, expected totals
+ * count every movement in the month it is due. Debit totals are negative, as the amounts of debit movements.
+The settled amount sums the accomplished movements in the last of their due and accomplish months, from which
+the opening balance of a year is computed by {@link MovementHistory}.
+ */
+@Entity
+@Table(name = "wallet_month_summary")
+@IdClass(WalletMonthSummary.Key.class)
+public class WalletMonthSummary {
+    @Id
+    @Column(name = "wallet")
+    private UUID walletID;
+    @Id
+    @Column(name = "summaryMonth")
+    private int month;
+    @Column(nullable = false)
+    private BigDecimal realizedCredit;
+    @Column(nullable = false)
+    private BigDecimal realizedDebit;
+    private long realizedCount;
+    @Column(nullable = false)
+    private BigDecimal expectedCredit;
+    @Column(nullable = false)
+    private BigDecimal expectedDebit;
+    private long expectedCount;
+    @Column(nullable = false)
+    private BigDecimal settledAmount;
+
+    WalletMonthSummary(UUID walletID, int month) {
+        this.walletID = walletID;
+        this.month = month;
+        this.realizedCredit = BigDecimal.ZERO;
+        this.realizedDebit = BigDecimal.ZERO;
+        this.expectedCredit = BigDecimal.ZERO;
+        this.expectedDebit = BigDecimal.ZERO;
+        this.settledAmount = BigDecimal.ZERO;
+    }
+
+    protected WalletMonthSummary() {
+    }
+
+    public UUID getWalletID() {
+        return this.walletID;
+    }
+
+    public YearMonth getMonth() {
+        return YearMonth.of(this.month / 100, this.month % 100);
+    }
+
+    public BigDecimal getRealizedCredit() {
+        return this.realizedCredit;
+    }
+
+    public BigDecimal getRealizedDebit() {
+        return this.realizedDebit;
+    }
+
+    public long getRealizedCount() {
+        return this.realizedCount;
+    }
+
+    public BigDecimal getExpectedCredit() {
+        return this.expectedCredit;
+    }
+
+    public BigDecimal getExpectedDebit() {
+        return this.expectedDebit;
+    }
+
+    public long getExpectedCount() {
+        return this.expectedCount;
+    }
+
+    public BigDecimal getSettledAmount() {
+        return this.settledAmount;
+    }
+
+    Key getKey() {
+        return new Key(this.walletID, this.month);
+    }
+
+    /**
+     * Adds movements to the realized or expected totals; negative counts and amounts subtract them.
+     */
+    void add(boolean realized, boolean credit, long count, BigDecimal amount) {
+        if (realized) {
+            this.realizedCount += count;
+            if (credit)
+                this.realizedCredit = this.realizedCredit.add(amount);
+            else
+                this.realizedDebit = this.realizedDebit.add(amount);
+        } else {
+            this.expectedCount += count;
+            if (credit)
+                this.expectedCredit = this.expectedCredit.add(amount);
+            else
+                this.expectedDebit = this.expectedDebit.add(amount);
+        }
+    }
+
+    /**
+     * Adds movements settled in the month; negative amounts subtract them.
+     */
+    void settle(BigDecimal amount) {
+        this.settledAmount = this.settledAmount.add(amount);
+    }
+
+    void add(WalletMonthSummary delta) {
+        this.realizedCount += delta.realizedCount;
+        this.realizedCredit = this.realizedCredit.add(delta.realizedCredit);
+        this.realizedDebit = this.realizedDebit.add(delta.realizedDebit);
+        this.expectedCount += delta.expectedCount;
+        this.expectedCredit = this.expectedCredit.add(delta.expectedCredit);
+        this.expectedDebit = this.expectedDebit.add(delta.expectedDebit);
+        this.settledAmount = this.settledAmount.add(delta.settledAmount);
+    }
+
+    boolean isEmpty() {
+        return this.realizedCount == 0 && this.expectedCount == 0;
+    }
+
+    boolean isUnchanged() {
+        return isEmpty() && this.realizedCredit.signum() == 0 && this.realizedDebit.signum() == 0 &&
+                this.expectedCredit.signum() == 0 && this.expectedDebit.signum() == 0 &&
+                this.settledAmount.signum() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "WalletMonthSummary{" +
+                "walletID=" + walletID +
+                ", month=" + month +
+                ", realizedCredit=" + realizedCredit +
+                ", realizedDebit=" + realizedDebit +
+                ", realizedCount=" + realizedCount +
+                ", expectedCredit=" + expectedCredit +
+                ", expectedDebit=" + expectedDebit +
+                ", expectedCount=" + expectedCount +
+                ", settledAmount=" + settledAmount +
+                '}';
+    }
+
+    /**
+     * Identifier of a summary, the wallet and the month.
+     */
+    public static class Key implements Serializable {
+        private UUID walletID;
+        private int month;
+
+        public Key(UUID walletID, int month) {
+            this.walletID = walletID;
+            this.month = month;
+        }
+
+        protected Key() {
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return month == key.month && walletID.equals(key.walletID);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(walletID, month);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package dal.infra;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+import static dal.infra.IDAO.executeInsideTransaction;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Defers non-critical updates and writes them in batches on a background thread.
+ * <p>
+ * Updates are keyed by entity, so the updates of an entity submitted before it is written collapse into the
+ * last one. Pending updates are written in a single transaction at most {@link #MAX_DELAY_MILLIS} after the
+ * first of them was submitted, or as soon as {@link #BATCH_SIZE} entities are pending. They are also written
+ * before the entity manager factory is closed and when the virtual machine shuts down.
+ * <p>
+ * An update is applied to the entity as loaded by the transaction that writes it, so it only suits changes
+ * that may overwrite concurrent ones, such as the login state of a user.
+ */
+public final class WriteBehindQueue {
+    static final int BATCH_SIZE = 50;
+    static final long MAX_DELAY_MILLIS = 200;
+    private static final System.Logger LOGGER = System.getLogger(WriteBehindQueue.class.getName());
+    private static final Object LOCK = new Object();
+    private static final Map<List<Object>, Update<?>> PENDING = new LinkedHashMap<>();
+    private static ScheduledExecutorService executor;
+    private static boolean scheduled;
+
+    private WriteBehindQueue() {
+    }
+
+    /**
+     * Submits an update of an entity, replacing the one still pending for the same entity.
+     * The update is skipped if the entity no longer exists when it is written.
+     *
+     * @param entityClass class of the entity.
+     * @param id          identifier of the entity.
+     * @param change      applied to the managed entity.
+     * @param <T>         type of the entity.
+     */
+    public static <T> void submit(Class<T> entityClass, Object id, Consumer<? super T> change) {
+        Objects.requireNonNull(entityClass);
+        Objects.requireNonNull(id);
+        Objects.requireNonNull(change);
+        synchronized (LOCK) {
+            PENDING.put(List.of(entityClass, id), new Update<>(entityClass, id, change));
+            if (PENDING.size() >= BATCH_SIZE) {
+                executor().execute(WriteBehindQueue::drain);
+            } else if (!scheduled) {
+                scheduled = true;
+                executor().schedule(WriteBehindQueue::drain, MAX_DELAY_MILLIS, MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Writes an update of an entity on the thread of the queue and waits until it is written, replacing the one
+     * still pending for the same entity. It runs after the updates being written, so none of them overwrites it.
+     * The update is skipped if the entity no longer exists.
+     *
+     * @param entityClass class of the entity.
+     * @param id          identifier of the entity.
+     * @param change      applied to the managed entity.
+     * @param <T>         type of the entity.
+     */
+    public static <T> void write(Class<T> entityClass, Object id, Consumer<? super T> change) {
+        Objects.requireNonNull(entityClass);
+        Objects.requireNonNull(id);
+        Objects.requireNonNull(change);
+        Update<T> update = new Update<>(entityClass, id, change);
+        Future<?> written;
+        synchronized (LOCK) {
+            PENDING.remove(List.of(entityClass, id));
+            written = executor().submit(() -> executeInsideTransaction(update::apply));
+        }
+        try {
+            written.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Writes the pending updates and waits until they are written.
+     */
+    public static void flush() {
+        ScheduledExecutorService current;
+        synchronized (LOCK) {
+            current = executor;
+        }
+        if (current == null)
+            return;
+        try {
+            current.submit(WriteBehindQueue::drain).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static ScheduledExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+            Runtime.getRuntime().addShutdownHook(new Thread(WriteBehindQueue::flush, "write-behind-shutdown"));
+        }
+        return executor;
+    }
+
+    private static void drain() {
+        List<Update<?>> batch;
+        synchronized (LOCK) {
+            batch = new ArrayList<>(PENDING.values());
+            PENDING.clear();
+            scheduled = false;
+        }
+        if (batch.isEmpty())
+            return;
+        try {
+            executeInsideTransaction(entityManager -> batch.forEach(update -> update.apply(entityManager)));
+        } catch (RuntimeException batchFailure) {
+            for (Update<?> update : batch) {
+                try {
+                    executeInsideTransaction(update::apply);
+                } catch (RuntimeException failure) {
+                    LOGGER.log(System.Logger.Level.WARNING, "Deferred update of " + update + " failed", failure);
+                }
+            }
+        }
+    }
+
+    private static final class Update<T> {
+        private final Class<T> entityClass;
+        private final Object id;
+        private final Consumer<? super T> change;
+
+        private Update(Class<T> entityClass, Object id, Consumer<? super T> change) {
+            this.entityClass = entityClass;
+            this.id = id;
+            this.change = change;
+        }
+
+        private void apply(EntityManager entityManager) {
+            T managed = entityManager.find(entityClass, id);
+            if (managed != null)
+                change.accept(managed);
+        }
+
+        @Override
+        public String toString() {
+            return entityClass.getSimpleName() + " " + id;
+        }
+    }
+}
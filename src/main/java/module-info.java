@@ -4,8 +4,11 @@ module personal.finance.manager {
     requires javafx.graphics;
     requires java.persistence;
     requires java.sql;
+    requires java.logging;
     requires java.naming;
     requires org.hibernate.orm.core;
+    requires org.hibernate.orm.hikaricp;
+    requires com.zaxxer.hikari;
     requires com.fasterxml.classmate;
     requires net.bytebuddy;
     requires com.sun.xml.bind;
@@ -14,6 +17,7 @@ module personal.finance.manager {
 
     opens bll.entities;
     opens dal.infra;
+    opens bll.valueObjects to org.hibernate.orm.core;
     opens dal.converters to org.hibernate.orm.core;
     opens view;
     exports view;
@@ -24,6 +28,7 @@ module personal.finance.manager {
     exports bll.entities;
     exports bll.enumerators;
     exports bll.valueObjects;
+    exports bll.projections;
     exports dal.converters;
     exports dal.infra;
 }
\ No newline at end of file
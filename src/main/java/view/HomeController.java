@@ -1,6 +1,7 @@
 package view;
 
-import bll.entities.IUser;
+import bll.enumerators.ERole;
+import bll.repositories.IUserRepository;
 import bll.repositories.UserRepository;
 import bll.services.SessionService;
 import javafx.fxml.FXML;
@@ -8,8 +9,7 @@ import javafx.fxml.Initializable;
 import javafx.scene.control.Label;
 
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
 
 import static bll.enumerators.ERole.*;
@@ -71,11 +71,12 @@ public class HomeController implements Initializable {
 
     private void loadData() {
         this.usernameLabel.setText(SessionService.getCurrentUser().getName());
-        List<IUser> users = new ArrayList<>(UserRepository.getInstance().getAll());
+        IUserRepository userRepository = UserRepository.getInstance();
+        Map<ERole, Long> roles = userRepository.countByRole();
 
-        this.adminCount.setText(Long.toString(users.stream().filter(u -> u.getRoles().contains(ADMIN)).count()));
-        this.premiumCount.setText(Long.toString(users.stream().filter(u -> u.getRoles().contains(PREMIUM)).count()));
-        this.simpleCount.setText(Long.toString(users.stream().filter(u -> u.getRoles().contains(SIMPLE)).count()));
-        this.totCount.setText(Long.toString(users.size()));
+        this.adminCount.setText(Long.toString(roles.getOrDefault(ADMIN, 0L)));
+        this.premiumCount.setText(Long.toString(roles.getOrDefault(PREMIUM, 0L)));
+        this.simpleCount.setText(Long.toString(roles.getOrDefault(SIMPLE, 0L)));
+        this.totCount.setText(Long.toString(userRepository.count()));
     }
 }
@@ -1,8 +1,13 @@
 package view;
 
 import bll.exceptions.AccessDeniedBlockedUserException;
+import bll.exceptions.AccessDeniedException;
 import bll.exceptions.AccessDeniedUnconfirmedEmailException;
+import bll.exceptions.AccessKeyDoesNotExistException;
+import bll.exceptions.InvalidAccessKeySizeException;
+import bll.exceptions.InvalidPasswordSizeException;
 import bll.services.AuthenticationService;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Button;
@@ -16,10 +21,15 @@ import javafx.stage.Stage;
 
 import java.net.URL;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import static bll.enumerators.ERole.*;
 
 public class MainController implements Initializable {
+    private static final Logger LOGGER = Logger.getLogger(MainController.class.getName());
+
     @FXML
     private TextField accessKey;
     @FXML
@@ -66,29 +76,47 @@ public class MainController implements Initializable {
 
     public void login() {
         message.setVisible(false);
-        ResourceBundle rb = ResourceBundle.getBundle("lang/errors");
         resetFieldStyle();
         if (validFields()) {
+            loginButton.setDisable(true);
+            AuthenticationService.authenticationServiceDefault()
+                    .authenticateAsync(accessKey.getText(), password.getText(), ADMIN)
+                    .whenComplete((authenticated, failure) -> Platform.runLater(() -> {
+                        loginButton.setDisable(false);
+                        loggedIn(authenticated, failure instanceof CompletionException ? failure.getCause() : failure);
+                    }));
+        }
+    }
+
+    private void loggedIn(Boolean authenticated, Throwable failure) {
+        ResourceBundle rb = ResourceBundle.getBundle("lang/errors");
+        if (failure instanceof AccessDeniedBlockedUserException) {
+            message.setText(rb.getString("blocked.user.login"));
+        } else if (failure instanceof AccessDeniedUnconfirmedEmailException) {
+            message.setText(rb.getString("inactive.login"));
+        } else if (isInvalidData(failure) || failure == null && !authenticated) {
+            message.setText(rb.getString("invalid.data.login"));
+        } else if (failure != null) {
+            LOGGER.log(Level.SEVERE, "Login failed", failure);
+            message.setText(rb.getString("unavailable.login"));
+        } else {
+            closeWindow();
             try {
-                if (AuthenticationService.authenticationServiceDefault().authenticate(accessKey.getText(),
-                        password.getText(), ADMIN)) {
-                    closeWindow();
-                    try {
-                        new Dashboard().start(new Stage());
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                    }
-                } else {
-                    message.setText(rb.getString("invalid.data.login"));
-                }
-            } catch (AccessDeniedBlockedUserException e) {
-                message.setText(rb.getString("blocked.user.login"));
-            } catch (AccessDeniedUnconfirmedEmailException e) {
-                message.setText(rb.getString("inactive.login"));
-            } finally {
-                message.setVisible(true);
+                new Dashboard().start(new Stage());
+            } catch (Exception e) {
+                e.printStackTrace();
             }
+            return;
         }
+        message.setVisible(true);
+    }
+
+    /**
+     * Returns {@code true} if the login failed because of the access key or password informed.
+     */
+    private static boolean isInvalidData(Throwable failure) {
+        return failure instanceof AccessDeniedException || failure instanceof AccessKeyDoesNotExistException
+                || failure instanceof InvalidAccessKeySizeException || failure instanceof InvalidPasswordSizeException;
     }
 
     public void closeWindow() {
@@ -1,6 +1,7 @@
 package view;
 
 import bll.entities.IUser;
+import bll.projections.UserSummary;
 import bll.repositories.UserRepository;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -10,7 +11,6 @@ import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.Node;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.AnchorPane;
@@ -23,9 +23,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.Objects;
 import java.util.ResourceBundle;
-import java.util.function.Predicate;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 import static bll.enumerators.ERole.*;
 
@@ -40,7 +38,7 @@ public class UserController implements Initializable {
     private TextField searchField;
 
     @FXML
-    private TableView<IUser> table;
+    private TableView<UserSummary> table;
 
     @FXML
     private StackPane modal;
@@ -72,7 +70,7 @@ public class UserController implements Initializable {
     @FXML
     private Button searchButton;
 
-    private ObservableList<IUser> itemsObservable;
+    private ObservableList<UserSummary> itemsObservable;
     private IUser currentUser;
     private final int rowsPerPAge = 4;
 
@@ -106,15 +104,15 @@ public class UserController implements Initializable {
 
     private void startTable() {
         this.table = new TableView<>();
-        TableColumn<IUser, String> columnName = new TableColumn<>();
-        TableColumn<IUser, String> columnEmail = new TableColumn<>();
-        TableColumn<IUser, HBox> ColumnButtons = new TableColumnButtonsFactory<IUser>("", buttonsFactory()).getColumn();
-        columnName.setCellValueFactory(new PropertyValueFactory<>("name"));
-        columnEmail.setCellValueFactory(edf -> new SimpleStringProperty(edf.getValue().getEmail().getEmail()));
+        TableColumn<UserSummary, String> columnName = new TableColumn<>();
+        TableColumn<UserSummary, String> columnEmail = new TableColumn<>();
+        TableColumn<UserSummary, HBox> ColumnButtons = new TableColumnButtonsFactory<UserSummary>("", buttonsFactory()).getColumn();
+        columnName.setCellValueFactory(edf -> new SimpleStringProperty(edf.getValue().getName()));
+        columnEmail.setCellValueFactory(edf -> new SimpleStringProperty(edf.getValue().getEmail()));
         this.table.getColumns().add(columnName);
         this.table.getColumns().add(columnEmail);
         this.table.getColumns().add(ColumnButtons);
-        this.table.setRowFactory(new TableRowFactory<IUser>().getRowFactory());
+        this.table.setRowFactory(new TableRowFactory<UserSummary>().getRowFactory());
         this.table.getStylesheets().add(Objects.requireNonNull(getClass().getResource("/css/table.css")).toExternalForm());
         columnName.setStyle("-fx-pref-width: 364px;");
         columnEmail.setStyle("-fx-pref-width: 220px;");
@@ -143,7 +141,7 @@ public class UserController implements Initializable {
     }
 
     private void initializesItems() {
-        this.itemsObservable = FXCollections.observableList(new ArrayList<>(UserRepository.getInstance().getAll().stream().sorted().collect(Collectors.toList())));
+        this.itemsObservable = FXCollections.observableList(new ArrayList<>(UserRepository.getInstance().getSummaries()));
     }
 
     private void initializesScreens() {
@@ -171,7 +169,7 @@ public class UserController implements Initializable {
                     edit.setGraphic(new FontIcon("bi-shield-lock-fill"));
                     edit.getStyleClass().add("table-button");
                     edit.setOnAction((ActionEvent event) -> {
-                        this.currentUser = table.getSelectionModel().getSelectedItem();
+                        this.currentUser = UserRepository.getInstance().get(table.getSelectionModel().getSelectedItem().getID());
                         configureModalForEditing();
                     });
 
@@ -194,14 +192,13 @@ public class UserController implements Initializable {
     }
 
     public void search() {
-        Predicate<IUser> predicate = u -> u.getCredential().getAccessKeys().stream().anyMatch(s -> s.matches("(?i).*" + this.searchField.getText() + ".*"));
         refreshItems();
-        this.itemsObservable.addAll(FXCollections.observableList(new ArrayList<>(UserRepository.getInstance().get(predicate).stream().sorted().collect(Collectors.toList()))));
+        this.itemsObservable.addAll(UserRepository.getInstance().getSummaries(this.searchField.getText()));
         this.pagination.setPageFactory(this::createPage);
     }
 
     private void refreshItems() {
-        Iterator<IUser> it = this.itemsObservable.iterator();
+        Iterator<UserSummary> it = this.itemsObservable.iterator();
         while (it.hasNext()) {
             it.next();
             it.remove();
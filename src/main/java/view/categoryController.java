@@ -1,14 +1,15 @@
 package view;
 
 import bll.entities.IMovementCategory;
+import bll.projections.CategorySummary;
 import bll.repositories.MovementCategoryRepository;
+import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
@@ -19,16 +20,15 @@ import java.net.URL;
 import java.util.Iterator;
 import java.util.ResourceBundle;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 import static bll.entities.MovementCategory.createPublicCategory;
 import static view.TextFieldUtilities.addTextLimiter;
 
 public class categoryController implements Initializable {
     @FXML
-    private TableView<IMovementCategory> table;
+    private TableView<CategorySummary> table;
     @FXML
-    private TableColumn<IMovementCategory, String> columnCategory;
+    private TableColumn<CategorySummary, String> columnCategory;
     @FXML
     private StackPane modal;
     @FXML
@@ -65,7 +65,7 @@ public class categoryController implements Initializable {
     private Label confirmDeleteCategory;
 
     private IMovementCategory currentCategory;
-    private ObservableList<IMovementCategory> items;
+    private ObservableList<CategorySummary> items;
 
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
@@ -97,10 +97,10 @@ public class categoryController implements Initializable {
     }
 
     private void startTable() {
-        this.columnCategory.setCellValueFactory(new PropertyValueFactory<>("name"));
+        this.columnCategory.setCellValueFactory(edf -> new SimpleStringProperty(edf.getValue().getName()));
         this.table.getColumns().add(
-                new TableColumnButtonsFactory<IMovementCategory>("", buttonsFactory()).getColumn());
-        this.table.setRowFactory(new TableRowFactory<IMovementCategory>().getRowFactory());
+                new TableColumnButtonsFactory<CategorySummary>("", buttonsFactory()).getColumn());
+        this.table.setRowFactory(new TableRowFactory<CategorySummary>().getRowFactory());
         this.table.setItems(this.items);
     }
 
@@ -113,16 +113,16 @@ public class categoryController implements Initializable {
 
     private void initializesItems() {
         this.items = FXCollections.observableArrayList();
-        this.items.addAll(MovementCategoryRepository.getInstance().getOnlyPublic().stream().sorted().collect(Collectors.toList()));
+        this.items.addAll(MovementCategoryRepository.getInstance().getPublicSummaries());
     }
 
     private void refreshItems() {
-        Iterator<IMovementCategory> it = this.items.iterator();
+        Iterator<CategorySummary> it = this.items.iterator();
         while (it.hasNext()) {
             it.next();
             it.remove();
         }
-        this.items.addAll(MovementCategoryRepository.getInstance().getOnlyPublic().stream().sorted().collect(Collectors.toList()));
+        this.items.addAll(MovementCategoryRepository.getInstance().getPublicSummaries());
         this.table.refresh();
     }
 
@@ -136,14 +136,14 @@ public class categoryController implements Initializable {
                     edit.setGraphic(new FontIcon("bi-pencil-square"));
                     edit.getStyleClass().add("table-button");
                     edit.setOnAction((ActionEvent event) -> {
-                        this.currentCategory = table.getSelectionModel().getSelectedItem();
+                        this.currentCategory = selectedCategory();
                         configureModalForEditing();
                     });
 
                     trash.setGraphic(new FontIcon("bi-trash"));
                     trash.getStyleClass().add("table-button-danger");
                     trash.setOnAction((ActionEvent event) -> {
-                        this.currentCategory = table.getSelectionModel().getSelectedItem();
+                        this.currentCategory = selectedCategory();
                         getDeleteModal();
                     });
                     buttons.setStyle("-fx-alignment: bottom-right; -fx-spacing: 10px;");
@@ -151,6 +151,10 @@ public class categoryController implements Initializable {
                 };
     }
 
+    private IMovementCategory selectedCategory() {
+        return MovementCategoryRepository.getInstance().get(table.getSelectionModel().getSelectedItem().getID());
+    }
+
     private void openModal() {
         this.modal.setVisible(true);
     }
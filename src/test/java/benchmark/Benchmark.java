@@ -0,0 +1,97 @@
+package benchmark;
+
+import bll.builders.IMovementBuilder;
+import bll.entities.*;
+import bll.enumerators.EOperationType;
+import bll.enumerators.ERepetitionFrequency;
+import dal.infra.LatencyHistogram;
+import infra.EmbeddedDatabaseExtension;
+import infra.UserFixture;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Support for the benchmark suite: runs the application's DAOs and repositories against a fresh
+ * embedded database and reports latency percentiles on the standard output.
+ */
+final class Benchmark {
+    static final String TAG = "benchmark";
+    static final String PASSWORD = UserFixture.PASSWORD;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 25;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private Benchmark() {
+    }
+
+    /**
+     * Points the application at a new, empty in-memory database.
+     *
+     * @param name name of the database, unique per data set.
+     */
+    static void useEmbeddedDatabase(String name) {
+        EmbeddedDatabaseExtension.use(name);
+    }
+
+    static void closeDatabase() {
+        EmbeddedDatabaseExtension.close();
+    }
+
+    static void measure(String name, Runnable action) {
+        measure(name, () -> null, ignored -> action.run());
+    }
+
+    /**
+     * Runs an action repeatedly and prints its latency; the setup of each run is not measured.
+     *
+     * @param name   name printed in the report.
+     * @param setup  prepares the input of one run.
+     * @param action the measured operation.
+     */
+    static <T> void measure(String name, Supplier<T> setup, Consumer<T> action) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++)
+            action.accept(setup.get());
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            T input = setup.get();
+            long start = System.nanoTime();
+            action.accept(input);
+            histogram.record(System.nanoTime() - start);
+        }
+        System.out.printf(Locale.ROOT, "%-55s mean %9.3f ms  p50 %9.3f ms  p95 %9.3f ms  max %9.3f ms%n", name,
+                histogram.getMean() / NANOS_PER_MILLI, histogram.getPercentile(50) / NANOS_PER_MILLI,
+                histogram.getPercentile(95) / NANOS_PER_MILLI, histogram.getMax() / NANOS_PER_MILLI);
+    }
+
+    static IUser newUser(String accessKey) {
+        return new UserFixture(accessKey).getUser();
+    }
+
+    /**
+     * Registers an administrator and opens a session for it.
+     */
+    static void signInAdministrator() {
+        new UserFixture("admin").save().logIn();
+    }
+
+    /**
+     * Adds an installment plan to the first wallet of the user.
+     *
+     * @param user         owner of the wallet.
+     * @param installments number of installments.
+     */
+    static void addInstallments(IUser user, int installments) {
+        IWallet wallet = user.getWallets().iterator().next();
+        IFormOfPayment formOfPayment = wallet.getFormOfPayment().iterator().next();
+        IPayee payee = user.getPayee().iterator().next();
+        IMovementCategory category = user.getCategory().iterator().next();
+        wallet.addInstallment(IMovementBuilder.makeMovement("Loan", "100", LocalDate.now(), formOfPayment, payee,
+                category, EOperationType.DEBIT).addGroupID(UUID.randomUUID()).build(), ERepetitionFrequency.MONTHLY,
+                installments);
+        user.updateWallet(wallet);
+    }
+}
@@ -0,0 +1,170 @@
+package benchmark;
+
+import bll.entities.FormOfPayment;
+import bll.entities.IFormOfPayment;
+import bll.entities.IMovement;
+import bll.entities.IMovementCategory;
+import bll.entities.IUser;
+import bll.entities.Movement;
+import bll.entities.MovementCategory;
+import dal.infra.FormOfPaymentDAO;
+import dal.infra.IDAO;
+import dal.infra.Identifiers;
+import dal.infra.MovementCategoryDAO;
+import dal.infra.UnitOfWork;
+import dal.infra.UserDAO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static benchmark.Benchmark.*;
+import static dal.infra.IDAO.executeInsideTransaction;
+
+@Tag(Benchmark.TAG)
+public class DAOBenchmarkTest {
+    private static final int[] USERS = {10, 100, 250};
+    private static final int[] MOVEMENTS = {100, 1000, 5000};
+    private static final int[] ROWS = {10, 100, 1000};
+    private static final int[] TABLE_ROWS = {10_000, 100_000};
+    private static final int INSERT_BATCH = 1000;
+
+    @AfterEach
+    public void tearDown() {
+        closeDatabase();
+    }
+
+    @Test
+    public void shouldMeasureUserDAOByNumberOfUsers() {
+        for (int users : USERS) {
+            useEmbeddedDatabase("user-dao-" + users);
+            IDAO<IUser> userDAO = UserDAO.getInstance();
+            UUID id = null;
+            for (int i = 0; i < users; i++) {
+                IUser user = newUser("user" + i);
+                userDAO.create(user);
+                id = user.getID();
+            }
+            UUID lastUser = id;
+            measure("UserDAO.select(all) " + users + " users", () -> userDAO.select("select t from User t"));
+            measure("UserDAO.select(id) " + users + " users", () -> userDAO.select(lastUser));
+        }
+    }
+
+    @Test
+    public void shouldMeasureUserDAOByNumberOfMovements() {
+        for (int movements : MOVEMENTS) {
+            useEmbeddedDatabase("wallet-dao-" + movements);
+            IDAO<IUser> userDAO = UserDAO.getInstance();
+            IUser user = newUser("walletOwner");
+            userDAO.create(user);
+            addInstallments(user, movements);
+            userDAO.update(user);
+            measure("UserDAO.select(id) with wallet of " + movements + " movements", () ->
+                    UnitOfWork.call(entityManager ->
+                            userDAO.select(user.getID()).getWallets().iterator().next().getMovements().size()));
+        }
+    }
+
+    /**
+     * Flush of a single change while a whole wallet is managed: measures the dirty checking of the
+     * persistence context, which the build-time enhancement turns from snapshot comparison into in-line tracking.
+     */
+    @Test
+    public void shouldMeasureFlushByNumberOfManagedMovements() {
+        for (int movements : MOVEMENTS) {
+            useEmbeddedDatabase("flush-" + movements);
+            IDAO<IUser> userDAO = UserDAO.getInstance();
+            IUser user = newUser("walletOwner");
+            userDAO.create(user);
+            addInstallments(user, movements);
+            userDAO.update(user);
+            executeInsideTransaction(entityManager -> {
+                List<Movement> managed = entityManager.createQuery("select m from Movement m", Movement.class)
+                        .getResultList();
+                Iterator<Movement> next = managed.iterator();
+                measure("flush of one change with " + movements + " managed movements", next::next,
+                        (IMovement movement) -> {
+                            movement.inactivate();
+                            entityManager.flush();
+                        });
+            });
+        }
+    }
+
+    @Test
+    public void shouldMeasureFormOfPaymentDAO() {
+        for (int rows : ROWS) {
+            useEmbeddedDatabase("form-of-payment-dao-" + rows);
+            IDAO<IFormOfPayment> formOfPaymentDAO = FormOfPaymentDAO.defaultFormOfPaymentDAO();
+            for (int i = 0; i < rows; i++)
+                formOfPaymentDAO.create(new FormOfPayment("Form " + i));
+            AtomicInteger next = new AtomicInteger(rows);
+            measure("FormOfPaymentDAO.select(all) " + rows + " rows", () ->
+                    formOfPaymentDAO.select("select f from FormOfPayment f"));
+            measure("FormOfPaymentDAO.create " + rows + " rows", () -> new FormOfPayment("Form " + next.getAndIncrement()),
+                    formOfPaymentDAO::create);
+        }
+    }
+
+    @Test
+    public void shouldMeasureMovementCategoryDAO() {
+        for (int rows : ROWS) {
+            useEmbeddedDatabase("category-dao-" + rows);
+            IDAO<IMovementCategory> categoryDAO = MovementCategoryDAO.getInstance();
+            for (int i = 0; i < rows; i++)
+                categoryDAO.create(new MovementCategory("Category " + i));
+            AtomicInteger next = new AtomicInteger(rows);
+            measure("MovementCategoryDAO.select(all) " + rows + " rows", () ->
+                    categoryDAO.select("select m from MovementCategory m"));
+            measure("MovementCategoryDAO.create " + rows + " rows", () -> new MovementCategory("Category " + next.getAndIncrement()),
+                    categoryDAO::create);
+        }
+    }
+
+    /**
+     * Batches of inserts into a filled table, with random and with time-ordered primary keys: random keys land
+     * all over the primary key index, time-ordered keys are appended to its end.
+     */
+    @Test
+    public void shouldMeasureInsertsByIdentifierGenerator() {
+        Map<String, Supplier<UUID>> generators = Map.of("random", Identifiers.RANDOM,
+                "time-ordered", Identifiers.TIME_ORDERED);
+        try {
+            for (int rows : TABLE_ROWS)
+                for (Map.Entry<String, Supplier<UUID>> generator : generators.entrySet()) {
+                    useEmbeddedDatabase("identifiers-" + generator.getKey() + "-" + rows);
+                    Identifiers.use(generator.getValue());
+                    AtomicInteger next = new AtomicInteger();
+                    for (int i = 0; i < rows; i += INSERT_BATCH)
+                        insertCategories(newCategories(next, INSERT_BATCH));
+                    measure("insert of " + INSERT_BATCH + " categories with " + generator.getKey() + " IDs into " +
+                            rows + " rows", () -> newCategories(next, INSERT_BATCH), DAOBenchmarkTest::insertCategories);
+                }
+        } finally {
+            Identifiers.use(Identifiers.TIME_ORDERED);
+        }
+    }
+
+    private static List<IMovementCategory> newCategories(AtomicInteger next, int count) {
+        List<IMovementCategory> categories = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            categories.add(new MovementCategory("Category " + next.getAndIncrement()));
+        return categories;
+    }
+
+    private static void insertCategories(List<IMovementCategory> categories) {
+        executeInsideTransaction(entityManager -> {
+            categories.forEach(entityManager::persist);
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+}
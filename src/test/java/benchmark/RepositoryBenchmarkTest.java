@@ -0,0 +1,114 @@
+package benchmark;
+
+import bll.entities.FormOfPayment;
+import bll.entities.IUser;
+import bll.entities.MovementCategory;
+import bll.repositories.FormOfPaymentRepository;
+import bll.repositories.IFormOfPaymentRepository;
+import bll.repositories.IMovementCategoryRepository;
+import bll.repositories.IUserRepository;
+import bll.repositories.MovementCategoryRepository;
+import bll.repositories.UserRepository;
+import bll.services.AuthenticationService;
+import bll.services.IAuthenticationService;
+import bll.services.SessionService;
+import dal.infra.UnitOfWork;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static benchmark.Benchmark.*;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag(Benchmark.TAG)
+public class RepositoryBenchmarkTest {
+    private static final int[] USERS = {10, 100, 250};
+    private static final int[] MOVEMENTS = {100, 1000, 5000};
+    private static final int[] INSTALLMENTS = {12, 60, 120};
+    private static final int[] ROWS = {10, 100, 1000};
+
+    @AfterEach
+    public void tearDown() {
+        SessionService.killSession();
+        closeDatabase();
+    }
+
+    @Test
+    public void shouldMeasureLogin() {
+        for (int users : USERS) {
+            useEmbeddedDatabase("login-" + users);
+            IUserRepository userRepository = UserRepository.getInstance();
+            for (int i = 0; i < users; i++)
+                userRepository.add(newUser("user" + i));
+            String accessKey = "user" + (users - 1);
+            IAuthenticationService authenticationService = AuthenticationService.authenticationServiceDefault();
+            measure("AuthenticationService.authenticate " + users + " users", () -> {
+                assertTrue(authenticationService.authenticate(accessKey, PASSWORD));
+                SessionService.killSession();
+            });
+        }
+    }
+
+    @Test
+    public void shouldMeasureWalletLoad() {
+        for (int movements : MOVEMENTS) {
+            useEmbeddedDatabase("wallet-load-" + movements);
+            IUserRepository userRepository = UserRepository.getInstance();
+            IUser user = newUser("walletOwner");
+            userRepository.add(user);
+            addInstallments(user, movements);
+            userRepository.update(user);
+            measure("UserRepository.get wallet of " + movements + " movements", () ->
+                    UnitOfWork.call(entityManager -> userRepository.get(user.getID()).getWallets().iterator().next().getBalanceExpected()));
+        }
+    }
+
+    @Test
+    public void shouldMeasureInstallmentPersistence() {
+        for (int installments : INSTALLMENTS) {
+            useEmbeddedDatabase("installments-" + installments);
+            IUserRepository userRepository = UserRepository.getInstance();
+            AtomicInteger next = new AtomicInteger();
+            measure("UserRepository.update " + installments + " new installments", () -> {
+                IUser user = newUser("user" + next.getAndIncrement());
+                userRepository.add(user);
+                addInstallments(user, installments);
+                return user;
+            }, userRepository::update);
+        }
+    }
+
+    @Test
+    public void shouldMeasureFormOfPaymentRepository() {
+        for (int rows : ROWS) {
+            useEmbeddedDatabase("form-of-payment-repository-" + rows);
+            signInAdministrator();
+            IFormOfPaymentRepository formOfPaymentRepository = FormOfPaymentRepository.defaultFormOfPaymentRepository();
+            for (int i = 0; i < rows; i++)
+                formOfPaymentRepository.add(new FormOfPayment("Form " + i));
+            AtomicInteger next = new AtomicInteger(rows);
+            measure("FormOfPaymentRepository.getAll " + rows + " rows", formOfPaymentRepository::getAll);
+            measure("FormOfPaymentRepository.add " + rows + " rows", () -> new FormOfPayment("Form " + next.getAndIncrement()),
+                    formOfPaymentRepository::add);
+            SessionService.killSession();
+        }
+    }
+
+    @Test
+    public void shouldMeasureMovementCategoryRepository() {
+        for (int rows : ROWS) {
+            useEmbeddedDatabase("category-repository-" + rows);
+            signInAdministrator();
+            IMovementCategoryRepository categoryRepository = MovementCategoryRepository.getInstance();
+            for (int i = 0; i < rows; i++)
+                categoryRepository.add(new MovementCategory("Category " + i, null));
+            AtomicInteger next = new AtomicInteger(rows);
+            measure("MovementCategoryRepository.getAll " + rows + " rows", categoryRepository::getAll);
+            measure("MovementCategoryRepository.add " + rows + " rows",
+                    () -> new MovementCategory("Category " + next.getAndIncrement(), null), categoryRepository::add);
+            SessionService.killSession();
+        }
+    }
+}
@@ -2,15 +2,30 @@ package entities;
 
 import bll.entities.Credential;
 import bll.entities.ICredential;
+import bll.entities.PasswordHashing;
 import bll.exceptions.*;
+import bll.valueObjects.IPasswordHashParameters;
+import bll.valueObjects.PasswordHashParameters;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class CredentialTest {
 
+    private static final IPasswordHashParameters CHEAPER =
+            new PasswordHashParameters("PBKDF2WithHmacSHA256", 10_000, 256);
+    private final IPasswordHashParameters parameters = PasswordHashing.getParameters();
+
     ICredential obj1 = new Credential("localPart@domain.com", "secure password");
 
+    @AfterEach
+    public void tearDown() {
+        PasswordHashing.setParameters(parameters);
+    }
+
     @Test
     public void shouldThrowExceptionByCreationWithNullAccessKey() {
         assertThrows(NullArgumentException.class, () -> new Credential(null, "secure password"));
@@ -152,6 +167,23 @@ public class CredentialTest {
         assertFalse(obj1.isPasswordValid("super secure password"));
     }
 
+    @Test
+    public void shouldVerifyThePasswordOnTheHashingPool() {
+        assertTrue(obj1.isPasswordValidAsync(" secure password ").join());
+        assertFalse(obj1.isPasswordValidAsync("super secure password").join());
+        assertThrows(NullArgumentException.class, () -> obj1.isPasswordValidAsync(null));
+    }
+
+    @Test
+    public void shouldHashThePasswordTheSameOnEveryThread() {
+        byte[] salt = ICredential.getSaltRandom();
+        String hash = ICredential.createHashedPassword("secure password", salt);
+
+        assertTrue(hash.matches("[0-9A-F]{32}"));
+        assertEquals(hash, ICredential.createHashedPasswordAsync("secure password", salt).join());
+        assertNotEquals(hash, ICredential.createHashedPassword("secure password", ICredential.getSaltRandom()));
+    }
+
     @Test
     public void shouldThrowExceptionForUpdatingThePasswordWithANullPassword() {
         assertThrows(NullArgumentException.class, () -> obj1.updatePassword(null));
@@ -176,4 +208,42 @@ public class CredentialTest {
         assertTrue(obj1.isPasswordValid("new Password"));
         assertFalse(obj1.isPasswordValid("secure password"));
     }
+
+    @Test
+    public void shouldHashWithTheCurrentParameters() {
+        assertEquals(PasswordHashing.getParameters(), obj1.getHashParameters());
+        assertFalse(obj1.needsRehash());
+
+        PasswordHashing.setParameters(CHEAPER);
+        ICredential credential = new Credential("localPart@domain.com", "secure password");
+
+        assertEquals(CHEAPER, credential.getHashParameters());
+        assertTrue(credential.isPasswordValid("secure password"));
+        assertTrue(credential.isPasswordValidAsync("secure password").join());
+    }
+
+    @Test
+    public void shouldKeepThePasswordValidWhenTheParametersChange() {
+        PasswordHashing.setParameters(CHEAPER);
+
+        assertTrue(obj1.needsRehash());
+        assertTrue(obj1.isPasswordValid("secure password"));
+        obj1.updatePassword("secure password");
+        assertFalse(obj1.needsRehash());
+        assertEquals(CHEAPER, obj1.getHashParameters());
+        assertTrue(obj1.isPasswordValid("secure password"));
+    }
+
+    @Test
+    public void shouldCalibrateTheIterationCount() {
+        IPasswordHashParameters calibrated = PasswordHashing.calibrate("PBKDF2WithHmacSHA256", 256,
+                Duration.ofMillis(20));
+
+        assertEquals("PBKDF2WithHmacSHA256", calibrated.getAlgorithm());
+        assertEquals(256, calibrated.getKeyLength());
+        assertTrue(calibrated.getIterationCount() >= 10_000);
+        assertThrows(IllegalArgumentException.class, () -> PasswordHashing.calibrate("PBKDF2WithHmacSHA256", 256,
+                Duration.ZERO));
+        assertThrows(NullArgumentException.class, () -> PasswordHashing.calibrate(null, 256, Duration.ofMillis(20)));
+    }
 }
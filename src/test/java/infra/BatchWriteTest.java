@@ -0,0 +1,124 @@
+package infra;
+
+import bll.entities.IUser;
+import bll.entities.IWallet;
+import bll.entities.User;
+import bll.enumerators.EOperationType;
+import bll.enumerators.ERepetitionFrequency;
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchWriteTest {
+    private static final int INSTALLMENTS = 60;
+    private EntityManagerFactory factory;
+    private UserFixture fixture;
+
+    @BeforeEach
+    public void setUp() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("javax.persistence.jdbc.url", "jdbc:h2:mem:batch;MODE=MSSQLServer;DB_CLOSE_DELAY=-1");
+        properties.put("javax.persistence.jdbc.user", "sa");
+        properties.put("javax.persistence.jdbc.password", "");
+        properties.put("javax.persistence.jdbc.driver", "org.h2.Driver");
+        properties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("javax.persistence.schema-generation.database.action", "drop-and-create");
+        factory = Persistence.createEntityManagerFactory("PFM-PU", properties);
+
+        fixture = new UserFixture();
+        inTransaction(entityManager -> entityManager.persist(fixture.getUser()), new RoundTripCounter());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Test
+    public void shouldBatchInstallmentInserts() {
+        IUser detached = planInstallments();
+        RoundTripCounter counter = new RoundTripCounter();
+        inTransaction(entityManager -> entityManager.merge(detached), counter);
+
+        // two batches of inserts, then the version increments of the wallet and of its user
+        assertEquals(4, counter.getBatches());
+        assertEquals(INSTALLMENTS, loadDetachedUser().getWallets().iterator().next().getMovements().size());
+    }
+
+    @Test
+    public void shouldNotUpdateTheWalletOfEachInstallment() {
+        IUser detached = planInstallments();
+        RoundTripCounter counter = new RoundTripCounter();
+        inTransaction(entityManager -> entityManager.merge(detached), counter);
+
+        // merge still selects each new installment by its assigned id; inserts are batched and carry the wallet key
+        assertTrue(counter.getRoundTrips() < 2 * INSTALLMENTS, "round trips: " + counter.getRoundTrips());
+    }
+
+    private IUser planInstallments() {
+        IUser detached = loadDetachedUser();
+        IWallet wallet = detached.getWallets().iterator().next();
+        wallet.addInstallment(fixture.movement("Car loan", "150", LocalDate.now(), EOperationType.DEBIT)
+                .addGroupID(UUID.randomUUID()).build(), ERepetitionFrequency.MONTHLY, INSTALLMENTS);
+        detached.updateWallet(wallet);
+        return detached;
+    }
+
+    private IUser loadDetachedUser() {
+        EntityManager entityManager = factory.createEntityManager();
+        try {
+            return entityManager.find(User.class, fixture.getUser().getID()).clone();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private void inTransaction(Consumer<EntityManager> action, RoundTripCounter counter) {
+        EntityManager entityManager = factory.createEntityManager();
+        try {
+            entityManager.unwrap(Session.class).addEventListeners(counter);
+            entityManager.getTransaction().begin();
+            action.accept(entityManager);
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static final class RoundTripCounter extends BaseSessionEventListener {
+        private static final long serialVersionUID = 1L;
+        private int statements;
+        private int batches;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            statements++;
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            batches++;
+        }
+
+        int getBatches() {
+            return batches;
+        }
+
+        int getRoundTrips() {
+            return statements + batches;
+        }
+    }
+}
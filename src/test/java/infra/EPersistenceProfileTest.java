@@ -0,0 +1,42 @@
+package infra;
+
+import dal.infra.EPersistenceProfile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static dal.infra.EPersistenceProfile.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EPersistenceProfileTest {
+
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty(PROFILE_PROPERTY);
+        System.clearProperty(EMBEDDED_URL_PROPERTY);
+    }
+
+    @Test
+    public void shouldUseSqlServerByDefault() {
+        assertEquals(SQL_SERVER, EPersistenceProfile.current());
+        assertTrue(SQL_SERVER.getProperties().isEmpty());
+    }
+
+    @Test
+    public void shouldSelectEmbeddedProfile() {
+        System.setProperty(PROFILE_PROPERTY, "embedded");
+        assertEquals(EMBEDDED, EPersistenceProfile.current());
+        assertEquals("org.h2.Driver", EMBEDDED.getProperties().get("javax.persistence.jdbc.driver"));
+    }
+
+    @Test
+    public void shouldOverrideEmbeddedUrl() {
+        System.setProperty(EMBEDDED_URL_PROPERTY, "jdbc:h2:mem:pfm");
+        assertEquals("jdbc:h2:mem:pfm", EMBEDDED.getProperties().get("javax.persistence.jdbc.url"));
+    }
+
+    @Test
+    public void shouldThrowExceptionWithUnknownProfile() {
+        System.setProperty(PROFILE_PROPERTY, "oracle");
+        assertThrows(IllegalArgumentException.class, EPersistenceProfile::current);
+    }
+}
@@ -0,0 +1,47 @@
+package infra;
+
+import dal.infra.EPersistenceProfile;
+import dal.infra.EntityManagerSingleton;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.UUID;
+
+/**
+ * Runs each test against a new, empty in-memory database of the embedded profile, before the
+ * {@code @BeforeEach} methods of the test, and closes it after its {@code @AfterEach} methods.
+ */
+public class EmbeddedDatabaseExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        use(UUID.randomUUID().toString());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        close();
+    }
+
+    /**
+     * Points the application at a new, empty in-memory database.
+     *
+     * @param name name of the database, unique per data set.
+     */
+    public static void use(String name) {
+        EntityManagerSingleton.closingEntityManager();
+        System.setProperty(EPersistenceProfile.PROFILE_PROPERTY, EPersistenceProfile.EMBEDDED.name());
+        System.setProperty(EPersistenceProfile.EMBEDDED_URL_PROPERTY,
+                "jdbc:h2:mem:" + name + ";MODE=MSSQLServer;DB_CLOSE_DELAY=-1");
+    }
+
+    /**
+     * Closes the database and points the application back at the default profile.
+     */
+    public static void close() {
+        EntityManagerSingleton.closingEntityManager();
+        System.clearProperty(EPersistenceProfile.PROFILE_PROPERTY);
+        System.clearProperty(EPersistenceProfile.EMBEDDED_URL_PROPERTY);
+    }
+}
@@ -0,0 +1,53 @@
+package infra;
+
+import bll.entities.FormOfPayment;
+import bll.exceptions.NullArgumentException;
+import dal.infra.Identifiers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdentifiersTest {
+
+    @AfterEach
+    public void tearDown() {
+        Identifiers.use(Identifiers.TIME_ORDERED);
+    }
+
+    @Test
+    public void shouldGenerateVersion7Identifiers() {
+        UUID id = Identifiers.next();
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertTrue(Math.abs(System.currentTimeMillis() - millis) < 60_000);
+    }
+
+    @Test
+    public void shouldGenerateIncreasingBytesWithinTheSameMillisecond() {
+        byte[] previous = bytes(Identifiers.next());
+        for (int i = 0; i < 10_000; i++) {
+            byte[] next = bytes(Identifiers.next());
+            assertTrue(Arrays.compareUnsigned(previous, next) < 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    public void shouldUseTheConfiguredGenerator() {
+        UUID fixed = new UUID(1, 2);
+        Identifiers.use(() -> fixed);
+        assertEquals(fixed, new FormOfPayment("Card").getID());
+        assertThrows(NullArgumentException.class, () -> Identifiers.use(null));
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
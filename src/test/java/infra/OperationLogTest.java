@@ -0,0 +1,99 @@
+package infra;
+
+import bll.entities.IUser;
+import bll.repositories.UserRepository;
+import dal.infra.LatencyHistogram;
+import dal.infra.OperationLog;
+import dal.infra.UserDAO;
+import dal.infra.WalletDAO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(EmbeddedDatabaseExtension.class)
+public class OperationLogTest {
+    private static final String QUERY = "select u from User u";
+
+    @TempDir
+    Path directory;
+    private Path file;
+    private Duration threshold;
+    private IUser user;
+
+    @BeforeEach
+    public void setUp() {
+        user = new UserFixture().save().getUser();
+
+        threshold = OperationLog.getThreshold();
+        file = directory.resolve("slow0.log");
+        OperationLog.open(directory.resolve("slow%g.log").toString());
+        OperationLog.reset();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        OperationLog.setThreshold(threshold);
+        OperationLog.open(OperationLog.DEFAULT_FILE);
+    }
+
+    @Test
+    public void shouldKeepAHistogramPerQuery() {
+        UserDAO.getInstance().select(QUERY);
+        UserDAO.getInstance().select(QUERY);
+
+        LatencyHistogram histogram = OperationLog.getHistogram(QUERY);
+        assertEquals(2, histogram.getCount());
+        assertTrue(histogram.getPercentile(50) <= histogram.getMax());
+    }
+
+    @Test
+    public void shouldNameOtherOperationsAfterTheMethodThatCalledTheDatabase() {
+        WalletDAO.getInstance().select(user.getWallets().iterator().next().getID());
+
+        assertTrue(OperationLog.getOperations().contains("WalletDAO.select"));
+        assertEquals(1, OperationLog.getHistogram("WalletDAO.select").getCount());
+    }
+
+    @Test
+    public void shouldLogOperationsAboveTheThreshold() throws IOException {
+        OperationLog.setThreshold(Duration.ZERO);
+
+        UserDAO.getInstance().select(QUERY);
+        UserRepository.getInstance().update(user);
+
+        List<String> entries = Files.readAllLines(file);
+        assertEquals(2, entries.size());
+        assertTrue(entries.get(0).contains("operation=" + QUERY));
+        assertTrue(entries.get(0).contains("rows=1"));
+        assertFalse(entries.get(0).contains("statements=0"));
+        assertTrue(entries.get(0).contains("transaction=false"));
+        assertTrue(entries.get(1).contains("operation=UserDAO.update"));
+        assertTrue(entries.get(1).contains("caller=UserRepository.update"));
+        assertTrue(entries.get(1).contains("transaction=true"));
+    }
+
+    @Test
+    public void shouldNotLogOperationsBelowTheThreshold() throws IOException {
+        OperationLog.setThreshold(Duration.ofHours(1));
+
+        UserDAO.getInstance().select(QUERY);
+
+        assertTrue(!Files.exists(file) || Files.readAllLines(file).isEmpty());
+        assertEquals(1, OperationLog.getHistogram(QUERY).getCount());
+    }
+
+    @Test
+    public void shouldNotAcceptANegativeThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> OperationLog.setThreshold(Duration.ofMillis(-1)));
+    }
+}
@@ -0,0 +1,129 @@
+package infra;
+
+import bll.builders.IMovementBuilder;
+import bll.entities.*;
+import bll.enumerators.EOperationType;
+import bll.enumerators.ERole;
+import bll.enumerators.EUserState;
+import bll.repositories.MovementRepository;
+import bll.repositories.UserRepository;
+import bll.services.SessionService;
+import bll.valueObjects.Email;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The user the persistence tests work with: John Doe, with the payee Bank, the category Loan and the wallet Main
+ * paid by Card, and movements of that wallet built with the same form of payment, payee and category.
+ */
+public final class UserFixture {
+    public static final String ACCESS_KEY = "johnDoe";
+    public static final String PASSWORD = "password123";
+    public static final String WALLET = "Main";
+
+    private final IUser user;
+    private final IFormOfPayment formOfPayment = new FormOfPayment("Card");
+    private final IPayee payee = new Payee("Bank");
+    private final IMovementCategory category = new MovementCategory("Loan");
+    private IWallet wallet;
+
+    public UserFixture() {
+        this(ACCESS_KEY);
+    }
+
+    public UserFixture(String accessKey) {
+        user = newUser(accessKey);
+        user.addPayee(payee);
+        user.addCategory(category);
+        user.addWallet(new Wallet(WALLET, formOfPayment, new Payee(WALLET)));
+    }
+
+    /**
+     * Returns an active administrator with only a credential, that is not saved.
+     *
+     * @param accessKey of the user, which also names its email.
+     * @return the new user.
+     */
+    public static IUser newUser(String accessKey) {
+        return new User("John Doe", new Credential(accessKey, PASSWORD),
+                List.of(EUserState.ACTIVE), List.of(ERole.ADMIN), new Email(accessKey + "@ipvc.pt"));
+    }
+
+    /**
+     * Saves the user through its repository.
+     *
+     * @return this fixture.
+     */
+    public UserFixture save() {
+        UserRepository.getInstance().add(user);
+        wallet = null;
+        return this;
+    }
+
+    /**
+     * Opens the session of the user.
+     *
+     * @return this fixture.
+     */
+    public UserFixture logIn() {
+        SessionService.addUserInSession(user);
+        return this;
+    }
+
+    /**
+     * Starts a movement of the wallet Main.
+     *
+     * @param name    of the movement.
+     * @param amount  of the movement.
+     * @param dueDate of the movement.
+     * @param type    of the movement.
+     * @return the builder of the movement.
+     */
+    public IMovementBuilder movement(String name, String amount, LocalDate dueDate, EOperationType type) {
+        return IMovementBuilder.makeMovement(name, amount, dueDate, formOfPayment, payee, category, type);
+    }
+
+    /**
+     * Builds a movement of the wallet Main and adds it through the movement repository.
+     *
+     * @param name    of the movement.
+     * @param amount  of the movement.
+     * @param dueDate of the movement.
+     * @param type    of the movement.
+     * @return the added movement.
+     */
+    public IMovement addMovement(String name, String amount, LocalDate dueDate, EOperationType type) {
+        IMovement movement = movement(name, amount, dueDate, type).build();
+        MovementRepository.getInstance().add(getWallet(), movement);
+        return movement;
+    }
+
+    public IUser getUser() {
+        return user;
+    }
+
+    /**
+     * Returns the wallet Main, the same copy on every call until the user is saved again.
+     *
+     * @return the wallet Main of the user.
+     */
+    public IWallet getWallet() {
+        if (wallet == null)
+            wallet = user.getWallets().stream().filter(held -> held.getName().equals(WALLET)).findFirst()
+                    .orElseThrow();
+        return wallet;
+    }
+
+    public IFormOfPayment getFormOfPayment() {
+        return formOfPayment;
+    }
+
+    public IPayee getPayee() {
+        return payee;
+    }
+
+    public IMovementCategory getCategory() {
+        return category;
+    }
+}
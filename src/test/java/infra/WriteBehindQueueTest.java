@@ -0,0 +1,134 @@
+package infra;
+
+import bll.entities.IUser;
+import bll.entities.User;
+import bll.enumerators.EUserState;
+import bll.repositories.IUserRepository;
+import bll.repositories.UserRepository;
+import dal.infra.EntityManagerSingleton;
+import dal.infra.WriteBehindQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(EmbeddedDatabaseExtension.class)
+public class WriteBehindQueueTest {
+    private IUserRepository userRepository;
+    private IUser user;
+
+    @BeforeEach
+    public void setUp() {
+        userRepository = UserRepository.getInstance();
+        user = UserFixture.newUser(UserFixture.ACCESS_KEY);
+        userRepository.add(user);
+    }
+
+    @Test
+    public void shouldWriteTheStatesWithoutBeingFlushed() throws InterruptedException {
+        user.addUserState(EUserState.INVALID_LOGIN_ATTEMPT);
+        userRepository.updateStates(user);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!storedStates().contains(EUserState.INVALID_LOGIN_ATTEMPT) && System.currentTimeMillis() < deadline)
+            Thread.sleep(20);
+        assertEquals(List.of(EUserState.ACTIVE, EUserState.INVALID_LOGIN_ATTEMPT), storedStates());
+    }
+
+    @Test
+    public void shouldApplyOnlyTheLastUpdateOfAnEntity() {
+        AtomicInteger applied = new AtomicInteger();
+        for (int i = 0; i < 3; i++)
+            WriteBehindQueue.submit(User.class, user.getID(), stored -> applied.incrementAndGet());
+        WriteBehindQueue.flush();
+
+        assertEquals(1, applied.get());
+    }
+
+    @Test
+    public void shouldKeepTheLastStatesOfTheUser() {
+        user.addUserState(EUserState.INVALID_LOGIN_ATTEMPT);
+        userRepository.updateStates(user);
+        user.addUserState(EUserState.INVALID_LOGIN_ATTEMPT);
+        userRepository.updateStates(user);
+        user.removeUserState(EUserState.INVALID_LOGIN_ATTEMPT);
+        user.removeUserState(EUserState.INVALID_LOGIN_ATTEMPT);
+        user.addUserState(EUserState.BLOCKED_BY_MANY_INVALID_LOGIN_ATTEMPT);
+        userRepository.updateStates(user);
+        WriteBehindQueue.flush();
+
+        assertEquals(List.of(EUserState.ACTIVE, EUserState.BLOCKED_BY_MANY_INVALID_LOGIN_ATTEMPT), storedStates());
+    }
+
+    @Test
+    public void shouldNotOverwriteTheStatesSavedWithoutTheQueue() {
+        user.addUserState(EUserState.INVALID_LOGIN_ATTEMPT);
+        userRepository.updateStates(user);
+        user.removeUserState(EUserState.INVALID_LOGIN_ATTEMPT);
+        user.addUserState(EUserState.BLOCKED_BY_MANY_INVALID_LOGIN_ATTEMPT);
+        userRepository.saveStates(user);
+
+        assertEquals(List.of(EUserState.ACTIVE, EUserState.BLOCKED_BY_MANY_INVALID_LOGIN_ATTEMPT), storedStates());
+        WriteBehindQueue.flush();
+        assertEquals(List.of(EUserState.ACTIVE, EUserState.BLOCKED_BY_MANY_INVALID_LOGIN_ATTEMPT), storedStates());
+    }
+
+    @Test
+    public void shouldNotOverwriteTheStatesSavedWhileADrainIsWriting() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        WriteBehindQueue.submit(User.class, user.getID(), stored -> {
+            writing.countDown();
+            awaitQuietly(released);
+            stored.addUserState(EUserState.INVALID_LOGIN_ATTEMPT);
+        });
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        user.addUserState(EUserState.BLOCKED_BY_MANY_INVALID_LOGIN_ATTEMPT);
+        Thread saving = new Thread(() -> userRepository.saveStates(user));
+        saving.start();
+        saving.join(200);
+        released.countDown();
+        saving.join();
+        WriteBehindQueue.flush();
+
+        assertEquals(List.of(EUserState.ACTIVE, EUserState.BLOCKED_BY_MANY_INVALID_LOGIN_ATTEMPT), storedStates());
+    }
+
+    @Test
+    public void shouldNotChangeTheVersionOfTheUser() {
+        IUser copy = userRepository.get(user.getID());
+        user.addUserState(EUserState.INVALID_LOGIN_ATTEMPT);
+        userRepository.updateStates(user);
+        WriteBehindQueue.flush();
+
+        copy.updateName("Jane Doe");
+        assertDoesNotThrow(() -> userRepository.update(copy));
+    }
+
+    @Test
+    public void shouldWritePendingUpdatesBeforeClosing() {
+        user.addUserState(EUserState.INVALID_LOGIN_ATTEMPT);
+        userRepository.updateStates(user);
+        EntityManagerSingleton.closingEntityManager();
+
+        assertTrue(storedStates().contains(EUserState.INVALID_LOGIN_ATTEMPT));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<EUserState> storedStates() {
+        return userRepository.get(user.getID()).getUserStates();
+    }
+}
@@ -0,0 +1,102 @@
+package repositories;
+
+import bll.entities.*;
+import bll.enumerators.EOperationType;
+import bll.enumerators.ERepetitionFrequency;
+import bll.repositories.IMovementRepository;
+import bll.repositories.MovementRepository;
+import bll.repositories.UserRepository;
+import bll.repositories.WalletRepository;
+import bll.services.SessionService;
+import bll.valueObjects.Attachment;
+import dal.infra.SoftDeletes;
+import dal.infra.UnitOfWork;
+import dal.infra.WalletMonthSummaries;
+import infra.EmbeddedDatabaseExtension;
+import infra.UserFixture;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(EmbeddedDatabaseExtension.class)
+public class BulkDeleteTest {
+    private static final int INSTALLMENTS = 120;
+
+    private IUser user;
+    private IUser other;
+    private IWallet wallet;
+
+    @BeforeEach
+    public void setUp() {
+        other = new UserFixture("janeDoe").save().getUser();
+        UserFixture fixture = new UserFixture().save().logIn();
+        user = fixture.getUser();
+        wallet = fixture.getWallet();
+
+        IMovementRepository movementRepository = MovementRepository.getInstance();
+        movementRepository.addInstallment(wallet, fixture.movement("Loan", "100", LocalDate.now(), EOperationType.DEBIT)
+                .addGroupID(UUID.randomUUID()).build(), ERepetitionFrequency.MONTHLY, INSTALLMENTS);
+        IMovement removed = fixture.movement("Groceries", "25", LocalDate.now(), EOperationType.DEBIT)
+                .addAttachments(new Attachment("www.ipvc.pt")).build();
+        movementRepository.add(wallet, removed);
+        movementRepository.remove(wallet, removed);
+        wallet = SessionService.getCurrentUser().getWallets().iterator().next();
+        statistics().clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SessionService.killSession();
+    }
+
+    @Test
+    public void shouldDeleteAUserWithoutLoadingItsMovements() {
+        SessionService.killSession();
+        IUser detached = UserRepository.getInstance().get(user.getID());
+        statistics().clear();
+        UserRepository.getInstance().remove(detached);
+
+        assertEquals(0, statistics().getEntityStatistics(Movement.class.getName()).getLoadCount());
+        assertNull(UserRepository.getInstance().get(user.getID()));
+        assertEquals(0, count("select count(m) from Movement m"));
+        assertEquals(1, count("select count(w) from Wallet w"));
+        assertEquals(2, count("select count(p) from Payee p"));
+        assertEquals(1, count("select count(c) from Credential c"));
+        assertEquals(1, count("select count(c) from MovementCategory c"));
+        assertTrue(WalletMonthSummaries.select(wallet.getID()).isEmpty());
+        assertNotNull(UserRepository.getInstance().get(other.getID()));
+    }
+
+    @Test
+    public void shouldDeleteAWalletWithoutLoadingItsMovements() {
+        WalletRepository.getInstance().remove(wallet);
+
+        assertEquals(0, statistics().getEntityStatistics(Movement.class.getName()).getLoadCount());
+        assertNull(WalletRepository.getInstance().get(wallet.getID()));
+        assertEquals(0, count("select count(m) from Movement m"));
+        assertEquals(1, count("select count(w) from Wallet w"));
+        assertEquals(3, count("select count(p) from Payee p"));
+        assertTrue(WalletMonthSummaries.select(wallet.getID()).isEmpty());
+        assertFalse(SessionService.getCurrentUser().getWallets().contains(wallet));
+    }
+
+    private static long count(String query) {
+        return SoftDeletes.includingInactive(() -> UnitOfWork.call(entityManager ->
+                entityManager.createQuery(query, Long.class).getSingleResult()));
+    }
+
+    private static Statistics statistics() {
+        Statistics statistics = UnitOfWork.call(entityManager ->
+                entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics());
+        statistics.setStatisticsEnabled(true);
+        return statistics;
+    }
+}
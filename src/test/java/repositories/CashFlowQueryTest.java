@@ -0,0 +1,122 @@
+package repositories;
+
+import bll.entities.*;
+import bll.enumerators.EOperationType;
+import bll.exceptions.NonExistentWalletException;
+import bll.exceptions.NullArgumentException;
+import bll.repositories.IMovementRepository;
+import bll.repositories.IWalletRepository;
+import bll.repositories.MovementRepository;
+import bll.repositories.WalletRepository;
+import bll.services.SessionService;
+import dal.infra.MovementHistory;
+import dal.infra.UnitOfWork;
+import infra.EmbeddedDatabaseExtension;
+import infra.UserFixture;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import static bll.entities.ICashFlow.MONTH_KEY;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(EmbeddedDatabaseExtension.class)
+public class CashFlowQueryTest {
+    private static final YearMonth REFERENCE = YearMonth.now();
+
+    private IWalletRepository walletRepository;
+    private IWallet wallet;
+
+    @BeforeEach
+    public void setUp() {
+        UserFixture fixture = new UserFixture().save().logIn();
+        wallet = fixture.getWallet();
+        walletRepository = WalletRepository.getInstance();
+
+        IMovementRepository movementRepository = MovementRepository.getInstance();
+        LocalDate day = REFERENCE.atDay(1);
+        IMovement salary = fixture.addMovement("Salary", "1500", day, EOperationType.CREDIT);
+        fixture.addMovement("Rent", "500", day, EOperationType.DEBIT);
+        IMovement lateRent = fixture.addMovement("Rent", "500", day.minusMonths(1), EOperationType.DEBIT);
+        IMovement bonus = fixture.addMovement("Bonus", "300", day.minusYears(1), EOperationType.CREDIT);
+        IMovement removed = fixture.addMovement("Groceries", "25", day, EOperationType.DEBIT);
+        fixture.addMovement("Groceries", "40.50", day.plusMonths(1), EOperationType.DEBIT);
+        for (IMovement movement : List.of(salary, bonus, lateRent))
+            movementRepository.confirm(wallet, movement, LocalDate.now());
+        movementRepository.remove(wallet, removed);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SessionService.killSession();
+    }
+
+    @Test
+    public void shouldMatchTheCashFlowsComputedFromTheMovements() {
+        Year year = Year.of(REFERENCE.getYear());
+        ICashFlow expected = UnitOfWork.call(entityManager -> {
+            IWallet loaded = entityManager.find(Wallet.class, wallet.getID());
+            loaded.getMovements().size();
+            loaded.loadHistory(year.minusYears(1), MovementHistory.selectSettled(wallet.getID(),
+                    MONTH_KEY.applyAsInt(year.minusYears(1).atMonth(1)), MONTH_KEY.applyAsInt(year.atMonth(1))));
+            return loaded;
+        });
+        ICashFlow actual = walletRepository.getCashFlow(wallet);
+
+        for (YearMonth month : List.of(REFERENCE.minusYears(1), REFERENCE.minusMonths(1), REFERENCE,
+                REFERENCE.plusMonths(1))) {
+            assertEquals(0, expected.getBalance(month).compareTo(actual.getBalance(month)));
+            assertEquals(0, expected.getCashInflow(month).compareTo(actual.getCashInflow(month)));
+            assertEquals(0, expected.getCashOutflow(month).compareTo(actual.getCashOutflow(month)));
+            assertEquals(0, expected.getBalanceExpected(month).compareTo(actual.getBalanceExpected(month)));
+            assertEquals(0, expected.getCashInflowExpected(month).compareTo(actual.getCashInflowExpected(month)));
+            assertEquals(0, expected.getCashOutflowExpected(month).compareTo(actual.getCashOutflowExpected(month)));
+        }
+        for (Year y : List.of(year.minusYears(1), year)) {
+            assertEquals(0, expected.getCashInflowInYear(y).compareTo(actual.getCashInflowInYear(y)));
+            assertEquals(0, expected.getCashOutflowInYear(y).compareTo(actual.getCashOutflowInYear(y)));
+            assertEquals(0, expected.getCashInflowInYearExpected(y).compareTo(actual.getCashInflowInYearExpected(y)));
+            assertEquals(0, expected.getCashOutflowInYearExpected(y).compareTo(actual.getCashOutflowInYearExpected(y)));
+        }
+        assertEquals(0, expected.getBalance().compareTo(actual.getBalance()));
+    }
+
+    @Test
+    public void shouldSumOnlyActiveAccomplishedMovements() {
+        ICashFlow cashFlow = walletRepository.getCashFlow(wallet);
+
+        assertEquals(0, new BigDecimal("1300").compareTo(cashFlow.getBalance(REFERENCE)));
+        assertEquals(0, new BigDecimal("-500").compareTo(cashFlow.getCashOutflow(REFERENCE)));
+        assertEquals(0, new BigDecimal("-500").compareTo(cashFlow.getCashOutflowExpected(REFERENCE)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(cashFlow.getBalance(REFERENCE.minusMonths(1))));
+    }
+
+    @Test
+    public void shouldNotLoadTheMovements() {
+        long loaded = UnitOfWork.call(entityManager -> {
+            walletRepository.getCashFlow(wallet);
+            Set<?> keys = entityManager.unwrap(Session.class).getStatistics().getEntityKeys();
+            return keys.stream().map(EntityKey.class::cast)
+                    .filter(key -> key.getEntityName().equals(Movement.class.getName())).count();
+        });
+
+        assertEquals(0, loaded);
+    }
+
+    @Test
+    public void shouldRejectWalletsOfOtherUsers() {
+        assertThrows(NullArgumentException.class, () -> walletRepository.getCashFlow(null));
+        assertThrows(NonExistentWalletException.class,
+                () -> walletRepository.getCashFlow(new Wallet("Other", new FormOfPayment("Cash"), new Payee("Other"))));
+    }
+}
@@ -0,0 +1,110 @@
+package repositories;
+
+import bll.entities.*;
+import bll.enumerators.EOperationType;
+import bll.exceptions.AttemptedToUseExcludedMovementException;
+import bll.repositories.IMovementRepository;
+import bll.repositories.MovementRepository;
+import bll.repositories.WalletRepository;
+import bll.services.SessionService;
+import dal.infra.IDAO;
+import dal.infra.MovementTombstones;
+import dal.infra.SoftDeletes;
+import dal.infra.UnitOfWork;
+import dal.infra.WalletMonthSummaries;
+import infra.EmbeddedDatabaseExtension;
+import infra.UserFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static dal.infra.MovementTombstones.DEFAULT_RETENTION;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(EmbeddedDatabaseExtension.class)
+public class CompactionTest {
+    private IMovementRepository movementRepository;
+    private IWallet wallet;
+    private IMovement rent;
+    private IMovement groceries;
+
+    @BeforeEach
+    public void setUp() {
+        UserFixture fixture = new UserFixture().save().logIn();
+        wallet = fixture.getWallet();
+        movementRepository = MovementRepository.getInstance();
+
+        rent = fixture.addMovement("Rent", "500", LocalDate.now(), EOperationType.DEBIT);
+        groceries = fixture.addMovement("Groceries", "40", LocalDate.now(), EOperationType.DEBIT);
+        fixture.addMovement("Salary", "1500", LocalDate.now(), EOperationType.CREDIT);
+        movementRepository.remove(wallet, rent);
+        movementRepository.remove(wallet, groceries);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SessionService.killSession();
+    }
+
+    @Test
+    public void shouldKeepInactiveMovementsInsideTheRetention() {
+        assertEquals(0, MovementTombstones.compact(DEFAULT_RETENTION, 10));
+
+        assertEquals(2, inactiveMovements());
+    }
+
+    @Test
+    public void shouldRemoveExpiredInactiveMovementsInBatches() {
+        String summaries = WalletMonthSummaries.select(wallet.getID()).toString();
+        expireRetention();
+
+        assertEquals(2, MovementTombstones.compact(DEFAULT_RETENTION, 1));
+
+        assertEquals(0, inactiveMovements());
+        assertEquals(1, WalletRepository.getInstance().get(wallet.getID()).getMovements().size());
+        assertEquals(summaries, WalletMonthSummaries.select(wallet.getID()).toString());
+        assertTrue(MovementTombstones.isExcluded(List.of(rent.getID(), groceries.getID())));
+    }
+
+    @Test
+    public void shouldNotAddAnInactiveMovementAgain() {
+        assertThrows(AttemptedToUseExcludedMovementException.class, () -> movementRepository.add(wallet, rent));
+    }
+
+    @Test
+    public void shouldNotAddACompactedMovementAgain() {
+        expireRetention();
+        MovementTombstones.compact(DEFAULT_RETENTION, 10);
+
+        assertThrows(AttemptedToUseExcludedMovementException.class, () -> movementRepository.add(wallet, rent));
+        assertEquals(1, WalletRepository.getInstance().get(wallet.getID()).getMovements().size());
+    }
+
+    @Test
+    public void shouldDeleteTheTombstonesWithTheWallet() {
+        expireRetention();
+        MovementTombstones.compact(DEFAULT_RETENTION, 10);
+
+        WalletRepository.getInstance().remove(SessionService.getCurrentUser().getWallets().iterator().next());
+
+        assertFalse(MovementTombstones.isExcluded(List.of(rent.getID(), groceries.getID())));
+    }
+
+    private static void expireRetention() {
+        IDAO.executeInsideTransaction(entityManager -> SoftDeletes.includingInactive(() -> entityManager.createQuery(
+                        "update Movement m set m.inactivationDate = :date where m.active = false")
+                .setParameter("date", LocalDate.now().minus(DEFAULT_RETENTION).minusDays(1))
+                .executeUpdate()));
+    }
+
+    private long inactiveMovements() {
+        return SoftDeletes.includingInactive(() -> UnitOfWork.call(entityManager -> entityManager.createQuery(
+                        "select count(m) from Movement m where m.walletID = :wallet and m.active = false", Long.class)
+                .setParameter("wallet", wallet.getID())
+                .getSingleResult()));
+    }
+}
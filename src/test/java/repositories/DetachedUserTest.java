@@ -0,0 +1,66 @@
+package repositories;
+
+import bll.entities.IMovement;
+import bll.entities.IUser;
+import bll.enumerators.EOperationType;
+import bll.repositories.IUserRepository;
+import bll.repositories.UserRepository;
+import bll.services.SessionService;
+import dal.infra.UnitOfWork;
+import infra.EmbeddedDatabaseExtension;
+import infra.UserFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(EmbeddedDatabaseExtension.class)
+public class DetachedUserTest {
+    private IUserRepository userRepository;
+    private IUser user;
+
+    @BeforeEach
+    public void setUp() {
+        UserFixture fixture = new UserFixture().save().logIn();
+        user = fixture.getUser();
+        userRepository = UserRepository.getInstance();
+        fixture.addMovement("Rent", "300", LocalDate.now(), EOperationType.DEBIT);
+        SessionService.killSession();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SessionService.killSession();
+    }
+
+    @Test
+    public void shouldCloneAUserLoadedOutsideAUnitOfWork() {
+        IUser loaded = userRepository.get(user.getID());
+
+        assertFalse(UnitOfWork.isActive());
+        IUser copy = assertDoesNotThrow(loaded::clone);
+        assertEquals(Set.of("Rent"), movementNames(copy));
+        assertEquals(user.getPayee(), copy.getPayee());
+        assertEquals(user.getCategory(), copy.getCategory());
+    }
+
+    @Test
+    public void shouldCloneEveryUserLoadedOutsideAUnitOfWork() {
+        Set<IUser> loaded = userRepository.getAll();
+
+        assertFalse(UnitOfWork.isActive());
+        assertEquals(1, loaded.size());
+        assertEquals(Set.of("Rent"), movementNames(assertDoesNotThrow(loaded.iterator().next()::clone)));
+    }
+
+    private static Set<String> movementNames(IUser user) {
+        return user.getWallets().stream().flatMap(wallet -> wallet.getMovements().stream())
+                .map(IMovement::getName).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,100 @@
+package repositories;
+
+import bll.entities.*;
+import bll.enumerators.EOperationType;
+import bll.repositories.IMovementRepository;
+import bll.repositories.MovementRepository;
+import bll.repositories.WalletRepository;
+import bll.services.SessionService;
+import dal.infra.WalletMonthSummaries;
+import dal.infra.WalletMonthSummary;
+import infra.EmbeddedDatabaseExtension;
+import infra.UserFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(EmbeddedDatabaseExtension.class)
+public class MonthSummaryTest {
+    private UserFixture fixture;
+    private IMovementRepository movementRepository;
+    private IWallet wallet;
+
+    @BeforeEach
+    public void setUp() {
+        fixture = new UserFixture().save().logIn();
+        wallet = fixture.getWallet();
+        movementRepository = MovementRepository.getInstance();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SessionService.killSession();
+    }
+
+    @Test
+    public void shouldSummarizeAddedAndConfirmedMovements() {
+        IMovement salary = fixture.addMovement("Salary", "1500", LocalDate.now().withDayOfMonth(1), EOperationType.CREDIT);
+        fixture.addMovement("Rent", "500", LocalDate.now().plusMonths(1), EOperationType.DEBIT);
+        movementRepository.confirm(wallet, salary, LocalDate.now());
+
+        List<WalletMonthSummary> summaries = WalletMonthSummaries.select(wallet.getID());
+
+        assertEquals(2, summaries.size());
+        WalletMonthSummary current = summaries.get(0);
+        assertEquals(YearMonth.now(), current.getMonth());
+        assertEquals(1, current.getRealizedCount());
+        assertEquals(0, new BigDecimal("1500").compareTo(current.getRealizedCredit()));
+        assertEquals(1, current.getExpectedCount());
+        assertEquals(0, new BigDecimal("1500").compareTo(current.getExpectedCredit()));
+        WalletMonthSummary next = summaries.get(1);
+        assertEquals(YearMonth.now().plusMonths(1), next.getMonth());
+        assertEquals(0, next.getRealizedCount());
+        assertEquals(0, new BigDecimal("-500").compareTo(next.getExpectedDebit()));
+    }
+
+    @Test
+    public void shouldMatchARebuildAfterUpdatesAndRemovals() {
+        IMovement salary = fixture.addMovement("Salary", "1500", LocalDate.now().withDayOfMonth(1), EOperationType.CREDIT);
+        IMovement rent = fixture.addMovement("Rent", "500", LocalDate.now().plusMonths(1), EOperationType.DEBIT);
+        IMovement groceries = fixture.addMovement("Groceries", "40", LocalDate.now(), EOperationType.DEBIT);
+        movementRepository.confirm(wallet, salary, LocalDate.now());
+        rent.updateAmount(new BigDecimal("650"));
+        movementRepository.update(wallet, rent);
+        movementRepository.remove(wallet, groceries);
+
+        List<String> maintained = describe(WalletMonthSummaries.select(wallet.getID()));
+        assertEquals(2, WalletMonthSummaries.rebuild());
+
+        assertEquals(maintained, describe(WalletMonthSummaries.select(wallet.getID())));
+    }
+
+    @Test
+    public void shouldDropTheSummaryOfAMonthWithoutMovements() {
+        IMovement groceries = fixture.addMovement("Groceries", "40", LocalDate.now(), EOperationType.DEBIT);
+        movementRepository.remove(wallet, groceries);
+
+        assertTrue(WalletMonthSummaries.select(wallet.getID()).isEmpty());
+    }
+
+    @Test
+    public void shouldRemoveTheSummariesWithTheWallet() {
+        fixture.addMovement("Groceries", "40", LocalDate.now(), EOperationType.DEBIT);
+        WalletRepository.getInstance().remove(SessionService.getCurrentUser().getWallets().iterator().next());
+
+        assertTrue(WalletMonthSummaries.select(wallet.getID()).isEmpty());
+    }
+
+    private static List<String> describe(List<WalletMonthSummary> summaries) {
+        return summaries.stream().map(WalletMonthSummary::toString).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,110 @@
+package repositories;
+
+import bll.entities.IWallet;
+import dal.infra.MovementArchive;
+import dal.infra.MovementArchives;
+import dal.infra.UnitOfWork;
+import dal.infra.WalletMonthSummaries;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MovementArchiveTest extends SettledMovementsFixture {
+
+    @Test
+    public void shouldMoveClosedYearsToTheArchive() {
+        assertEquals(2, MovementArchives.archive(YEAR));
+
+        List<MovementArchive> archives = MovementArchives.select(wallet.getID());
+        assertEquals(List.of(YEAR.minusYears(2), YEAR.minusYears(1)),
+                archives.stream().map(MovementArchive::getYear).collect(Collectors.toList()));
+        assertEquals(0, new BigDecimal("1000").compareTo(archives.get(0).getSettledAmount()));
+        assertEquals(0, new BigDecimal("200").compareTo(archives.get(1).getSettledAmount()));
+        assertEquals(2, liveMovements());
+    }
+
+    @Test
+    public void shouldReadTheArchiveTransparently() {
+        MovementArchives.archive(YEAR);
+        logIn();
+
+        assertEquals(Set.of("Rent", "Insurance"), names(sessionWallet().getMovements()));
+        assertEquals(0, new BigDecimal("900").compareTo(sessionWallet().getBalance()));
+        assertEquals(Set.of("Bonus"), names(walletRepository.getYearOperations(wallet, YEAR.minusYears(1))));
+        YearMonth end = YEAR.minusYears(2).atMonth(12);
+        assertEquals(Set.of("Savings", "Insurance"),
+                names(walletRepository.getOperationsBetween(wallet, YEAR.minusYears(2).atMonth(1), end)));
+        assertEquals(0, new BigDecimal("1000").compareTo(sessionWallet().getBalance(end)));
+        assertEquals(0, new BigDecimal("1000").compareTo(walletRepository.getCashFlow(wallet).getBalance(end)));
+        assertEquals(0, new BigDecimal("900").compareTo(walletRepository.getCashFlow(wallet).getBalance()));
+    }
+
+    @Test
+    public void shouldReadTheArchiveWhenAWalletIsQueried() {
+        MovementArchives.archive(YEAR);
+        logIn();
+
+        IWallet held = sessionWallet();
+        assertEquals(Set.of("Savings", "Insurance"), names(held.getYearOperations(YEAR.minusYears(2))));
+        assertEquals(0, new BigDecimal("1200").compareTo(held.getBalance(YEAR.minusYears(1).atMonth(12))));
+    }
+
+    @Test
+    public void shouldKeepTheSummariesOfTheArchivedMovements() {
+        String before = WalletMonthSummaries.select(wallet.getID()).toString();
+        MovementArchives.archive(YEAR);
+        WalletMonthSummaries.rebuild();
+
+        assertEquals(before, WalletMonthSummaries.select(wallet.getID()).toString());
+    }
+
+    @Test
+    public void shouldWriteTheVersionAndCountAtTheStartOfThePayload() throws IOException {
+        MovementArchives.archive(YEAR);
+
+        byte[] payload = UnitOfWork.call(entityManager -> entityManager.createQuery(
+                        "select a.payload from MovementArchive a where a.walletID = :wallet and a.year = :year",
+                        byte[].class)
+                .setParameter("wallet", wallet.getID())
+                .setParameter("year", YEAR.minusYears(2).getValue())
+                .getSingleResult());
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(payload)))) {
+            assertEquals(1, in.readInt());
+            assertEquals(1, in.readInt());
+        }
+    }
+
+    @Test
+    public void shouldArchiveOnlyClosedYearsOnce() {
+        assertEquals(2, MovementArchives.archive(YEAR.plusYears(5)));
+        assertEquals(0, MovementArchives.archive(YEAR));
+        assertEquals(2, MovementArchives.select(wallet.getID()).size());
+    }
+
+    @Test
+    public void shouldDeleteTheArchivesWithTheWallet() {
+        MovementArchives.archive(YEAR);
+        logIn();
+
+        walletRepository.remove(sessionWallet());
+
+        assertTrue(MovementArchives.select(wallet.getID()).isEmpty());
+    }
+
+    private long liveMovements() {
+        return UnitOfWork.call(entityManager -> entityManager.createQuery(
+                        "select count(m) from Movement m where m.walletID = :wallet", Long.class)
+                .setParameter("wallet", wallet.getID())
+                .getSingleResult());
+    }
+}
@@ -0,0 +1,85 @@
+package repositories;
+
+import bll.entities.*;
+import bll.exceptions.NonExistentWalletException;
+import bll.repositories.MovementRepository;
+import dal.infra.WalletMonthSummaries;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MovementHistoryTest extends SettledMovementsFixture {
+
+    @Test
+    public void shouldLoadTheCurrentYearAndThePendingMovements() {
+        IWallet loaded = walletRepository.get(wallet.getID());
+
+        assertEquals(Set.of("Rent", "Insurance"), names(loaded.getMovements()));
+        assertEquals(0, new BigDecimal("900").compareTo(loaded.getBalance()));
+        assertEquals(0, new BigDecimal("850").compareTo(loaded.getBalanceExpected()));
+        assertEquals(0, walletRepository.getCashFlow(wallet).getBalance().compareTo(loaded.getBalance()));
+        assertTrue(loaded.isHistoryLoaded(YEAR.atMonth(1)));
+        assertFalse(loaded.isHistoryLoaded(YEAR.minusYears(1).atMonth(12)));
+    }
+
+    @Test
+    public void shouldLoadOlderYearsWhenAWalletIsQueried() {
+        IWallet loaded = walletRepository.get(wallet.getID());
+
+        assertEquals(Set.of("Bonus"), names(loaded.getYearOperations(YEAR.minusYears(1))));
+        assertTrue(loaded.isHistoryLoaded(YEAR.minusYears(1).atMonth(1)));
+        assertEquals(0, new BigDecimal("1200").compareTo(loaded.getBalance(YEAR.minusYears(1).atMonth(12))));
+        assertEquals(0, new BigDecimal("900").compareTo(loaded.getBalance()));
+
+        IWallet held = sessionWallet();
+        assertFalse(held.isHistoryLoaded(YEAR.minusYears(2).atMonth(12)));
+        assertEquals(Set.of("Savings", "Insurance"), names(held.getOperationsBetween(YEAR.minusYears(2).atMonth(1),
+                YEAR.minusYears(2).atMonth(12))));
+        assertEquals(0, new BigDecimal("1000").compareTo(held.getBalance(YEAR.minusYears(2).atMonth(12))));
+    }
+
+    @Test
+    public void shouldLoadOlderYearsOnDemand() {
+        assertEquals(Set.of("Bonus"), names(walletRepository.getYearOperations(wallet, YEAR.minusYears(1))));
+
+        IWallet held = sessionWallet();
+        assertTrue(held.isHistoryLoaded(YEAR.minusYears(1).atMonth(1)));
+        assertFalse(held.isHistoryLoaded(YEAR.minusYears(2).atMonth(12)));
+        assertEquals(0, new BigDecimal("900").compareTo(held.getBalance()));
+        assertEquals(0, new BigDecimal("1200").compareTo(held.getBalance(YEAR.minusYears(1).atMonth(12))));
+
+        YearMonth start = YEAR.minusYears(2).atMonth(1);
+        YearMonth end = YEAR.minusYears(2).atMonth(12);
+        assertEquals(Set.of("Savings", "Insurance"), names(walletRepository.getOperationsBetween(wallet, end, start)));
+        assertEquals(0, new BigDecimal("1000").compareTo(sessionWallet().getBalance(end)));
+        assertEquals(0, walletRepository.getCashFlow(wallet).getBalanceExpected(end)
+                .compareTo(sessionWallet().getBalanceExpected(end)));
+    }
+
+    @Test
+    public void shouldKeepTheOpeningBalanceWhenPendingMovementsAreConfirmed() {
+        MovementRepository.getInstance().confirm(sessionWallet(), pending, LocalDate.now());
+        logIn();
+
+        IWallet loaded = walletRepository.get(wallet.getID());
+        assertEquals(0, new BigDecimal("850").compareTo(loaded.getBalance()));
+        assertEquals(WalletMonthSummaries.select(wallet.getID()).toString(), rebuilt());
+    }
+
+    @Test
+    public void shouldNotLoadTheHistoryOfOtherWallets() {
+        IWallet other = new Wallet("Other", new FormOfPayment("Cash"), new Payee("Other"));
+
+        assertThrows(NonExistentWalletException.class, () -> walletRepository.getYearOperations(other, YEAR));
+    }
+
+    private String rebuilt() {
+        WalletMonthSummaries.rebuild();
+        return WalletMonthSummaries.select(wallet.getID()).toString();
+    }
+}
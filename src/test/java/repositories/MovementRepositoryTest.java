@@ -0,0 +1,142 @@
+package repositories;
+
+import bll.entities.*;
+import bll.enumerators.EOperationType;
+import bll.enumerators.ERepetitionFrequency;
+import bll.exceptions.NonExistentWalletException;
+import bll.repositories.*;
+import bll.services.SessionService;
+import dal.infra.UnitOfWork;
+import infra.EmbeddedDatabaseExtension;
+import infra.UserFixture;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(EmbeddedDatabaseExtension.class)
+public class MovementRepositoryTest {
+    private static final int HISTORY = 100;
+    private UserFixture fixture;
+    private IMovementRepository movementRepository;
+    private IUser user;
+    private IWallet wallet;
+
+    @BeforeEach
+    public void setUp() {
+        fixture = new UserFixture().save();
+        user = fixture.getUser();
+        wallet = fixture.getWallet();
+        wallet.addInstallment(carLoan(), ERepetitionFrequency.MONTHLY, HISTORY);
+        user.updateWallet(wallet);
+        UserRepository.getInstance().update(user);
+
+        fixture.logIn();
+        movementRepository = MovementRepository.getInstance();
+        statistics().clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SessionService.killSession();
+    }
+
+    @Test
+    public void shouldInsertOnlyTheNewMovement() {
+        IMovement movement = groceries();
+        movementRepository.add(wallet, movement);
+
+        assertEquals(1, movementStatistics().getInsertCount());
+        assertEquals(0, movementStatistics().getUpdateCount());
+        assertEquals(0, statistics().getCollectionLoadCount());
+        assertEquals(HISTORY + 1, countMovements());
+        assertTrue(movementRepository.get(wallet, m -> m.equals(movement)).contains(movement));
+        assertNotNull(movementRepository.get(movement.getID()));
+    }
+
+    @Test
+    public void shouldInsertAnInstallmentPlanWithoutTouchingTheHistory() {
+        movementRepository.addInstallment(wallet, carLoan(),
+                ERepetitionFrequency.MONTHLY, 12);
+
+        assertEquals(12, movementStatistics().getInsertCount());
+        assertEquals(0, movementStatistics().getUpdateCount());
+        assertEquals(0, statistics().getCollectionLoadCount());
+        assertEquals(HISTORY + 12, countMovements());
+    }
+
+    @Test
+    public void shouldUpdateOnlyTheRemovedMovement() {
+        IMovement movement = groceries();
+        movementRepository.add(wallet, movement);
+        statistics().clear();
+
+        movementRepository.remove(wallet, movement);
+
+        assertEquals(0, movementStatistics().getInsertCount());
+        assertEquals(1, movementStatistics().getUpdateCount());
+        assertTrue(movementRepository.get(movement.getID()).isInactive());
+    }
+
+    @Test
+    public void shouldThrowExceptionWithWalletOfAnotherUser() {
+        IWallet otherWallet = new Wallet("Other", fixture.getFormOfPayment(), new Payee("Other"));
+        assertThrows(NonExistentWalletException.class,
+                () -> movementRepository.add(otherWallet, groceries()));
+    }
+
+    @Test
+    public void shouldInsertOnlyTheNewPayee() {
+        IPayee newPayee = new Payee("Market");
+        PayeeRepository.getInstance().add(newPayee);
+
+        assertEquals(1, statistics().getEntityInsertCount());
+        assertEquals(0, statistics().getEntityUpdateCount());
+        int payees = UnitOfWork.call(entityManager -> UserRepository.getInstance().get(user.getID()).getPayee().size());
+        assertEquals(2, payees);
+    }
+
+    @Test
+    public void shouldInsertTheNewWalletForTheUserInSession() {
+        IWallet newWallet = new Wallet("Savings", fixture.getFormOfPayment(), new Payee("Savings"));
+        WalletRepository.getInstance().add(newWallet);
+
+        assertEquals(0, statistics().getCollectionLoadCount());
+        assertEquals(newWallet, WalletRepository.getInstance().get(newWallet.getID()));
+        int wallets = UnitOfWork.call(entityManager -> UserRepository.getInstance().get(user.getID()).getWallets().size());
+        assertEquals(2, wallets);
+    }
+
+    private IMovement groceries() {
+        return fixture.movement("Groceries", "25", LocalDate.now(), EOperationType.DEBIT).build();
+    }
+
+    private IMovement carLoan() {
+        return fixture.movement("Car loan", "150", LocalDate.now(), EOperationType.DEBIT)
+                .addGroupID(UUID.randomUUID()).build();
+    }
+
+    private static long countMovements() {
+        return UnitOfWork.call(entityManager ->
+                entityManager.createQuery("select count(m) from Movement m", Long.class).getSingleResult());
+    }
+
+    private static Statistics statistics() {
+        Statistics statistics = UnitOfWork.call(entityManager ->
+                entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics());
+        statistics.setStatisticsEnabled(true);
+        return statistics;
+    }
+
+    private static EntityStatistics movementStatistics() {
+        return statistics().getEntityStatistics(Movement.class.getName());
+    }
+}
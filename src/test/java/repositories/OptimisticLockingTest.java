@@ -0,0 +1,136 @@
+package repositories;
+
+import bll.entities.*;
+import bll.enumerators.EOperationType;
+import bll.exceptions.ConcurrentUpdateException;
+import bll.repositories.IMovementRepository;
+import bll.repositories.MovementRepository;
+import bll.repositories.UserRepository;
+import bll.repositories.WalletRepository;
+import bll.services.SessionService;
+import dal.infra.IDAO;
+import dal.infra.MovementDAO;
+import dal.infra.WalletDAO;
+import infra.EmbeddedDatabaseExtension;
+import infra.UserFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(EmbeddedDatabaseExtension.class)
+public class OptimisticLockingTest {
+    private UserFixture fixture;
+    private IMovementRepository movementRepository;
+    private IUser user;
+    private IWallet wallet;
+    private IWallet otherWallet;
+
+    @BeforeEach
+    public void setUp() {
+        fixture = new UserFixture();
+        user = fixture.getUser();
+        user.addWallet(new Wallet("Savings", new FormOfPayment("Transfer"), new Payee("Savings")));
+        fixture.save().logIn();
+        wallet = walletNamed(UserFixture.WALLET);
+        otherWallet = walletNamed("Savings");
+        movementRepository = MovementRepository.getInstance();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SessionService.killSession();
+    }
+
+    @Test
+    public void shouldWriteTheSessionCopyRepeatedly() {
+        IMovement movement = newMovement();
+        movementRepository.add(wallet, movement);
+        movementRepository.add(wallet, newMovement());
+        movement.updateName("Market");
+        movementRepository.update(wallet, movement);
+        IWallet renamed = walletNamed(UserFixture.WALLET);
+        renamed.updateName("Current");
+        WalletRepository.getInstance().update(renamed);
+
+        assertDoesNotThrow(() -> UserRepository.getInstance().update(SessionService.getCurrentUser()));
+        assertDoesNotThrow(() -> movementRepository.remove(wallet, movement));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenTheWalletWasChangedElsewhere() {
+        changeElsewhere(wallet, "Changed");
+
+        IMovement movement = newMovement();
+        assertThrows(ConcurrentUpdateException.class, () -> movementRepository.add(wallet, movement));
+        assertTrue(movementRepository.get(wallet, m -> true).isEmpty());
+    }
+
+    @Test
+    public void shouldApplyTheRetryToTheCurrentWallet() {
+        changeElsewhere(wallet, "Changed");
+        IMovement movement = newMovement();
+        assertThrows(ConcurrentUpdateException.class, () -> movementRepository.add(wallet, movement));
+
+        movementRepository.add(wallet, movement);
+
+        assertNotNull(walletNamed("Changed"));
+        assertNotNull(movementRepository.get(movement.getID()));
+    }
+
+    @Test
+    public void shouldNotConflictWithWritersOfAnotherWallet() {
+        changeElsewhere(otherWallet, "Changed");
+
+        assertDoesNotThrow(() -> movementRepository.add(wallet, newMovement()));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenTheMovementWasChangedElsewhere() {
+        IMovement movement = newMovement();
+        movementRepository.add(wallet, movement);
+        IDAO<IMovement> movementDAO = MovementDAO.getInstance();
+        IMovement elsewhere = movementDAO.select(movement.getID());
+        elsewhere.updateAmount(new BigDecimal("30"));
+        movementDAO.update(elsewhere);
+
+        movement.updateAmount(new BigDecimal("40"));
+        assertThrows(ConcurrentUpdateException.class, () -> movementRepository.update(wallet, movement));
+        assertEquals(0, new BigDecimal("30").compareTo(movementRepository.get(movement.getID()).getAmount().abs()));
+    }
+
+    @Test
+    public void shouldThrowExceptionWithStaleUser() {
+        IUser first = UserRepository.getInstance().get(user.getID());
+        IUser second = UserRepository.getInstance().get(user.getID());
+        first.updateName("First Writer");
+        UserRepository.getInstance().update(first);
+
+        second.updateName("Second Writer");
+        assertThrows(ConcurrentUpdateException.class, () -> UserRepository.getInstance().update(second));
+        assertEquals("First Writer", UserRepository.getInstance().get(user.getID()).getName());
+    }
+
+    private void changeElsewhere(IWallet target, String name) {
+        IDAO<IWallet> walletDAO = WalletDAO.getInstance();
+        IWallet elsewhere = walletDAO.select(target.getID());
+        elsewhere.updateName(name);
+        walletDAO.update(elsewhere);
+    }
+
+    private IWallet walletNamed(String name) {
+        for (IWallet w : SessionService.getCurrentUser().getWallets())
+            if (w.getName().equals(name))
+                return w;
+        return null;
+    }
+
+    private IMovement newMovement() {
+        return fixture.movement("Groceries", "25", LocalDate.now(), EOperationType.DEBIT).build();
+    }
+}
@@ -0,0 +1,91 @@
+package repositories;
+
+import bll.entities.IMovement;
+import bll.entities.IWallet;
+import bll.enumerators.EOperationType;
+import bll.repositories.IMovementRepository;
+import bll.repositories.IWalletRepository;
+import bll.repositories.MovementRepository;
+import bll.repositories.WalletRepository;
+import bll.services.SessionService;
+import dal.infra.IDAO;
+import dal.infra.WalletMonthSummaries;
+import infra.EmbeddedDatabaseExtension;
+import infra.UserFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static bll.entities.ICashFlow.MONTH_KEY;
+import static bll.services.AuthenticationService.authenticationServiceDefault;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Wallet with movements settled two years ago, last year and this year, and one pending movement due two years
+ * ago, shared by the tests of the history of settled movements. Each test starts logged in.
+ */
+@ExtendWith(EmbeddedDatabaseExtension.class)
+abstract class SettledMovementsFixture {
+    static final Year YEAR = Year.now();
+
+    IWalletRepository walletRepository;
+    IWallet wallet;
+    IMovement pending;
+
+    @BeforeEach
+    public void setUp() {
+        UserFixture fixture = new UserFixture().save().logIn();
+        wallet = fixture.getWallet();
+        walletRepository = WalletRepository.getInstance();
+
+        IMovementRepository movementRepository = MovementRepository.getInstance();
+        IMovement savings = fixture.addMovement("Savings", "1000", YEAR.minusYears(2).atDay(10), EOperationType.CREDIT);
+        IMovement bonus = fixture.addMovement("Bonus", "200", YEAR.minusYears(1).atDay(60), EOperationType.CREDIT);
+        IMovement rent = fixture.addMovement("Rent", "300", LocalDate.now(), EOperationType.DEBIT);
+        pending = fixture.addMovement("Insurance", "50", YEAR.minusYears(2).atDay(150), EOperationType.DEBIT);
+        for (IMovement movement : List.of(savings, bonus, rent))
+            movementRepository.confirm(wallet, movement, LocalDate.now());
+        settleBeforeThisYear();
+        logIn();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SessionService.killSession();
+    }
+
+    IWallet sessionWallet() {
+        for (IWallet w : SessionService.getCurrentUser().getWallets())
+            if (w.equals(wallet))
+                return w;
+        return null;
+    }
+
+    /**
+     * Moves the accomplish date of the movements due in previous years to their due date, as if they had been
+     * confirmed back then.
+     */
+    static void settleBeforeThisYear() {
+        IDAO.executeInsideTransaction(entityManager -> entityManager.createQuery(
+                        "update Movement m set m.accomplishDate = m.dueDate, m.accomplishMonth = m.dueMonth " +
+                                "where m.accomplished = true and m.dueMonth < :horizon")
+                .setParameter("horizon", MONTH_KEY.applyAsInt(YEAR.atMonth(1)))
+                .executeUpdate());
+        WalletMonthSummaries.rebuild();
+    }
+
+    static void logIn() {
+        SessionService.killSession();
+        assertTrue(authenticationServiceDefault().authenticate(UserFixture.ACCESS_KEY, UserFixture.PASSWORD));
+    }
+
+    static Set<String> names(Set<IMovement> movements) {
+        return movements.stream().map(IMovement::getName).collect(Collectors.toSet());
+    }
+}
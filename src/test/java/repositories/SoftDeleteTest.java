@@ -0,0 +1,91 @@
+package repositories;
+
+import bll.entities.*;
+import bll.enumerators.EOperationType;
+import bll.repositories.FormOfPaymentRepository;
+import bll.repositories.IFormOfPaymentRepository;
+import bll.repositories.IMovementRepository;
+import bll.repositories.MovementRepository;
+import bll.services.SessionService;
+import dal.infra.SoftDeletes;
+import dal.infra.UnitOfWork;
+import infra.EmbeddedDatabaseExtension;
+import infra.UserFixture;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(EmbeddedDatabaseExtension.class)
+public class SoftDeleteTest {
+    private IMovementRepository movementRepository;
+    private IWallet wallet;
+    private IMovement removed;
+
+    @BeforeEach
+    public void setUp() {
+        UserFixture fixture = new UserFixture().save().logIn();
+        wallet = fixture.getWallet();
+        movementRepository = MovementRepository.getInstance();
+
+        removed = fixture.addMovement("Groceries", "25", LocalDate.now(), EOperationType.DEBIT);
+        fixture.addMovement("Rent", "500", LocalDate.now(), EOperationType.DEBIT);
+        movementRepository.remove(wallet, removed);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SessionService.killSession();
+    }
+
+    @Test
+    public void shouldLoadOnlyTheActiveMovementsOfTheWallet() {
+        long loaded = UnitOfWork.call(entityManager -> {
+            entityManager.find(Wallet.class, wallet.getID()).getMovements();
+            Set<?> keys = entityManager.unwrap(Session.class).getStatistics().getEntityKeys();
+            return keys.stream().map(EntityKey.class::cast)
+                    .filter(key -> key.getEntityName().equals(Movement.class.getName())).count();
+        });
+
+        assertEquals(1, loaded);
+    }
+
+    @Test
+    public void shouldIncludeInactiveRowsOnlyWhenRequested() {
+        assertEquals(1, countMovements());
+        assertEquals(2, (long) SoftDeletes.includingInactive(SoftDeleteTest::countMovements));
+        long afterOptingIn = UnitOfWork.call(entityManager -> {
+            SoftDeletes.includingInactive(SoftDeleteTest::countMovements);
+            return countMovements();
+        });
+        assertEquals(1, afterOptingIn);
+    }
+
+    @Test
+    public void shouldLoadInactiveEntitiesByIdentifier() {
+        assertTrue(movementRepository.get(removed.getID()).isInactive());
+    }
+
+    @Test
+    public void shouldNotReturnInactiveFormsOfPayment() {
+        IFormOfPaymentRepository formOfPaymentRepository = FormOfPaymentRepository.defaultFormOfPaymentRepository();
+        IFormOfPayment cash = new FormOfPayment("Cash");
+        formOfPaymentRepository.add(cash);
+        formOfPaymentRepository.remove(cash);
+
+        assertFalse(formOfPaymentRepository.get(f -> true).contains(cash));
+        assertFalse(formOfPaymentRepository.getAll().contains(cash));
+    }
+
+    private static long countMovements() {
+        return UnitOfWork.call(entityManager ->
+                entityManager.createQuery("select count(m) from Movement m", Long.class).getSingleResult());
+    }
+}
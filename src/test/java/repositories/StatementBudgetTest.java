@@ -0,0 +1,128 @@
+package repositories;
+
+import bll.entities.*;
+import bll.enumerators.EOperationType;
+import bll.enumerators.ERole;
+import bll.enumerators.EUserState;
+import bll.repositories.IMovementRepository;
+import bll.repositories.MovementRepository;
+import bll.repositories.UserRepository;
+import bll.repositories.WalletRepository;
+import bll.services.SessionService;
+import bll.valueObjects.Attachment;
+import bll.valueObjects.Email;
+import dal.infra.StatementRecorder;
+import infra.EmbeddedDatabaseExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static bll.services.AuthenticationService.authenticationServiceDefault;
+import static bll.services.IdentificationService.identificationServiceDefault;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(EmbeddedDatabaseExtension.class)
+public class StatementBudgetTest {
+    private static final int USERS = 20;
+    private static final int MOVEMENTS = 30;
+    private static final String ACCESS_KEY = "user7";
+    private static final String PASSWORD = "password123";
+    /**
+     * The user with its credential, states and roles, then its wallets, their forms of payment, movements and
+     * attachments, its payees and its categories.
+     */
+    private static final int LOGIN_BUDGET = 7;
+    private static final int OPEN_WALLET_BUDGET = 5;
+
+    private IWallet wallet;
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < USERS; i++) {
+            IUser user = new User("User number " + i, new Credential("user" + i, PASSWORD),
+                    List.of(EUserState.ACTIVE), List.of(ERole.SIMPLE), new Email("user" + i + "@ipvc.pt"));
+            user.addPayee(new Payee("Bank"));
+            user.addCategory(new MovementCategory("Loan"));
+            user.addCategory(new MovementCategory("Food"));
+            user.addWallet(new Wallet("Main", new FormOfPayment("Card"), new Payee("Main")));
+            user.addWallet(new Wallet("Savings", new FormOfPayment("Cash"), new Payee("Savings")));
+            UserRepository.getInstance().add(user);
+        }
+        assertTrue(authenticationServiceDefault().authenticate(ACCESS_KEY, PASSWORD));
+        wallet = SessionService.getCurrentUser().getWallets().iterator().next();
+        addMovements(MOVEMENTS);
+        SessionService.killSession();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SessionService.killSession();
+    }
+
+    @Test
+    public void shouldIdentifyTheUserInOneStatement() {
+        List<String> statements = StatementRecorder.record(() ->
+                assertNotNull(identificationServiceDefault().identifyUser(ACCESS_KEY)));
+
+        assertEquals(1, statements.size(), () -> String.join("\n", statements));
+    }
+
+    @Test
+    public void shouldLogInWithinBudget() {
+        List<String> statements = StatementRecorder.record(() ->
+                assertTrue(authenticationServiceDefault().authenticate(ACCESS_KEY, PASSWORD)));
+
+        assertTrue(statements.size() <= LOGIN_BUDGET, () -> String.join("\n", statements));
+    }
+
+    @Test
+    public void shouldOpenAWalletWithinBudget() {
+        List<String> statements = StatementRecorder.record(() ->
+                assertEquals(MOVEMENTS, WalletRepository.getInstance().get(wallet.getID()).getMovements().size()));
+
+        assertTrue(statements.size() <= OPEN_WALLET_BUDGET, () -> String.join("\n", statements));
+    }
+
+    @Test
+    public void shouldNotGrowWithTheNumberOfMovements() {
+        int before = StatementRecorder.record(() -> WalletRepository.getInstance().get(wallet.getID())).size();
+        assertTrue(authenticationServiceDefault().authenticate(ACCESS_KEY, PASSWORD));
+        addMovements(MOVEMENTS);
+        SessionService.killSession();
+
+        assertEquals(before, StatementRecorder.record(() -> WalletRepository.getInstance().get(wallet.getID())).size());
+    }
+
+    @Test
+    public void shouldCountNestedRecordingsInTheEnclosingOne() {
+        List<String> nested = new ArrayList<>();
+        List<String> statements = StatementRecorder.record(() -> {
+            identificationServiceDefault().identifyUser(ACCESS_KEY);
+            nested.addAll(StatementRecorder.record(() -> identificationServiceDefault().identifyUser(ACCESS_KEY)));
+        });
+
+        assertEquals(1, nested.size());
+        assertEquals(2, statements.size());
+    }
+
+    private void addMovements(int count) {
+        IUser user = SessionService.getCurrentUser();
+        IFormOfPayment formOfPayment = wallet.getFormOfPayment().iterator().next();
+        IPayee payee = user.getPayee().iterator().next();
+        IMovementRepository movementRepository = MovementRepository.getInstance();
+        int i = 0;
+        for (IMovementCategory category : user.getCategory())
+            for (int j = 0; j < count / user.getCategory().size(); j++, i++) {
+                IMovement movement = new Movement("Movement " + i, new BigDecimal("10"), LocalDate.now(),
+                        formOfPayment, payee, category, EOperationType.CREDIT);
+                movement.addAttachment(new Attachment("www.ipvc.pt/" + i));
+                movementRepository.add(wallet, movement);
+            }
+    }
+}
@@ -0,0 +1,89 @@
+package repositories;
+
+import bll.entities.Credential;
+import bll.entities.IMovementCategory;
+import bll.entities.MovementCategory;
+import bll.entities.User;
+import bll.enumerators.ERole;
+import bll.enumerators.EUserState;
+import bll.projections.CategorySummary;
+import bll.projections.UserSummary;
+import bll.repositories.IUserRepository;
+import bll.repositories.MovementCategoryRepository;
+import bll.repositories.UserRepository;
+import bll.valueObjects.Email;
+import dal.infra.MovementCategoryDAO;
+import infra.EmbeddedDatabaseExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(EmbeddedDatabaseExtension.class)
+public class SummaryQueryTest {
+    private IUserRepository userRepository;
+
+    @BeforeEach
+    public void setUp() {
+        userRepository = UserRepository.getInstance();
+        userRepository.add(new User("Mary Jane", new Credential("mary_jane", "password123"),
+                List.of(EUserState.ACTIVE), List.of(ERole.SIMPLE, ERole.ADMIN), new Email("mary.jane@ipvc.pt")));
+        userRepository.add(new User("john Doe", new Credential("johnDoe", "password123"),
+                List.of(EUserState.ACTIVE), List.of(ERole.SIMPLE), new Email("john.doe@ipvc.pt")));
+        userRepository.add(new User("Peter Pan", new Credential("peterPan", "password123"),
+                List.of(EUserState.ACTIVE), List.of(ERole.PREMIUM, ERole.SIMPLE), new Email("peter.pan@ipvc.pt")));
+    }
+
+    @Test
+    public void shouldReturnUserSummariesSortedByName() {
+        List<UserSummary> summaries = userRepository.getSummaries();
+
+        assertEquals(List.of("john Doe", "Mary Jane", "Peter Pan"),
+                summaries.stream().map(UserSummary::getName).collect(Collectors.toList()));
+        assertEquals("mary.jane@ipvc.pt", summaries.get(1).getEmail());
+        assertEquals(List.of(ERole.SIMPLE, ERole.ADMIN), summaries.get(1).getRoles());
+    }
+
+    @Test
+    public void shouldFindUserSummariesByAccessKeyIgnoringCase() {
+        List<UserSummary> summaries = userRepository.getSummaries("PETER");
+
+        assertEquals(1, summaries.size());
+        assertEquals("Peter Pan", summaries.get(0).getName());
+    }
+
+    @Test
+    public void shouldSearchWildcardsLiterally() {
+        assertEquals(1, userRepository.getSummaries("y_j").size());
+        assertTrue(userRepository.getSummaries("%").isEmpty());
+    }
+
+    @Test
+    public void shouldCountUsersByRole() {
+        Map<ERole, Long> counts = userRepository.countByRole();
+
+        assertEquals(3, counts.get(ERole.SIMPLE));
+        assertEquals(1, counts.get(ERole.ADMIN));
+        assertEquals(1, counts.get(ERole.PREMIUM));
+        assertEquals(3, userRepository.count());
+    }
+
+    @Test
+    public void shouldReturnOnlyActivePublicCategorySummaries() {
+        IMovementCategory removed = MovementCategory.createPublicCategory("Travel", URI.create("travel.png"));
+        removed.inactivate();
+        MovementCategoryDAO.getInstance().create(MovementCategory.createPublicCategory("health", URI.create("health.png")));
+        MovementCategoryDAO.getInstance().create(MovementCategory.createPublicCategory("Food", URI.create("food.png")));
+        MovementCategoryDAO.getInstance().create(new MovementCategory("Private"));
+        MovementCategoryDAO.getInstance().create(removed);
+
+        assertEquals(List.of("Food", "health"), MovementCategoryRepository.getInstance().getPublicSummaries().stream()
+                .map(CategorySummary::getName).collect(Collectors.toList()));
+    }
+}
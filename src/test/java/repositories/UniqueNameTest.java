@@ -0,0 +1,119 @@
+package repositories;
+
+import bll.entities.*;
+import bll.exceptions.ExistingCategoryException;
+import bll.exceptions.ExistingFormOfPaymentException;
+import bll.repositories.FormOfPaymentRepository;
+import bll.repositories.IFormOfPaymentRepository;
+import bll.repositories.IMovementCategoryRepository;
+import bll.repositories.MovementCategoryRepository;
+import bll.services.SessionService;
+import dal.infra.MovementCategoryDAO;
+import infra.EmbeddedDatabaseExtension;
+import infra.UserFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.net.URI;
+
+import static dal.infra.FormOfPaymentDAO.defaultFormOfPaymentDAO;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(EmbeddedDatabaseExtension.class)
+public class UniqueNameTest {
+    private IFormOfPaymentRepository formOfPaymentRepository;
+    private IMovementCategoryRepository categoryRepository;
+
+    @BeforeEach
+    public void setUp() {
+        UserFixture administrator = new UserFixture();
+        administrator.getUser().addCategory(new MovementCategory("Travel"));
+        administrator.save().logIn();
+        formOfPaymentRepository = FormOfPaymentRepository.defaultFormOfPaymentRepository();
+        categoryRepository = MovementCategoryRepository.getInstance();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SessionService.killSession();
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenTheFormOfPaymentNameExistsIgnoringCase() {
+        formOfPaymentRepository.add(new FormOfPayment("Cash"));
+
+        assertThrows(ExistingFormOfPaymentException.class, () -> formOfPaymentRepository.add(new FormOfPayment(" CASH ")));
+        assertThrows(ExistingFormOfPaymentException.class, () -> formOfPaymentRepository.add(new FormOfPayment("card")));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenTheFormOfPaymentExists() {
+        IFormOfPayment formOfPayment = new FormOfPayment("Cash");
+        formOfPaymentRepository.add(formOfPayment);
+
+        assertThrows(ExistingFormOfPaymentException.class, () -> formOfPaymentRepository.add(formOfPayment));
+    }
+
+    @Test
+    public void shouldCheckTheCurrentNameOfARenamedFormOfPayment() {
+        IFormOfPayment formOfPayment = new FormOfPayment("Cash");
+        formOfPaymentRepository.add(formOfPayment);
+        formOfPayment.updateName("Cheque");
+        formOfPaymentRepository.update(formOfPayment);
+
+        assertThrows(ExistingFormOfPaymentException.class, () -> formOfPaymentRepository.add(new FormOfPayment("cheque")));
+        assertDoesNotThrow(() -> formOfPaymentRepository.add(new FormOfPayment("Cash")));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenThePublicCategoryNameExistsIgnoringCase() {
+        categoryRepository.add(MovementCategory.createPublicCategory("Health", URI.create("health.png")));
+
+        assertThrows(ExistingCategoryException.class,
+                () -> categoryRepository.add(MovementCategory.createPublicCategory("health ", URI.create("other.png"))));
+    }
+
+    @Test
+    public void shouldAddPublicCategoryWithTheNameOfAPrivateOrInactiveCategory() {
+        IMovementCategory health = MovementCategory.createPublicCategory("Health", URI.create("health.png"));
+        categoryRepository.add(health);
+        categoryRepository.remove(health);
+
+        assertDoesNotThrow(() -> categoryRepository.add(MovementCategory.createPublicCategory("travel", null)));
+        assertDoesNotThrow(() -> categoryRepository.add(MovementCategory.createPublicCategory("HEALTH", null)));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenAFormOfPaymentIsRenamedAfterAnother() {
+        formOfPaymentRepository.add(new FormOfPayment("Cash"));
+        IFormOfPayment cheque = new FormOfPayment("Cheque");
+        formOfPaymentRepository.add(cheque);
+        cheque.updateName("CASH");
+
+        assertThrows(ExistingFormOfPaymentException.class, () -> formOfPaymentRepository.update(cheque));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenAPublicCategoryIsRenamedAfterAnother() {
+        categoryRepository.add(MovementCategory.createPublicCategory("Health", null));
+        IMovementCategory sport = MovementCategory.createPublicCategory("Sport", null);
+        categoryRepository.add(sport);
+        sport.updateName("health");
+
+        assertThrows(ExistingCategoryException.class, () -> categoryRepository.update(sport));
+    }
+
+    @Test
+    public void shouldRejectDuplicateNamesInTheDatabase() {
+        defaultFormOfPaymentDAO().create(FormOfPayment.inCatalogue(new FormOfPayment("Cash")));
+        MovementCategoryDAO.getInstance().create(MovementCategory.createPublicCategory("Health", null));
+
+        assertThrows(RuntimeException.class,
+                () -> defaultFormOfPaymentDAO().create(FormOfPayment.inCatalogue(new FormOfPayment("cash"))));
+        assertThrows(RuntimeException.class,
+                () -> MovementCategoryDAO.getInstance().create(MovementCategory.createPublicCategory("health", null)));
+        assertDoesNotThrow(() -> defaultFormOfPaymentDAO().create(new FormOfPayment("Cash")));
+    }
+}
@@ -0,0 +1,149 @@
+package services;
+
+import bll.builders.IMovementBuilder;
+import bll.entities.*;
+import bll.enumerators.EOperationType;
+import bll.exceptions.AttemptedToUseExcludedMovementException;
+import bll.exceptions.ExistingMovementException;
+import bll.exceptions.IllegalFormOfPaymentException;
+import bll.repositories.MovementRepository;
+import bll.repositories.WalletRepository;
+import bll.services.IImportService;
+import bll.services.ImportService;
+import bll.services.SessionService;
+import bll.valueObjects.Attachment;
+import dal.infra.UnitOfWork;
+import dal.infra.WalletDAO;
+import dal.infra.WalletMonthSummaries;
+import infra.EmbeddedDatabaseExtension;
+import infra.UserFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(EmbeddedDatabaseExtension.class)
+public class ImportServiceTest {
+    private static final int BATCH_SIZE = 10;
+
+    private UserFixture fixture;
+    private IImportService importService;
+    private IWallet wallet;
+
+    @BeforeEach
+    public void setUp() {
+        fixture = new UserFixture().save().logIn();
+        wallet = fixture.getWallet();
+        importService = new ImportService(WalletDAO.getInstance(), BATCH_SIZE);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SessionService.killSession();
+    }
+
+    @Test
+    public void shouldImportTheMovementsInBatches() {
+        List<IMovement> movements = movements(BATCH_SIZE * 2 + 5);
+
+        assertEquals(movements.size(), importService.importMovements(wallet, movements.iterator()));
+
+        assertEquals(movements.size(), storedMovements());
+        IWallet loaded = WalletRepository.getInstance().get(wallet.getID());
+        assertEquals(movements.size(), loaded.getMovements().size());
+        assertEquals(0, new BigDecimal(-movements.size()).compareTo(loaded.getBalanceExpected()));
+        assertEquals(movements.size(), sessionWallet().getMovements().size());
+        String summaries = WalletMonthSummaries.select(wallet.getID()).toString();
+        WalletMonthSummaries.rebuild();
+        assertEquals(WalletMonthSummaries.select(wallet.getID()).toString(), summaries);
+    }
+
+    @Test
+    public void shouldKeepTheSessionWalletWritable() {
+        importService.importMovements(wallet, movements(3).iterator());
+
+        MovementRepository.getInstance().add(sessionWallet(), movement("Salary"));
+
+        assertEquals(4, storedMovements());
+    }
+
+    @Test
+    public void shouldWriteTheAttachments() {
+        IMovement movement = fixture.movement("Receipt", "1", LocalDate.now(), EOperationType.DEBIT)
+                .addAttachments(new Attachment("www.ipvc.pt")).build();
+
+        importService.importMovements(wallet, List.of(movement).iterator());
+
+        assertEquals(1, WalletRepository.getInstance().get(wallet.getID()).getMovements().iterator().next()
+                .getAttachments().size());
+    }
+
+    @Test
+    public void shouldKeepTheBatchesWrittenBeforeAnInvalidMovement() {
+        List<IMovement> movements = movements(BATCH_SIZE + 1);
+        movements.add(IMovementBuilder.makeMovement("Cash", "1", LocalDate.now(), new FormOfPayment("Cash"),
+                fixture.getPayee(), fixture.getCategory(), EOperationType.DEBIT).build());
+
+        assertThrows(IllegalFormOfPaymentException.class,
+                () -> importService.importMovements(wallet, movements.iterator()));
+
+        assertEquals(BATCH_SIZE, storedMovements());
+        assertEquals(BATCH_SIZE, sessionWallet().getMovements().size());
+    }
+
+    @Test
+    public void shouldNotImportRepeatedMovements() {
+        IMovement movement = movement("Rent");
+        MovementRepository.getInstance().add(wallet, movement);
+
+        assertThrows(ExistingMovementException.class,
+                () -> importService.importMovements(sessionWallet(), List.of(movement).iterator()));
+        IMovement other = movement("Other");
+        assertThrows(ExistingMovementException.class,
+                () -> importService.importMovements(sessionWallet(), List.of(other, other).iterator()));
+        assertEquals(1, storedMovements());
+    }
+
+    @Test
+    public void shouldNotImportRemovedMovements() {
+        IMovement movement = movement("Rent");
+        MovementRepository.getInstance().add(wallet, movement);
+        MovementRepository.getInstance().remove(wallet, movement);
+        SessionService.getCurrentUser().updateWallet(WalletRepository.getInstance().get(wallet.getID()));
+
+        assertThrows(AttemptedToUseExcludedMovementException.class,
+                () -> importService.importMovements(sessionWallet(), List.of(movement).iterator()));
+    }
+
+    private List<IMovement> movements(int count) {
+        List<IMovement> movements = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            movements.add(movement("Movement " + i));
+        return movements;
+    }
+
+    private IMovement movement(String name) {
+        return fixture.movement(name, "1", LocalDate.now(), EOperationType.DEBIT).build();
+    }
+
+    private IWallet sessionWallet() {
+        for (IWallet w : SessionService.getCurrentUser().getWallets())
+            if (w.equals(wallet))
+                return w;
+        return null;
+    }
+
+    private long storedMovements() {
+        return UnitOfWork.call(entityManager -> entityManager.createQuery(
+                        "select count(m) from Movement m where m.walletID = :wallet", Long.class)
+                .setParameter("wallet", wallet.getID())
+                .getSingleResult());
+    }
+}
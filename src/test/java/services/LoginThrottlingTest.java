@@ -0,0 +1,160 @@
+package services;
+
+import bll.entities.IUser;
+import bll.enumerators.EUserState;
+import bll.exceptions.AccessDeniedBlockedUserException;
+import bll.repositories.UserRepository;
+import bll.services.AuthenticationService;
+import bll.services.IAuthenticationService;
+import bll.services.LoginAttemptLimiter;
+import bll.services.LoginService;
+import bll.services.SessionService;
+import dal.infra.StatementRecorder;
+import dal.infra.WriteBehindQueue;
+import infra.EmbeddedDatabaseExtension;
+import infra.UserFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static bll.services.IdentificationService.identificationServiceDefault;
+import static bll.services.PermissionService.permissionServiceDefault;
+import static infra.UserFixture.ACCESS_KEY;
+import static infra.UserFixture.PASSWORD;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(EmbeddedDatabaseExtension.class)
+public class LoginThrottlingTest {
+
+    private MovableClock clock;
+    private LoginAttemptLimiter limiter;
+    private IAuthenticationService authenticationService;
+    private IUser user;
+
+    @BeforeEach
+    public void setUp() {
+        user = UserFixture.newUser(ACCESS_KEY);
+        UserRepository.getInstance().add(user);
+        clock = new MovableClock();
+        limiter = new LoginAttemptLimiter(3, Duration.ofMinutes(15), 100, clock);
+        authenticationService = new AuthenticationService(identificationServiceDefault(), permissionServiceDefault(),
+                new LoginService(limiter), limiter);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SessionService.killSession();
+    }
+
+    @Test
+    public void shouldKeepTheFailedLoginsInMemory() {
+        assertFalse(authenticationService.authenticate(ACCESS_KEY, "wrong password"));
+        assertFalse(authenticationService.authenticate(ACCESS_KEY, "wrong password"));
+
+        WriteBehindQueue.flush();
+        assertEquals(List.of(EUserState.ACTIVE), storedStates());
+        assertTrue(authenticationService.authenticate(ACCESS_KEY, PASSWORD));
+    }
+
+    @Test
+    public void shouldSaveTheBlockAfterTheLastFailedLogin() {
+        for (int i = 0; i < 3; i++)
+            assertFalse(authenticationService.authenticate(ACCESS_KEY, "wrong password"));
+
+        assertEquals(List.of(EUserState.ACTIVE, EUserState.BLOCKED_BY_MANY_INVALID_LOGIN_ATTEMPT), storedStates());
+        assertThrows(AccessDeniedBlockedUserException.class,
+                () -> authenticationService.authenticate(ACCESS_KEY, PASSWORD));
+    }
+
+    @Test
+    public void shouldBlockAfterFailedAsynchronousLogins() {
+        for (int i = 0; i < 3; i++)
+            assertFalse(authenticationService.authenticateAsync(ACCESS_KEY, "wrong password").join());
+
+        assertEquals(List.of(EUserState.ACTIVE, EUserState.BLOCKED_BY_MANY_INVALID_LOGIN_ATTEMPT), storedStates());
+        CompletionException failure = assertThrows(CompletionException.class,
+                () -> authenticationService.authenticateAsync(ACCESS_KEY, PASSWORD).join());
+        assertTrue(failure.getCause() instanceof AccessDeniedBlockedUserException);
+    }
+
+    @Test
+    public void shouldForgetTheFailedLoginsAfterASuccessfulOne() {
+        assertFalse(authenticationService.authenticate(ACCESS_KEY, "wrong password"));
+        assertFalse(authenticationService.authenticate(ACCESS_KEY, "wrong password"));
+        assertTrue(authenticationService.authenticate(ACCESS_KEY, PASSWORD));
+        SessionService.killSession();
+        assertFalse(authenticationService.authenticate(ACCESS_KEY, "wrong password"));
+        assertFalse(authenticationService.authenticate(ACCESS_KEY, "wrong password"));
+
+        assertTrue(authenticationService.authenticate(ACCESS_KEY, PASSWORD));
+    }
+
+    @Test
+    public void shouldForgetTheFailedLoginsOutsideTheWindow() {
+        assertFalse(authenticationService.authenticate(ACCESS_KEY, "wrong password"));
+        assertFalse(authenticationService.authenticate(ACCESS_KEY, "wrong password"));
+        clock.advance(Duration.ofMinutes(16));
+        assertFalse(authenticationService.authenticate(ACCESS_KEY, "wrong password"));
+
+        assertEquals(1, limiter.size());
+        assertTrue(authenticationService.authenticate(ACCESS_KEY, PASSWORD));
+    }
+
+    @Test
+    public void shouldThrottleUnknownAccessKeysWithoutQueryingTheDatabase() {
+        for (int i = 0; i < 3; i++)
+            assertFalse(authenticationService.authenticate("unknown", PASSWORD));
+
+        assertTrue(limiter.isLimited("unknown"));
+        assertTrue(StatementRecorder.record(() ->
+                assertFalse(authenticationService.authenticate("unknown", PASSWORD))).isEmpty());
+    }
+
+    @Test
+    public void shouldKeepABoundedNumberOfKeys() {
+        LoginAttemptLimiter bounded = new LoginAttemptLimiter(3, Duration.ofMinutes(15), 2, clock);
+
+        bounded.recordFailure("first");
+        bounded.recordFailure("second");
+        bounded.recordFailure("third");
+
+        assertEquals(2, bounded.size());
+        assertEquals(1, bounded.recordFailure("first"));
+    }
+
+    private List<EUserState> storedStates() {
+        return UserRepository.getInstance().get(user.getID()).getUserStates();
+    }
+
+    private static final class MovableClock extends Clock {
+        private Instant instant = Instant.now();
+
+        private void advance(Duration duration) {
+            this.instant = this.instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return this.instant;
+        }
+    }
+}
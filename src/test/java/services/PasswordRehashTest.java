@@ -0,0 +1,79 @@
+package services;
+
+import bll.entities.*;
+import bll.repositories.UserRepository;
+import bll.services.SessionService;
+import bll.valueObjects.IPasswordHashParameters;
+import bll.valueObjects.PasswordHashParameters;
+import infra.EmbeddedDatabaseExtension;
+import infra.UserFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static bll.services.AuthenticationService.authenticationServiceDefault;
+import static infra.UserFixture.ACCESS_KEY;
+import static infra.UserFixture.PASSWORD;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(EmbeddedDatabaseExtension.class)
+public class PasswordRehashTest {
+    private static final IPasswordHashParameters CHEAPER =
+            new PasswordHashParameters("PBKDF2WithHmacSHA256", 10_000, 256);
+
+    private IPasswordHashParameters parameters;
+    private IUser user;
+
+    @BeforeEach
+    public void setUp() {
+        parameters = PasswordHashing.getParameters();
+        user = UserFixture.newUser(ACCESS_KEY);
+        UserRepository.getInstance().add(user);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        PasswordHashing.setParameters(parameters);
+        SessionService.killSession();
+    }
+
+    @Test
+    public void shouldStoreTheHashParametersWithTheCredential() {
+        assertEquals(parameters, UserRepository.getInstance().get(user.getID()).getCredential().getHashParameters());
+    }
+
+    @Test
+    public void shouldRehashThePasswordOnASuccessfulLogin() {
+        PasswordHashing.setParameters(CHEAPER);
+
+        assertTrue(authenticationServiceDefault().authenticate(ACCESS_KEY, PASSWORD));
+
+        ICredential stored = UserRepository.getInstance().get(user.getID()).getCredential();
+        assertEquals(CHEAPER, stored.getHashParameters());
+        assertTrue(stored.isPasswordValid(PASSWORD));
+        SessionService.killSession();
+        assertTrue(authenticationServiceDefault().authenticate(ACCESS_KEY, PASSWORD));
+    }
+
+    @Test
+    public void shouldNotRehashOnAFailedLogin() {
+        PasswordHashing.setParameters(CHEAPER);
+
+        assertFalse(authenticationServiceDefault().authenticate(ACCESS_KEY, "wrong password"));
+
+        assertEquals(parameters, UserRepository.getInstance().get(user.getID()).getCredential().getHashParameters());
+    }
+
+    @Test
+    public void shouldKeepTheSessionUserWritableAfterTheRehash() {
+        PasswordHashing.setParameters(CHEAPER);
+        assertTrue(authenticationServiceDefault().authenticate(ACCESS_KEY, PASSWORD));
+
+        IUser current = SessionService.getCurrentUser();
+        current.getCredential().addAccessKey("johnny");
+        UserRepository.getInstance().update(current);
+
+        assertNotNull(UserRepository.getInstance().getByAccessKey("johnny"));
+    }
+}
@@ -0,0 +1,137 @@
+package services;
+
+import bll.entities.*;
+import bll.exceptions.NonExistentSessionException;
+import bll.exceptions.SessionAlreadyHasUserException;
+import bll.repositories.UserRepository;
+import bll.repositories.WalletRepository;
+import bll.services.IAuthenticationService;
+import bll.services.SessionRegistry;
+import bll.services.SessionService;
+import infra.EmbeddedDatabaseExtension;
+import infra.UserFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static bll.services.AuthenticationService.authenticationServiceDefault;
+import static infra.UserFixture.PASSWORD;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(EmbeddedDatabaseExtension.class)
+public class SessionRegistryTest {
+    private IAuthenticationService authenticationService;
+    private IUser john;
+    private IUser jane;
+
+    @BeforeEach
+    public void setUp() {
+        john = UserFixture.newUser("johnDoe");
+        john.addWallet(new Wallet("John", new FormOfPayment("Card"), new Payee("John")));
+        jane = UserFixture.newUser("janeDoe");
+        jane.addWallet(new Wallet("Jane", new FormOfPayment("Card"), new Payee("Jane")));
+        UserRepository.getInstance().add(john);
+        UserRepository.getInstance().add(jane);
+        authenticationService = authenticationServiceDefault();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SessionService.killSession();
+        SessionRegistry.expire(Duration.ZERO);
+    }
+
+    @Test
+    public void shouldOpenASessionPerUser() {
+        UUID johnToken = authenticationService.openSession("johnDoe", PASSWORD);
+        UUID janeToken = authenticationService.openSession("janeDoe", PASSWORD);
+
+        assertNotNull(johnToken);
+        assertNotNull(janeToken);
+        assertNotEquals(johnToken, janeToken);
+        assertEquals(john, SessionRegistry.callAs(johnToken, SessionService::getCurrentUser));
+        assertEquals(jane, SessionRegistry.callAs(janeToken, SessionService::getCurrentUser));
+        assertThrows(NonExistentSessionException.class, SessionService::getCurrentUser);
+    }
+
+    @Test
+    public void shouldServeTheSessionsConcurrently() {
+        UUID johnToken = authenticationService.openSession("johnDoe", PASSWORD);
+        UUID janeToken = authenticationService.openSession("janeDoe", PASSWORD);
+
+        CompletableFuture<Set<String>> johnWallets = CompletableFuture.supplyAsync(() -> walletNames(johnToken));
+        CompletableFuture<Set<String>> janeWallets = CompletableFuture.supplyAsync(() -> walletNames(janeToken));
+
+        assertEquals(Set.of("John"), johnWallets.join());
+        assertEquals(Set.of("Jane"), janeWallets.join());
+    }
+
+    @Test
+    public void shouldLogInAsynchronouslyInTheScopeOfTheCaller() {
+        UUID token = SessionRegistry.login(() -> authenticationService.authenticateAsync("johnDoe", PASSWORD).join());
+
+        assertNotNull(token);
+        assertEquals(john, SessionRegistry.callAs(token, SessionService::getCurrentUser));
+        assertThrows(NonExistentSessionException.class, SessionService::getCurrentUser);
+    }
+
+    @Test
+    public void shouldNotOpenASessionForAFailedLogin() {
+        int sessions = SessionRegistry.size();
+
+        assertNull(authenticationService.openSession("johnDoe", "wrong password"));
+        assertEquals(sessions, SessionRegistry.size());
+    }
+
+    @Test
+    public void shouldKeepTheDefaultSessionApart() {
+        assertTrue(authenticationService.authenticate("johnDoe", PASSWORD));
+        UUID janeToken = authenticationService.openSession("janeDoe", PASSWORD);
+
+        assertEquals(john, SessionService.getCurrentUser());
+        assertEquals(jane, SessionRegistry.callAs(janeToken, SessionService::getCurrentUser));
+        assertThrows(SessionAlreadyHasUserException.class,
+                () -> SessionRegistry.runAs(janeToken, () -> SessionService.addUserInSession(john)));
+    }
+
+    @Test
+    public void shouldCloseTheSessionOfTheScope() {
+        UUID token = authenticationService.openSession("johnDoe", PASSWORD);
+
+        SessionRegistry.runAs(token, SessionService::killSession);
+
+        assertNull(SessionRegistry.get(token));
+        assertThrows(NonExistentSessionException.class,
+                () -> SessionRegistry.callAs(token, SessionService::getCurrentUser));
+    }
+
+    @Test
+    public void shouldExpireTheIdleSessions() throws InterruptedException {
+        UUID token = authenticationService.openSession("johnDoe", PASSWORD);
+        Thread.sleep(5);
+
+        assertTrue(SessionRegistry.expire(Duration.ofMillis(1)) >= 1);
+        assertNull(SessionRegistry.get(token));
+    }
+
+    @Test
+    public void shouldExpireTheIdleSessionsInTheBackground() {
+        authenticationService.openSession("johnDoe", PASSWORD);
+
+        assertTrue(Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.getName().equals("session-expiry") && thread.isDaemon()));
+    }
+
+    private Set<String> walletNames(UUID token) {
+        return SessionRegistry.callAs(token, () -> WalletRepository.getInstance().get((wallet) -> true).stream()
+                .map(IWallet::getName)
+                .collect(Collectors.toSet()));
+    }
+}